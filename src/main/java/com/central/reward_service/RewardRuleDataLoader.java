@@ -92,16 +92,16 @@ public class RewardRuleDataLoader implements CommandLineRunner {
                 createRule("TIER_5", 100000.0, "GIFT_CARD", "₹15,000 Apple Store Voucher", 15000.00, 10, true),
                 createRule("TIER_5", 100000.0, "HOTEL_VOUCHER", "2-Night Hotel Stay Voucher (Max ₹8k)", 8000.00, 8, true),
                 createRule("TIER_5", 100000.0, "MEGA_CASHBACK", "₹10,000 Cashback", 10000.00, 7, true),
-                createRule("TIER_5", 100000.0, "ULTRA_JACKPOT", "💎 ₹25,000 Gold Voucher", 25000.00, 3, true),
+                withDailyCapacity(createRule("TIER_5", 100000.0, "ULTRA_JACKPOT", "💎 ₹25,000 Gold Voucher", 25000.00, 3, true), 20),
 
                 // TIER 6
                 createRule("TIER_6", 500000.0, "CASHBACK", "₹25,000 Cashback", 25000.00, 30, true),
                 createRule("TIER_6", 500000.0, "FLIGHT_VOUCHER", "₹50,000 off on Business Class Flight", 50000.00, 25, true),
                 createRule("TIER_6", 500000.0, "GIFT_CARD", "₹30,000 Luxury Shopping Voucher", 30000.00, 20, true),
                 createRule("TIER_6", 500000.0, "POINTS", "50,000 Reward Points", 50000.00, 10, true),
-                createRule("TIER_6", 500000.0, "MEGA_JACKPOT", "MacBook Air M3 Voucher (Max ₹1,00,000)", 100000.00, 8, true),
+                withDailyCapacity(createRule("TIER_6", 500000.0, "MEGA_JACKPOT", "MacBook Air M3 Voucher (Max ₹1,00,000)", 100000.00, 8, true), 10),
                 createRule("TIER_6", 500000.0, "ELITE_JACKPOT", "🔥 ₹1,50,000 Trip Voucher (Travel/Stay)", 150000.00, 5, true),
-                createRule("TIER_6", 500000.0, "SUPER_ELITE", "👑 ₹2,00,000 Mega Cashback", 200000.00, 2, true)
+                withDailyCapacity(createRule("TIER_6", 500000.0, "SUPER_ELITE", "👑 ₹2,00,000 Mega Cashback", 200000.00, 2, true), 5)
         );
     }
 
@@ -118,4 +118,10 @@ public class RewardRuleDataLoader implements CommandLineRunner {
         // ID and 'rewards' list are managed by JPA/Lombok and left blank
         return rule;
     }
+
+    // Jackpots are limited per day, see RewardInventoryService
+    private RewardRule withDailyCapacity(RewardRule rule, int dailyCapacity) {
+        rule.setDailyCapacity(dailyCapacity);
+        return rule;
+    }
 }
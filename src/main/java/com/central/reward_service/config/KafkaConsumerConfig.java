@@ -0,0 +1,111 @@
+package com.central.reward_service.config;
+
+import com.central.reward_service.kafka.TransactionEventConsumer;
+import com.central.reward_service.kafka.TransactionRetryPublisher;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.kafka.autoconfigure.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.kafka.autoconfigure.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.Map;
+
+/**
+ * Listener containers for the transaction consumer, one per {@code app.kafka.consumer.mode}.
+ * All start from Boot's {@code spring.kafka.*} settings.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    /**
+     * Record mode (default): values arrive as the producer's bytes and are parsed by the listener,
+     * so a record that is not a valid {@code TransactionEvent} fails in the listener and goes to
+     * the dead-letter topic unchanged instead of failing every poll.
+     *
+     * Created in every mode: the retry and dead-letter topics are consumed by
+     * {@link TransactionEventConsumer} whatever the mode. Outside record mode only the container
+     * of the main topic stays stopped, the batch or parallel consumer reads that topic instead.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> transactionKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            KafkaProperties kafkaProperties,
+            @Value("${app.kafka.consumer.mode:record}") String mode) {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties();
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, new DefaultKafkaConsumerFactory<>(props));
+        if (!"record".equals(mode)) {
+            factory.setContainerCustomizer(container -> {
+                if (TransactionEventConsumer.LISTENER_ID.equals(container.getListenerId())) {
+                    container.setAutoStartup(false);
+                }
+            });
+        }
+        return factory;
+    }
+
+    /**
+     * Publishes failed transaction records to the retry and dead-letter topics as they were
+     * consumed: original value bytes and headers, plus the retry headers.
+     */
+    @Bean
+    public KafkaTemplate<String, byte[]> transactionRetryKafkaTemplate(KafkaProperties kafkaProperties) {
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                kafkaProperties.buildProducerProperties(), new StringSerializer(), new ByteArraySerializer()));
+    }
+
+    /**
+     * Batch mode ({@code app.kafka.consumer.mode=batch}): batch delivery with one offset commit
+     * per poll. When the listener throws a {@code BatchListenerFailedException} the error handler
+     * commits the records before the failed one, retries the failed record a few times, then
+     * moves it to the retry topics (the dead-letter topic if it cannot be parsed) and redelivers
+     * the rest. If that publish fails the record is retried again rather than skipped.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.kafka.consumer.mode", havingValue = "batch")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            TransactionRetryPublisher retryPublisher,
+            @Value("${app.kafka.consumer.poison-retries:2}") long poisonRetries) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(retryPublisher::publish, new FixedBackOff(500L, poisonRetries)));
+        return factory;
+    }
+
+    /**
+     * Parallel mode ({@code app.kafka.consumer.mode=parallel}): records are acknowledged one by
+     * one, in any order, as the workers finish them. With async acks the container commits only
+     * the contiguous acknowledged prefix of each partition and waits for the gaps to close before
+     * the next poll.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.kafka.consumer.mode", havingValue = "parallel")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> parallelKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        return factory;
+    }
+}
@@ -0,0 +1,26 @@
+package com.central.reward_service.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Declares the topics owned by the reward service. KafkaAdmin creates them on startup if missing.
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    /**
+     * Rule version announcements. Compacted with a single key, so the topic only ever keeps
+     * the latest version and a starting node can read it in one fetch.
+     */
+    @Bean
+    public NewTopic ruleVersionTopic(@Value("${kafka.topics.reward_service.rule_versions}") String topic) {
+        return TopicBuilder.name(topic)
+                .partitions(1)
+                .compact()
+                .build();
+    }
+}
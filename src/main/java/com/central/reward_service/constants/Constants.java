@@ -9,6 +9,9 @@ public class Constants {
     public static final String INVALID_REWARD_STATE = "Reward is in an invalid state: ";
     public static final String NO_REWARD_TIER = "Transaction amount does not fall into any configured reward tier";
     public static final String NO_REWARDS_CONFIGURED = "Configuration Error: No rewards found for this tier";
+    public static final String REWARD_TIER_EXHAUSTED = "All rewards of this tier have reached their daily capacity";
+    public static final String UNKNOWN_REWARD_TYPE = "Reward type is not a RewardType of the reward event schema: ";
+    public static final String TRANSACTION_NOT_STORED = "Reward could not be stored, the transaction can be sent again";
     
     // Log Messages
     public static final String LOG_REWARD_PROCESSING_START = "Starting reward processing for transaction: {}";
@@ -16,14 +19,20 @@ public class Constants {
     public static final String LOG_REWARD_CLAIMED = "Reward claimed successfully - ID: {}";
     public static final String LOG_REWARD_EXPIRED = "Reward has expired - ID: {}";
     public static final String LOG_TRANSACTION_PROCESSING = "Processing transaction amount: {}";
+    public static final String LOG_TRANSACTION_REPLAYED = "Transaction already rewarded, returning the original reward: {}";
     
     // Error Codes
     public static final double ERROR_CODE_DUPLICATE_TRANSACTION = 400.06;
     public static final double ERROR_CODE_DATA_INTEGRITY = 400.02;
     public static final double ERROR_CODE_REWARD_CLAIM = 404.06;
+    public static final double ERROR_CODE_INVALID_REQUEST = 400.01;
     
     // Error Descriptions
     public static final String ERROR_DESC_DUPLICATE_TRANSACTION = "Transaction has already been awarded a reward";
     public static final String ERROR_DESC_DATA_INTEGRITY = "Data integrity violation";
     public static final String ERROR_DESC_REWARD_CLAIM = "Reward Already claimed or Reward expired";
+    public static final String ERROR_DESC_INVALID_REQUEST = "Invalid request parameter";
+
+    // Headers
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 }
@@ -9,6 +9,8 @@ import org.springframework.web.bind.annotation.*;
 import org.openapitools.api.RewardManagementApi;
 import org.openapitools.model.RewardResponse;
 import org.openapitools.model.RewardRequest;
+import org.openapitools.model.RewardBatchRequest;
+import org.openapitools.model.RewardBatchResponse;
 
 import java.util.List;
 
@@ -29,8 +31,13 @@ public class RewardController implements RewardManagementApi {
     }
 
     @Override
-    public ResponseEntity<List<RewardResponse>> getUserRewards(String userId, Integer page, Integer size) {
-        return rewardService.getUserRewards(userId, page, size);
+    public ResponseEntity<List<RewardResponse>> getRewardsByIds(List<Long> ids) {
+        return rewardService.getRewardsByIds(ids);
+    }
+
+    @Override
+    public ResponseEntity<List<RewardResponse>> getUserRewards(String userId, Integer page, Integer size, String cursor) {
+        return rewardService.getUserRewards(userId, page, size, cursor);
     }
 
     @Override
@@ -38,6 +45,11 @@ public class RewardController implements RewardManagementApi {
         return rewardService.processTransaction(request);
     }
 
+    @Override
+    public ResponseEntity<RewardBatchResponse> processTransactionBatch(RewardBatchRequest request) {
+        return rewardService.processTransactions(request);
+    }
+
     @Override
     public ResponseEntity<RewardClaimResponse> claimReward( Long rewardId) {
         return rewardService.claimReward(rewardId);
@@ -0,0 +1,74 @@
+package com.central.reward_service.controller;
+
+import com.central.reward_service.model.RewardExportFormat;
+import com.central.reward_service.service.RewardExporter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.Executor;
+
+/**
+ * Bulk export of rewards for finance.
+ *
+ * Not in the OpenAPI spec: the generated interfaces cannot return a {@link StreamingResponseBody},
+ * and buffering the export into a {@code Resource} is what this endpoint exists to avoid.
+ */
+@RestController
+public class RewardExportController {
+
+    private final RewardExporter rewardExporter;
+
+    private final Executor ioTaskExecutor;
+
+    private final long exportTimeoutMs;
+
+    public RewardExportController(RewardExporter rewardExporter,
+                                  @Qualifier("ioTaskExecutor") Executor ioTaskExecutor,
+                                  @Value("${app.reward.export.timeout-ms:1800000}") long exportTimeoutMs) {
+        this.rewardExporter = rewardExporter;
+        this.ioTaskExecutor = ioTaskExecutor;
+        this.exportTimeoutMs = exportTimeoutMs;
+    }
+
+    /**
+     * GET /admin/rewards/export : Stream the rewards created in [from, to), oldest first,
+     * as NDJSON or as length-delimited RewardEvent protobufs
+     */
+    @GetMapping("/admin/rewards/export")
+    public ResponseEntity<StreamingResponseBody> exportRewards(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(defaultValue = "NDJSON") RewardExportFormat format,
+            HttpServletRequest request) {
+        StreamingResponseBody body = rewardExporter.export(from.toInstant(), to.toInstant(), format);
+        useExportAsyncSettings(request);
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"rewards."
+                        + format.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Gives this request's streamed body its own timeout and runs it on the IO executor's virtual
+     * threads; other async requests keep the MVC-wide settings. Both are read from the request's
+     * async manager when the body is handed off, after this method returns.
+     */
+    private void useExportAsyncSettings(HttpServletRequest request) {
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.getAsyncWebRequest().setTimeout(exportTimeoutMs);
+        asyncManager.setTaskExecutor(new TaskExecutorAdapter(ioTaskExecutor));
+    }
+}
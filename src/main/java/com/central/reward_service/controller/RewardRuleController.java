@@ -4,8 +4,12 @@ import com.central.reward_service.service.RewardRuleService;
 import org.openapitools.api.RewardRuleManagementApi;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.openapitools.model.RewardRulePublishRequest;
+import org.openapitools.model.RewardRulePublishResponse;
 import org.openapitools.model.RewardRuleResponse;
 import org.openapitools.model.RewardRuleRequest;
+import org.openapitools.model.RewardRuleSimulationRequest;
+import org.openapitools.model.RewardRuleSimulationResponse;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -83,4 +87,24 @@ public class RewardRuleController implements  RewardRuleManagementApi {
     public ResponseEntity<List<RewardRuleResponse>> adminRewardRulesTierTierNameGet(String tierName) {
         return rewardRuleService.adminRewardRulesTierTierNameGet(tierName);
     }
+
+    //---------------------------------------------------------
+
+    /**
+     * POST /admin/reward-rules/publish : Publish a batch of reward rule edits as a single new version
+     */
+    @Override
+    public ResponseEntity<RewardRulePublishResponse> adminRewardRulesPublishPost(RewardRulePublishRequest rewardRulePublishRequest) {
+        return rewardRuleService.adminRewardRulesPublishPost(rewardRulePublishRequest);
+    }
+
+    //---------------------------------------------------------
+
+    /**
+     * POST /admin/reward-rules/simulate : Simulate a candidate reward rule set
+     */
+    @Override
+    public ResponseEntity<RewardRuleSimulationResponse> adminRewardRulesSimulatePost(RewardRuleSimulationRequest rewardRuleSimulationRequest) {
+        return rewardRuleService.adminRewardRulesSimulatePost(rewardRuleSimulationRequest);
+    }
 }
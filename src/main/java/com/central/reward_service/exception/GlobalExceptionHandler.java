@@ -34,6 +34,74 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * Handles a paging cursor that was not issued by the service.
+     *
+     * @param ex the caught InvalidCursorException
+     * @return ResponseEntity with HTTP 400 Bad Request status and error message
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(InvalidCursorException ex) {
+        return generateErrorResponse(
+            Constants.ERROR_CODE_INVALID_REQUEST,
+            Constants.ERROR_DESC_INVALID_REQUEST,
+            HttpStatus.BAD_REQUEST.getReasonPhrase(),
+            ex.getMessage(),
+            HttpStatus.BAD_REQUEST
+        );
+    }
+
+    /**
+     * Handles rule simulation requests that cannot be run, such as a rule set without active rules.
+     *
+     * @param ex the caught InvalidSimulationException
+     * @return ResponseEntity with HTTP 400 Bad Request status and error message
+     */
+    @ExceptionHandler(InvalidSimulationException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidSimulation(InvalidSimulationException ex) {
+        return generateErrorResponse(
+            Constants.ERROR_CODE_INVALID_REQUEST,
+            Constants.ERROR_DESC_INVALID_REQUEST,
+            HttpStatus.BAD_REQUEST.getReasonPhrase(),
+            ex.getMessage(),
+            HttpStatus.BAD_REQUEST
+        );
+    }
+
+    /**
+     * Handles a reward rule that cannot be stored, such as one with an unknown reward type.
+     *
+     * @param ex the caught InvalidRewardRuleException
+     * @return ResponseEntity with HTTP 400 Bad Request status and error message
+     */
+    @ExceptionHandler(InvalidRewardRuleException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRewardRule(InvalidRewardRuleException ex) {
+        return generateErrorResponse(
+            Constants.ERROR_CODE_INVALID_REQUEST,
+            Constants.ERROR_DESC_INVALID_REQUEST,
+            HttpStatus.BAD_REQUEST.getReasonPhrase(),
+            ex.getMessage(),
+            HttpStatus.BAD_REQUEST
+        );
+    }
+
+    /**
+     * Handles a reward export request with an empty date range.
+     *
+     * @param ex the caught InvalidExportRangeException
+     * @return ResponseEntity with HTTP 400 Bad Request status and error message
+     */
+    @ExceptionHandler(InvalidExportRangeException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidExportRange(InvalidExportRangeException ex) {
+        return generateErrorResponse(
+            Constants.ERROR_CODE_INVALID_REQUEST,
+            Constants.ERROR_DESC_INVALID_REQUEST,
+            HttpStatus.BAD_REQUEST.getReasonPhrase(),
+            ex.getMessage(),
+            HttpStatus.BAD_REQUEST
+        );
+    }
+
     /**
      * Handles database integrity violations (e.g., unique constraint violations).
      *
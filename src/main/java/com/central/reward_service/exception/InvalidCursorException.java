@@ -0,0 +1,14 @@
+package com.central.reward_service.exception;
+
+/**
+ * A paging cursor that was not issued by the service, or was altered by the client.
+ */
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
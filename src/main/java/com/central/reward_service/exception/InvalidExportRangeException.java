@@ -0,0 +1,10 @@
+package com.central.reward_service.exception;
+
+/**
+ * A reward export request whose date range is empty or reversed.
+ */
+public class InvalidExportRangeException extends RuntimeException {
+    public InvalidExportRangeException(String message) {
+        super(message);
+    }
+}
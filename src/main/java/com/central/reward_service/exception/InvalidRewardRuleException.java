@@ -0,0 +1,10 @@
+package com.central.reward_service.exception;
+
+/**
+ * A reward rule that cannot be stored as given, e.g. a reward type the reward event schema does not know.
+ */
+public class InvalidRewardRuleException extends RuntimeException {
+    public InvalidRewardRuleException(String message) {
+        super(message);
+    }
+}
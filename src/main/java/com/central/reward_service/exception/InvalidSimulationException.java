@@ -0,0 +1,10 @@
+package com.central.reward_service.exception;
+
+/**
+ * A rule simulation request that cannot be run as given, e.g. no active candidate rules.
+ */
+public class InvalidSimulationException extends RuntimeException {
+    public InvalidSimulationException(String message) {
+        super(message);
+    }
+}
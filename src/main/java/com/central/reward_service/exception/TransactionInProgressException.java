@@ -0,0 +1,11 @@
+package com.central.reward_service.exception;
+
+/**
+ * Another call is still ingesting the same transaction and did not finish in time. Transient:
+ * unlike a rejected transaction, the caller should retry.
+ */
+public class TransactionInProgressException extends RuntimeException {
+    public TransactionInProgressException(String message) {
+        super(message);
+    }
+}
@@ -1,21 +1,27 @@
 package com.central.reward_service.filter;
 
+import com.central.reward_service.logging.TransactionLogSampler;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.stereotype.Component;
 
 
 import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * This class is a filter that logs the start and end of a transaction. It logs the HTTP method, URL, and the time
- * taken to complete the transaction.
+ * taken to complete the transaction. Both lines are subject to the log sampling
+ * ({@link TransactionLogSampler}), keyed on the request's {@code X-Request-Id} header when present.
  */
 @Component
 @Slf4j
 public class LogFilter implements Filter {
 
+    private static final String REQUEST_ID_HEADER = "X-Request-Id";
+
     /**
      * This method is called by the servlet container each time a request/response pair is passed
      * through the chain due to a client request for a resource at the end of the chain.
@@ -31,19 +37,26 @@ public class LogFilter implements Filter {
             throws IOException, ServletException {
         final HttpServletRequest request = (HttpServletRequest) servletRequest;
 
-        // Log the start of the transaction
-        log.info("Transaction Started for : {} {}", request.getMethod(), request.getRequestURL());
+        // Key the log sampling on the caller's request id, or a random one, for the whole request
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || requestId.isBlank()) {
+            requestId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        try (MDC.MDCCloseable ignored = MDC.putCloseable(TransactionLogSampler.SAMPLE_KEY, requestId)) {
+            // Log the start of the transaction
+            log.debug("Transaction Started for : {} {}", request.getMethod(), request.getRequestURI());
 
-        // Get the current time
-        long time = System.currentTimeMillis();
+            // Get the current time
+            long time = System.currentTimeMillis();
 
-        // Call the next filter in the chain
-        filterChain.doFilter(servletRequest, servletResponse);
+            // Call the next filter in the chain
+            filterChain.doFilter(servletRequest, servletResponse);
 
-        // Calculate the time taken to complete the transaction
-        time = System.currentTimeMillis() - time;
+            // Calculate the time taken to complete the transaction
+            time = System.currentTimeMillis() - time;
 
-        // Log the end of the transaction
-        log.info("Transaction Completed for : {} {} in {} ms", request.getMethod(), request.getRequestURL(), time);
+            // Log the end of the transaction
+            log.info("Transaction Completed for : {} {} in {} ms", request.getMethod(), request.getRequestURI(), time);
+        }
     }
 }
@@ -1,9 +1,9 @@
 package com.central.reward_service.kafka;
 
 import com.central.reward_service.model.Reward;
+import com.central.reward_service.model.RewardOutbox;
 import com.google.protobuf.Timestamp;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.kafka.clients.producer.RecordMetadata;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -13,67 +13,100 @@ import reward.events.RewardEvent;
 import reward.events.RewardType;
 
 import java.time.Instant;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
+/**
+ * Builds reward events and publishes them.
+ *
+ * Reward processing does not talk to Kafka: it stores the event with {@link #toOutboxEntry(Reward)}
+ * in the same transaction as the reward, and {@link RewardOutboxRelay} later calls
+ * {@link #send(RewardOutbox)} for every outbox row.
+ */
 @Slf4j
 @Component
 public class RewardEventProducer {
 
-    @Value("${kafka.topics.reward_service.sender}")
-    private static String REWARD_TOPIC;
-
     private final KafkaTemplate<String, byte[]> kafkaTemplate;
 
+    private final String rewardTopic;
+
     @Autowired
-    public RewardEventProducer(KafkaTemplate<String, byte[]> kafkaTemplate) {
+    public RewardEventProducer(KafkaTemplate<String, byte[]> kafkaTemplate,
+                               @Value("${kafka.topics.reward_service.sender}") String rewardTopic) {
         this.kafkaTemplate = kafkaTemplate;
+        this.rewardTopic = rewardTopic;
     }
 
     /**
-     * Sends a reward event to Kafka
+     * Serializes the reward event into an outbox row, keyed by user id.
      * @param reward The reward details from the Reward model
+     * @return empty if the reward's type has no event type; the reward is kept, no event is sent
      */
-    public void sendRewardEvent(Reward reward) {
-        if (reward == null) {
-            log.error("Cannot send null reward event");
-            return;
+    public Optional<RewardOutbox> toOutboxEntry(Reward reward) {
+        if (!isPublishable(reward.getRewardType())) {
+            // Rule writes reject such types, so only rules stored before that check get here
+            log.warn("Reward type {} of transaction {} has no event type, no reward event is sent",
+                    reward.getRewardType(), reward.getTransactionId());
+            return Optional.empty();
         }
+        return Optional.of(RewardOutbox.builder()
+                .topic(rewardTopic)
+                .messageKey(reward.getUserId())
+                .payload(toEvent(reward).toByteArray())
+                .createdAt(java.sql.Timestamp.from(Instant.now()))
+                .build());
+    }
 
-        log.info("Sending reward event for user: {}, transaction: {}", 
-                reward.getUserId(), reward.getTransactionId());
-
+    /**
+     * Whether rewards of this type can be published, i.e. it is a {@link RewardType} of the event schema.
+     */
+    public static boolean isPublishable(String rewardType) {
+        if (rewardType == null) {
+            return false;
+        }
         try {
-            // Build the reward event
-            RewardEvent rewardEvent = RewardEvent.newBuilder()
-                    .setRewardId(String.valueOf(reward.getRewardId()))
-                    .setTransactionId(reward.getTransactionId())
-                    .setUserId(reward.getUserId())
-                    .setRewardType(RewardType.valueOf(reward.getRewardType()))
-                    .setRewardValue(reward.getRewardValue())
-                    .setRewardDescription(reward.getRewardDescription())
-                    .setTransactionAmount(reward.getTransactionAmount())
-                    .setCreatedAt(convertToTimestamp(reward.getCreatedAt()))
-                    .setNotificationMessage(reward.getRewardDescription())
-                    .build();
-
-            // Send the event to Kafka
-            CompletableFuture<SendResult<String, byte[]>> future = 
-                    kafkaTemplate.send(REWARD_TOPIC, reward.getUserId(), rewardEvent.toByteArray());
+            return RewardType.valueOf(rewardType) != RewardType.UNRECOGNIZED;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
 
-            future.thenAccept(result -> {
-                RecordMetadata metadata = result.getRecordMetadata();
-                log.info("Reward event sent successfully! User: {}, Reward Type: {}, Topic: {}, Partition: {}",
-                        reward.getUserId(), reward.getRewardType(), metadata.topic(), metadata.partition());
-            }).exceptionally(ex -> {
-                log.error("Failed to send reward event for user {}: {}", 
-                        reward.getUserId(), ex.getMessage(), ex);
-                return null;
-            });
+    /**
+     * Builds the reward event published for a reward; also the record format of the protobuf export.
+     */
+    public RewardEvent toEvent(Reward reward) {
+        return RewardEvent.newBuilder()
+                .setRewardId(String.valueOf(reward.getRewardId()))
+                .setTransactionId(reward.getTransactionId())
+                .setUserId(reward.getUserId())
+                .setRewardType(RewardType.valueOf(reward.getRewardType()))
+                .setRewardValue(reward.getRewardValue())
+                .setRewardDescription(reward.getRewardDescription())
+                .setTransactionAmount(reward.getTransactionAmount())
+                .setCreatedAt(convertToTimestamp(reward.getCreatedAt()))
+                .setNotificationMessage(reward.getRewardDescription())
+                .build();
+    }
 
-        } catch (Exception e) {
-            log.error("Error building or sending reward event: {}", e.getMessage(), e);
-        }
+    /**
+     * Sends one outbox row to Kafka.
+     *
+     * @return completes once Kafka has acknowledged the record
+     */
+    public CompletableFuture<SendResult<String, byte[]>> send(RewardOutbox entry) {
+        return kafkaTemplate.send(entry.getTopic(), entry.getMessageKey(), entry.getPayload())
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("Failed to send reward event {} for user {}: {}",
+                                entry.getId(), entry.getMessageKey(), ex.getMessage());
+                    } else {
+                        log.debug("Reward event {} sent to {}-{}", entry.getId(),
+                                result.getRecordMetadata().topic(), result.getRecordMetadata().partition());
+                    }
+                });
     }
+
     /**
      * Convert java.sql.Timestamp to protobuf Timestamp
      */
@@ -86,6 +119,4 @@ public class RewardEventProducer {
                 .setNanos(timestamp.getNanos())
                 .build();
     }
-
-
 }
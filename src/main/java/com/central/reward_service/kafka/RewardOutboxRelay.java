@@ -0,0 +1,234 @@
+package com.central.reward_service.kafka;
+
+import com.central.reward_service.model.RewardOutbox;
+import com.central.reward_service.repository.RewardOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the reward outbox to Kafka with at-least-once delivery.
+ *
+ * Each round leases the oldest rows in a short transaction (skipping rows another replica
+ * holds), sends them all with no transaction or connection held, waits for the
+ * acknowledgements and then, in a second short transaction, deletes the acknowledged rows
+ * and releases the rest for a later round. A relay that dies mid-round leaves its lease to
+ * expire. Consumers must accept the occasional repeat, which they can detect by reward id.
+ *
+ * Writers call {@link #relayAfterCommit()} so new rows go out as soon as their transaction
+ * commits, on the IO executor rather than the caller's thread; the schedule only picks up
+ * what a wake-up missed (failed sends, a crash between commit and relay). Both go through
+ * one runner, so within an instance a user's events are sent in outbox order.
+ */
+@Slf4j
+@Component
+public class RewardOutboxRelay {
+
+    private final RewardOutboxRepository outboxRepository;
+
+    private final RewardEventProducer rewardEventProducer;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final long ackTimeoutMs;
+
+    private final long leaseMs;
+
+    private final Executor ioExecutor;
+
+    private final Timer batchTimer;
+
+    private final Counter sendFailures;
+
+    private final Timer deliveryLag;
+
+    // At most one relay round runs at a time, scheduled or woken up; requests during a run ask for one more round
+    private final AtomicBoolean relayRequested = new AtomicBoolean();
+    private final AtomicBoolean relayRunning = new AtomicBoolean();
+
+    public RewardOutboxRelay(RewardOutboxRepository outboxRepository,
+                             RewardEventProducer rewardEventProducer,
+                             TransactionTemplate transactionTemplate,
+                             @Qualifier("ioTaskExecutor") Executor ioExecutor,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.outbox.relay.batch-size:500}") int batchSize,
+                             @Value("${app.outbox.relay.ack-timeout-ms:10000}") long ackTimeoutMs,
+                             @Value("${app.outbox.relay.lease-ms:60000}") long leaseMs) {
+        this.outboxRepository = outboxRepository;
+        this.rewardEventProducer = rewardEventProducer;
+        this.transactionTemplate = transactionTemplate;
+        this.ioExecutor = ioExecutor;
+        this.batchSize = batchSize;
+        this.ackTimeoutMs = ackTimeoutMs;
+        // Long enough that a live relay is never overtaken by another one resending its rows
+        this.leaseMs = Math.max(leaseMs, 2 * ackTimeoutMs);
+        this.batchTimer = Timer.builder("reward.outbox.relay.batch")
+                .description("Time of one relay round: lease, send, wait for acks and delete")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sendFailures = Counter.builder("reward.outbox.send.failures")
+                .description("Reward events Kafka did not acknowledge in time, left in the outbox for a later round")
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("reward.outbox.delivery.lag")
+                .description("Time from writing a reward event to the outbox until Kafka acknowledged it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Relays the outbox once the current transaction commits, without blocking the committing
+     * thread. Outside a transaction the relay is started right away.
+     */
+    public void relayAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            requestRelay(false);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                requestRelay(false);
+            }
+        });
+    }
+
+    /**
+     * Fallback round on the scheduler thread. If a relay is already running it is asked for
+     * one more round instead, so this never overlaps a wake-up.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval-ms:1000}")
+    public void relay() {
+        requestRelay(true);
+    }
+
+    /**
+     * Single entry point of every relay round. Only one round runs at a time in this instance:
+     * two concurrent rounds would lease different rows of the same user and could send them out
+     * of order. A request made while a round runs is picked up by that runner.
+     */
+    private void requestRelay(boolean inline) {
+        relayRequested.set(true);
+        if (relayRunning.compareAndSet(false, true)) {
+            if (inline) {
+                runRequested();
+            } else {
+                ioExecutor.execute(this::runRequested);
+            }
+        }
+    }
+
+    private void runRequested() {
+        try {
+            while (relayRequested.getAndSet(false)) {
+                relayUntilEmpty();
+            }
+        } catch (Exception e) {
+            log.error("Reward outbox relay failed, the scheduled relay will retry: {}", e.getMessage(), e);
+        } finally {
+            relayRunning.set(false);
+        }
+        // A commit may have asked between the last check and releasing the flag
+        if (relayRequested.get() && relayRunning.compareAndSet(false, true)) {
+            ioExecutor.execute(this::runRequested);
+        }
+    }
+
+    /**
+     * Sends batches until the outbox is empty or a batch is not fully acknowledged.
+     */
+    private void relayUntilEmpty() {
+        int sent;
+        do {
+            sent = relayBatch();
+        } while (sent == batchSize);
+    }
+
+    /**
+     * @return number of messages acknowledged and removed from the outbox
+     */
+    int relayBatch() {
+        return batchTimer.record(() -> {
+            // Short transaction: the lease is committed before anything is sent
+            List<RewardOutbox> batch = transactionTemplate.execute(status ->
+                    outboxRepository.claimNextBatch(batchSize, leaseMs));
+            if (batch == null || batch.isEmpty()) {
+                return 0;
+            }
+            batch = new ArrayList<>(batch);
+            batch.sort(Comparator.comparing(RewardOutbox::getId));
+
+            // Hand the whole batch to the producer before waiting, so it goes out in few requests
+            List<CompletableFuture<SendResult<String, byte[]>>> acks = new ArrayList<>(batch.size());
+            for (RewardOutbox entry : batch) {
+                acks.add(rewardEventProducer.send(entry));
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ackTimeoutMs);
+            List<Long> acknowledged = new ArrayList<>(batch.size());
+            List<Long> failed = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                RewardOutbox entry = batch.get(i);
+                if (Thread.currentThread().isInterrupted()) {
+                    failed.add(entry.getId());
+                    continue;
+                }
+                try {
+                    acks.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    acknowledged.add(entry.getId());
+                    recordDeliveryLag(entry);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failed.add(entry.getId());
+                } catch (Exception e) {
+                    Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+                    log.warn("Reward event {} for key {} was not acknowledged: {}",
+                            entry.getId(), entry.getMessageKey(), cause.toString());
+                    failed.add(entry.getId());
+                }
+            }
+            sendFailures.increment(failed.size());
+
+            // Second short transaction; if it fails, the rows go out again once their lease expires
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!acknowledged.isEmpty()) {
+                    outboxRepository.deleteAllByIdInBatch(acknowledged);
+                }
+                if (!failed.isEmpty()) {
+                    outboxRepository.releaseAll(failed);
+                }
+            });
+            if (!failed.isEmpty()) {
+                log.warn("Relayed {}/{} reward events, the rest will be retried",
+                        acknowledged.size(), batch.size());
+            }
+            return acknowledged.size();
+        });
+    }
+
+    private void recordDeliveryLag(RewardOutbox entry) {
+        if (entry.getCreatedAt() != null) {
+            deliveryLag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - entry.getCreatedAt().getTime())));
+        }
+    }
+}
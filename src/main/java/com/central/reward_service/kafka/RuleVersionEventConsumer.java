@@ -0,0 +1,57 @@
+package com.central.reward_service.kafka;
+
+import com.central.reward_service.service.RuleSnapshotManager;
+import com.google.protobuf.InvalidProtocolBufferException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+import reward.events.RuleVersionEvent;
+
+import java.util.Map;
+
+/**
+ * Listens for reward rule versions announced by any replica (including this one)
+ * and rebuilds the local rule snapshot when it is behind.
+ *
+ * Each node uses its own consumer group and always starts from the beginning of the
+ * compacted topic, so a node that was down while rules changed catches up on startup.
+ */
+@Slf4j
+@Component
+public class RuleVersionEventConsumer implements ConsumerSeekAware {
+
+    private static final String RULE_VERSION_TOPIC = "${kafka.topics.reward_service.rule_versions}";
+
+    private static final String RULE_VERSION_GROUP_ID = "${spring.kafka.consumer.group-id}-rules-${app.node-id}";
+
+    private final RuleSnapshotManager ruleSnapshotManager;
+
+    public RuleVersionEventConsumer(RuleSnapshotManager ruleSnapshotManager) {
+        this.ruleSnapshotManager = ruleSnapshotManager;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        // The topic only holds the latest version per key: re-read it on every start
+        callback.seekToBeginning(assignments.keySet());
+    }
+
+    @KafkaListener(id = "ruleVersionListener", topics = RULE_VERSION_TOPIC, groupId = RULE_VERSION_GROUP_ID)
+    public void handleRuleVersion(byte[] event) {
+        if (event == null) {
+            // Tombstone left by compaction tooling, nothing to compare
+            return;
+        }
+        try {
+            RuleVersionEvent ruleVersionEvent = RuleVersionEvent.parseFrom(event);
+            log.debug("Received reward rule version {} from node {}",
+                    ruleVersionEvent.getVersion(), ruleVersionEvent.getOriginNode());
+            ruleSnapshotManager.onRemoteVersion(ruleVersionEvent.getVersion());
+        } catch (InvalidProtocolBufferException e) {
+            // Never block rule propagation on a bad record
+            log.error("Skipping unreadable reward rule version event: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.central.reward_service.kafka;
+
+import com.central.reward_service.service.RewardRulesChangedEvent;
+import com.google.protobuf.Timestamp;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reward.events.RuleVersionEvent;
+
+import java.time.Instant;
+
+/**
+ * Announces a new reward rule version to the other replicas once the change has committed.
+ * Only the node that made the change publishes.
+ */
+@Slf4j
+@Component
+public class RuleVersionEventProducer {
+
+    /**
+     * Every announcement uses the same key, so compaction keeps only the latest version.
+     */
+    static final String RULE_SET_KEY = "reward_rules";
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    private final String ruleVersionTopic;
+
+    private final String nodeId;
+
+    public RuleVersionEventProducer(KafkaTemplate<String, byte[]> kafkaTemplate,
+                                    @Value("${kafka.topics.reward_service.rule_versions}") String ruleVersionTopic,
+                                    @Value("${app.node-id}") String nodeId) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.ruleVersionTopic = ruleVersionTopic;
+        this.nodeId = nodeId;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRewardRulesChanged(RewardRulesChangedEvent event) {
+        sendRuleVersion(event.version());
+    }
+
+    /**
+     * Sends a rule version announcement. Failures are logged only: other replicas still catch up
+     * on the next announcement or when they restart.
+     */
+    public void sendRuleVersion(long version) {
+        Instant now = Instant.now();
+        RuleVersionEvent event = RuleVersionEvent.newBuilder()
+                .setVersion(version)
+                .setOriginNode(nodeId)
+                .setPublishedAt(Timestamp.newBuilder()
+                        .setSeconds(now.getEpochSecond())
+                        .setNanos(now.getNano())
+                        .build())
+                .build();
+
+        try {
+            kafkaTemplate.send(ruleVersionTopic, RULE_SET_KEY, event.toByteArray())
+                    .thenAccept(result -> log.info("Announced reward rule version {} from node {}", version, nodeId))
+                    .exceptionally(ex -> {
+                        log.error("Failed to announce reward rule version {}: {}", version, ex.getMessage(), ex);
+                        return null;
+                    });
+        } catch (Exception e) {
+            log.error("Error sending reward rule version {}: {}", version, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.central.reward_service.kafka;
+
+import com.central.reward_service.logging.TransactionLogSampler;
+import com.central.reward_service.model.RewardOutcome;
+import com.central.reward_service.model.TransactionIngestCommand;
+import com.central.reward_service.service.RewardService;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch counterpart of {@link TransactionEventConsumer}, enabled with {@code app.kafka.consumer.mode=batch}.
+ *
+ * A poll's worth of transaction events is read with {@link TransactionEventReader} (events
+ * not in a rewardable status are dropped here) and rewarded in one DB transaction (one duplicate query,
+ * one insert) and the offsets are committed once per batch. A record that cannot be parsed,
+ * or that still fails when the batch is replayed record by record, is reported with a
+ * {@link BatchListenerFailedException} so only that record is retried and then moved to the
+ * retry topics (see {@code KafkaConsumerConfig}). Outcomes are recorded on the same retry depth
+ * metric as in record mode, always as the first attempt.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.kafka.consumer.mode", havingValue = "batch")
+public class TransactionBatchConsumer {
+
+    private static final String SENDER_TOPIC = "${kafka.topics.reward_service.receiver}";
+
+    private static final String REWARD_SERVICE_GROUP_ID = "${spring.kafka.consumer.group-id}";
+
+    private final RewardService rewardService;
+
+    private final TransactionEventReader eventReader;
+
+    private final DistributionSummary rewardedDepth;
+
+    private final DistributionSummary rejectedDepth;
+
+    public TransactionBatchConsumer(RewardService rewardService, TransactionEventReader eventReader,
+                                    MeterRegistry meterRegistry) {
+        this.rewardService = rewardService;
+        this.eventReader = eventReader;
+        this.rewardedDepth = TransactionEventConsumer.retryDepth(meterRegistry, "rewarded");
+        this.rejectedDepth = TransactionEventConsumer.retryDepth(meterRegistry, "rejected");
+    }
+
+    @KafkaListener(topics = SENDER_TOPIC, groupId = REWARD_SERVICE_GROUP_ID,
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void handleSenderTransactions(List<ConsumerRecord<String, byte[]>> records) {
+        long startTime = System.currentTimeMillis();
+
+        // Parse up to the first poison record; everything before it is processed normally
+        List<TransactionIngestCommand> commands = new ArrayList<>(records.size());
+        List<Integer> recordIndexes = new ArrayList<>(records.size());
+        int poisonIndex = -1;
+        DeserializationException parseError = null;
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                TransactionIngestCommand command = eventReader.read(records.get(i).value());
+                if (command != null) {
+                    commands.add(command);
+                    recordIndexes.add(i);
+                }
+            } catch (InvalidProtocolBufferException e) {
+                // Not retryable: the error handler sends it straight to the dead-letter topic
+                poisonIndex = i;
+                parseError = new DeserializationException("Invalid transaction event on " + records.get(i).topic(),
+                        records.get(i).value(), false, e);
+                break;
+            }
+        }
+
+        process(commands, recordIndexes);
+
+        if (poisonIndex >= 0) {
+            throw new BatchListenerFailedException("Failed to parse transaction event", parseError, poisonIndex);
+        }
+        log.info("Processed {} transaction events in {} ms", records.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private void process(List<TransactionIngestCommand> commands, List<Integer> recordIndexes) {
+        if (commands.isEmpty()) {
+            return;
+        }
+        try {
+            logOutcomes(rewardService.processTransactionBatch(commands));
+        } catch (Exception e) {
+            // The batch rolled back as a whole: replay it record by record to isolate the bad one
+            log.warn("Batch of {} transactions failed ({}), retrying one by one", commands.size(), e.getMessage());
+            processOneByOne(commands, recordIndexes);
+        }
+    }
+
+    private void processOneByOne(List<TransactionIngestCommand> commands, List<Integer> recordIndexes) {
+        for (int i = 0; i < commands.size(); i++) {
+            TransactionIngestCommand command = commands.get(i);
+            MDC.put(TransactionLogSampler.SAMPLE_KEY, command.transactionId());
+            try {
+                rewardService.ingestTransaction(command);
+                rewardedDepth.record(1);
+            } catch (IllegalStateException e) {
+                // No matching tier or tier exhausted: final, nothing to retry
+                log.info("Transaction {} not rewarded: {}", command.transactionId(), e.getMessage());
+                rejectedDepth.record(1);
+            } catch (Exception e) {
+                throw new BatchListenerFailedException(
+                        "Failed to reward transaction " + command.transactionId(), e, recordIndexes.get(i));
+            } finally {
+                MDC.remove(TransactionLogSampler.SAMPLE_KEY);
+            }
+        }
+    }
+
+    private void logOutcomes(List<RewardOutcome> outcomes) {
+        for (RewardOutcome outcome : outcomes) {
+            if (outcome.status() == RewardOutcome.Status.REJECTED) {
+                log.info("Transaction {} not rewarded: {}", outcome.transactionId(), outcome.error());
+                rejectedDepth.record(1);
+            } else if (outcome.status() == RewardOutcome.Status.DUPLICATE) {
+                log.debug("Transaction {} already rewarded", outcome.transactionId());
+                rejectedDepth.record(1);
+            } else {
+                rewardedDepth.record(1);
+            }
+        }
+    }
+}
@@ -1,76 +1,183 @@
 package com.central.reward_service.kafka;
 
+import com.central.reward_service.logging.TransactionLogSampler;
+import com.central.reward_service.model.TransactionIngestCommand;
 import com.central.reward_service.service.RewardService;
 import com.google.protobuf.InvalidProtocolBufferException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.BackOff;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.DeserializationException;
 import org.springframework.stereotype.Component;
-import reward.events.TransactionEvent;
-import org.openapitools.model.RewardRequest;
 
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 
+
+/**
+ * Processes transaction events one record at a time. In {@code batch} and {@code parallel} mode
+ * ({@link TransactionBatchConsumer}, {@link TransactionParallelConsumer}) the container of the
+ * main topic does not start, but the retry and dead-letter containers do: those modes hand the
+ * records they give up on to the retry topics through {@link TransactionRetryPublisher}.
+ *
+ * A record that fails is not retried in place: it moves to the next retry topic
+ * ({@code app.kafka.retry.*} sets the number of attempts and the growing delay) and the
+ * partition carries on. After the last attempt, and right away for records that cannot be
+ * parsed, it lands on the dead-letter topic with the exception and original offset in its
+ * headers. Records are consumed and republished as raw bytes, so the retry and dead-letter
+ * topics carry the producer's full event and headers, not just the fields read here.
+ */
 @Slf4j
 @Component
 public class TransactionEventConsumer {
 
+    /** Id of the main topic endpoint; the retry and dead-letter endpoints derive theirs from it. */
+    public static final String LISTENER_ID = "transactionEvents";
+
     private static final String SENDER_TOPIC = "${kafka.topics.reward_service.receiver}";
 
     private static final String REWARD_SERVICE_GROUP_ID = "${spring.kafka.consumer.group-id}";
 
-    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private static final String RETRY_DEPTH_METRIC = "reward.transaction.retry.depth";
 
     private final RewardService rewardService;
 
+    private final TransactionEventReader eventReader;
+
+    private final MeterRegistry meterRegistry;
+
+    private final DistributionSummary rewardedDepth;
+
+    private final DistributionSummary rejectedDepth;
+
+    private final DistributionSummary failedDepth;
+
 
     @Autowired
-    public TransactionEventConsumer(KafkaTemplate<String,  byte[]> kafkaTemplate, RewardService rewardService) {
-        this.kafkaTemplate = kafkaTemplate;
+    public TransactionEventConsumer(RewardService rewardService, TransactionEventReader eventReader,
+                                    MeterRegistry meterRegistry) {
         this.rewardService = rewardService;
+        this.eventReader = eventReader;
+        this.meterRegistry = meterRegistry;
+        this.rewardedDepth = retryDepth(meterRegistry, "rewarded");
+        this.rejectedDepth = retryDepth(meterRegistry, "rejected");
+        this.failedDepth = retryDepth(meterRegistry, "failed");
     }
 
-    @KafkaListener(topics = SENDER_TOPIC, groupId = REWARD_SERVICE_GROUP_ID)
-    public void handleSenderTransaction(byte[] event) {
+    @RetryableTopic(
+            attempts = "${app.kafka.retry.attempts:4}",
+            exclude = DeserializationException.class,
+            traversingCauses = "true",
+            backOff = @BackOff(
+                    delayString = "${app.kafka.retry.delay-ms:1000}",
+                    multiplierString = "${app.kafka.retry.multiplier:5}",
+                    maxDelayString = "${app.kafka.retry.max-delay-ms:60000}"),
+            kafkaTemplate = "transactionRetryKafkaTemplate",
+            listenerContainerFactory = "transactionKafkaListenerContainerFactory",
+            dltStrategy = DltStrategy.FAIL_ON_ERROR)
+    @KafkaListener(id = LISTENER_ID, topics = SENDER_TOPIC, groupId = REWARD_SERVICE_GROUP_ID,
+            containerFactory = "transactionKafkaListenerContainerFactory")
+    public void handleSenderTransaction(ConsumerRecord<String, byte[]> record) {
+        TransactionIngestCommand command = parse(record);
+        if (command == null) {
+            // Not in a rewardable status (see TransactionEventReader): nothing to reward
+            log.debug("Skipping transaction event at {}-{}@{}", record.topic(), record.partition(), record.offset());
+            return;
+        }
         long startTime = System.currentTimeMillis();
-        String transactionId = "";
+        int attempt = attemptOf(record);
+        String transactionId = command.transactionId();
 
+        MDC.put(TransactionLogSampler.SAMPLE_KEY, transactionId);
         try {
-            log.info("Received transaction event from Kafka - Starting reward processing");
-
-            // Parse the protobuf event
-            TransactionEvent transactionEvent = TransactionEvent.parseFrom(event);
-            transactionId = transactionEvent.getTransactionId();
-            String userId = transactionEvent.getSenderId();
-            double amount = transactionEvent.getAmount();
-            
-            log.info("Processing reward for transaction - ID: {}, User: {}, Amount: {}",
-                    transactionId, userId, amount);
-
-            // Process and save reward
-            long processStart = System.currentTimeMillis();
-            RewardRequest request = RewardRequest.builder()
-                    .transactionId(transactionId)
-                    .transactionAmount(amount)
-                    .userId(userId)
-                    .build();
-                    
-            log.debug("Dispatching reward processing request - Transaction: {}", transactionId);
-            rewardService.processTransaction(request);
-            
-            long processingTime = System.currentTimeMillis() - processStart;
-            log.info("Successfully processed reward - Transaction: {}, Processing Time: {}ms",
-                    transactionId, processingTime);
+            log.debug("Processing reward for transaction - ID: {}, User: {}, Amount: {}, Attempt: {}",
+                    transactionId, command.userId(), command.amount(), attempt);
 
-        } catch (InvalidProtocolBufferException e) {
-            log.error("Failed to parse transaction event after {} ms. Error: {}",
-                    (System.currentTimeMillis() - startTime), e.getMessage(), e);
-            throw new RuntimeException("Failed to process transaction event", e);
+            rewardService.ingestTransaction(command);
+            rewardedDepth.record(attempt);
+
+        } catch (IllegalStateException e) {
+            // No matching tier or tier exhausted: final, retrying would not change the outcome
+            log.info("Transaction {} not rewarded: {}", transactionId, e.getMessage());
+            rejectedDepth.record(attempt);
+        } catch (RuntimeException e) {
+            log.warn("Failed to reward transaction {} on attempt {}: {}", transactionId, attempt, e.getMessage());
+            failedDepth.record(attempt);
+            throw e;
         } finally {
-            log.info("Completed processing for transaction: {} - Total time taken: {} ms",
+            log.debug("Completed processing for transaction: {} - Total time taken: {} ms",
                     transactionId, (System.currentTimeMillis() - startTime));
+            MDC.remove(TransactionLogSampler.SAMPLE_KEY);
+        }
+    }
+
+    /**
+     * Records that exhausted their retries, and records that could not be parsed.
+     */
+    @DltHandler
+    public void handleDeadLetter(ConsumerRecord<String, byte[]> record) {
+        // The listener's own exception is wrapped by the container, tag by what it threw
+        String exception = headerValue(record, KafkaHeaders.EXCEPTION_CAUSE_FQCN);
+        if (exception == null) {
+            exception = headerValue(record, KafkaHeaders.EXCEPTION_FQCN);
         }
+        log.error("Transaction record of sender {} moved to {} after {} attempts: {} {}",
+                record.key(), record.topic(), attemptOf(record),
+                exception, headerValue(record, KafkaHeaders.EXCEPTION_MESSAGE));
+        Counter.builder("reward.transaction.dead.letters")
+                .description("Transaction events that exhausted their retries or could not be parsed")
+                .tag("exception", exception != null ? exception : "unknown")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * The record value stays the producer's bytes all the way through, so a record moved to a
+     * retry or dead-letter topic is published exactly as it was received.
+     *
+     * @return the command, or {@code null} if the transaction is not in a rewardable state
+     * @throws DeserializationException if the value is not a valid transaction event; not retried
+     */
+    private TransactionIngestCommand parse(ConsumerRecord<String, byte[]> record) {
+        if (record.value() == null) {
+            return null;
+        }
+        try {
+            return eventReader.read(record.value());
+        } catch (InvalidProtocolBufferException e) {
+            throw new DeserializationException("Invalid transaction event on " + record.topic(),
+                    record.value(), false, e);
+        }
+    }
+
+    static DistributionSummary retryDepth(MeterRegistry meterRegistry, String outcome) {
+        return DistributionSummary.builder(RETRY_DEPTH_METRIC)
+                .description("Delivery attempt a transaction event was on (1 = first delivery, then one per retry topic)")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // The retry topic header is absent on the first delivery
+    static int attemptOf(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(RetryTopicHeaders.DEFAULT_HEADER_ATTEMPTS);
+        return header != null ? new BigInteger(header.value()).intValue() : 1;
+    }
+
+    private static String headerValue(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
     }
 
 }
@@ -0,0 +1,100 @@
+package com.central.reward_service.kafka;
+
+import com.central.reward_service.model.TransactionIngestCommand;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reward.events.TransactionEvent;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads a serialized {@link TransactionEvent} into a {@link TransactionIngestCommand} without
+ * building the full message: only transaction id, sender id, amount and status are decoded,
+ * the receiver id and both timestamps are skipped in place.
+ *
+ * Only events whose status is one of {@code app.kafka.consumer.rewardable-statuses}, compared
+ * ignoring case, are rewarded; the others (pending, failed, reversed, ...) read as {@code null}
+ * and are counted in {@code reward.transaction.skipped}, so a status the list misses shows up
+ * there instead of as silently missing rewards. Events without a status, from producers that
+ * predate the field, are rewarded as before.
+ */
+@Slf4j
+@Component
+public class TransactionEventReader {
+
+    private static final int TRANSACTION_ID_TAG = tag(TransactionEvent.TRANSACTION_ID_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int SENDER_ID_TAG = tag(TransactionEvent.SENDER_ID_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int AMOUNT_TAG = tag(TransactionEvent.AMOUNT_FIELD_NUMBER, WireFormat.WIRETYPE_FIXED64);
+    private static final int STATUS_TAG = tag(TransactionEvent.STATUS_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+    private final Set<String> rewardableStatuses;
+
+    private final Counter skipped;
+
+    public TransactionEventReader(MeterRegistry meterRegistry,
+                                  @Value("${app.kafka.consumer.rewardable-statuses:COMPLETED}") List<String> rewardableStatuses) {
+        this.rewardableStatuses = rewardableStatuses.stream()
+                .map(status -> status.trim().toUpperCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        this.skipped = Counter.builder("reward.transaction.skipped")
+                .description("Transaction events not rewarded because of their status")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the command, or {@code null} if the transaction is not in a rewardable state
+     * @throws InvalidProtocolBufferException if {@code data} is not a valid {@link TransactionEvent}
+     */
+    public TransactionIngestCommand read(byte[] data) throws InvalidProtocolBufferException {
+        CodedInputStream input = CodedInputStream.newInstance(data);
+
+        String transactionId = "";
+        String senderId = "";
+        double amount = 0.0;
+        String status = "";
+        try {
+            int tag;
+            while ((tag = input.readTag()) != 0) {
+                if (tag == TRANSACTION_ID_TAG) {
+                    transactionId = input.readStringRequireUtf8();
+                } else if (tag == SENDER_ID_TAG) {
+                    senderId = input.readStringRequireUtf8();
+                } else if (tag == AMOUNT_TAG) {
+                    amount = input.readDouble();
+                } else if (tag == STATUS_TAG) {
+                    status = input.readStringRequireUtf8();
+                } else if (!input.skipField(tag)) {
+                    break;
+                }
+            }
+        } catch (InvalidProtocolBufferException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new InvalidProtocolBufferException(e);
+        }
+        if (!isRewardable(status)) {
+            skipped.increment();
+            log.debug("Skipping transaction {} with status {}", transactionId, status);
+            return null;
+        }
+        return new TransactionIngestCommand(transactionId, senderId, amount);
+    }
+
+    private boolean isRewardable(String status) {
+        return status.isEmpty() || rewardableStatuses.contains(status.trim().toUpperCase(Locale.ROOT));
+    }
+
+    private static int tag(int fieldNumber, int wireType) {
+        return fieldNumber << 3 | wireType;
+    }
+}
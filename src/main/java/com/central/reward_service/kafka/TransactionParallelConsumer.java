@@ -0,0 +1,193 @@
+package com.central.reward_service.kafka;
+
+import com.central.reward_service.logging.TransactionLogSampler;
+import com.central.reward_service.model.TransactionIngestCommand;
+import com.central.reward_service.service.RewardService;
+import com.central.reward_service.utils.KeyOrderedExecutor;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Parallel counterpart of {@link TransactionEventConsumer}, enabled with {@code app.kafka.consumer.mode=parallel}.
+ *
+ * The listener thread only parses a record and hands it to a virtual thread, so one partition
+ * keeps many transactions in the DB at once. Records of the same sender run one after the
+ * other in offset order; different senders run in parallel. At most
+ * {@code app.kafka.consumer.parallel.max-in-flight-per-partition} records of a partition are
+ * in flight, beyond that the listener thread waits.
+ *
+ * A record that still fails after {@code app.kafka.consumer.poison-retries} in-place retries, or
+ * that cannot be parsed, is handed to the retry topics through {@link TransactionRetryPublisher},
+ * as in record mode. Outcomes are recorded on the same retry depth metric, as the first attempt.
+ *
+ * Every record is acknowledged once it is done (rewarded, rejected or moved to the retry topics)
+ * and the container commits only up to the highest offset below which all records are acknowledged,
+ * so a crash replays at most the in-flight records; the idempotent insert absorbs the repeats.
+ * An unacknowledged record holds back the partition's commit, so moving a record to the retry
+ * topics is retried until the broker takes it. Only a record cut off by shutdown stays
+ * unacknowledged; its partition goes with the stopped consumer and the next owner reads it again
+ * from the committed offset.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.kafka.consumer.mode", havingValue = "parallel")
+public class TransactionParallelConsumer implements ConsumerSeekAware {
+
+    private static final String SENDER_TOPIC = "${kafka.topics.reward_service.receiver}";
+
+    private static final String REWARD_SERVICE_GROUP_ID = "${spring.kafka.consumer.group-id}";
+
+    private static final long RETRY_BACKOFF_MS = 500L;
+
+    private final RewardService rewardService;
+
+    private final TransactionRetryPublisher retryPublisher;
+
+    private final TransactionEventReader eventReader;
+
+    private final KeyOrderedExecutor senderLanes;
+
+    private final DistributionSummary rewardedDepth;
+
+    private final DistributionSummary rejectedDepth;
+
+    private final int maxInFlightPerPartition;
+
+    private final long retries;
+
+    private final Map<TopicPartition, Semaphore> inFlight = new ConcurrentHashMap<>();
+
+    public TransactionParallelConsumer(RewardService rewardService,
+                                       TransactionRetryPublisher retryPublisher,
+                                       TransactionEventReader eventReader,
+                                       @Qualifier("ioTaskExecutor") Executor ioExecutor,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.kafka.consumer.parallel.max-in-flight-per-partition:64}") int maxInFlightPerPartition,
+                                       @Value("${app.kafka.consumer.poison-retries:2}") long retries) {
+        this.rewardService = rewardService;
+        this.retryPublisher = retryPublisher;
+        this.eventReader = eventReader;
+        this.senderLanes = new KeyOrderedExecutor(ioExecutor);
+        this.rewardedDepth = TransactionEventConsumer.retryDepth(meterRegistry, "rewarded");
+        this.rejectedDepth = TransactionEventConsumer.retryDepth(meterRegistry, "rejected");
+        this.maxInFlightPerPartition = maxInFlightPerPartition;
+        this.retries = retries;
+    }
+
+    @KafkaListener(topics = SENDER_TOPIC, groupId = REWARD_SERVICE_GROUP_ID,
+            containerFactory = "parallelKafkaListenerContainerFactory")
+    public void handleSenderTransaction(ConsumerRecord<String, byte[]> record, Acknowledgment ack)
+            throws InterruptedException {
+        TransactionIngestCommand command;
+        try {
+            command = eventReader.read(record.value());
+        } catch (InvalidProtocolBufferException e) {
+            // Not retryable: straight to the dead-letter topic
+            retryPublisher.publish(record, new DeserializationException(
+                    "Invalid transaction event on " + record.topic(), record.value(), false, e));
+            ack.acknowledge();
+            return;
+        }
+        if (command == null) {
+            // Not in a rewardable status: nothing to reward
+            ack.acknowledge();
+            return;
+        }
+
+        Semaphore permits = inFlight.computeIfAbsent(new TopicPartition(record.topic(), record.partition()),
+                partition -> new Semaphore(maxInFlightPerPartition));
+        permits.acquire();
+
+        senderLanes.submit(command.userId(), () -> process(record, command))
+                .whenComplete((ignored, error) -> {
+                    permits.release();
+                    if (error == null) {
+                        ack.acknowledge();
+                    }
+                    // Otherwise interrupted on shutdown: the partition is revoked and the
+                    // record is read again from the committed offset
+                });
+    }
+
+    /**
+     * Drops the in-flight limits of partitions this consumer gave up. Records still running for
+     * them release their permits on the dropped semaphore; a partition assigned again starts
+     * with a full one.
+     */
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        partitions.forEach(inFlight::remove);
+    }
+
+    private void process(ConsumerRecord<String, byte[]> record, TransactionIngestCommand command) {
+        try (MDC.MDCCloseable ignored = MDC.putCloseable(TransactionLogSampler.SAMPLE_KEY, command.transactionId())) {
+            processWithRetries(record, command);
+        }
+    }
+
+    private void processWithRetries(ConsumerRecord<String, byte[]> record, TransactionIngestCommand command) {
+        for (long attempt = 0; ; attempt++) {
+            try {
+                rewardService.ingestTransaction(command);
+                rewardedDepth.record(1);
+                return;
+            } catch (IllegalStateException e) {
+                // No matching tier or tier exhausted: final, nothing to retry
+                log.info("Transaction {} not rewarded: {}", command.transactionId(), e.getMessage());
+                rejectedDepth.record(1);
+                return;
+            } catch (Exception e) {
+                if (attempt >= retries) {
+                    log.error("Giving up on transaction {} here after {} attempts: {}",
+                            command.transactionId(), attempt + 1, e.getMessage());
+                    publishUntilMoved(record, e);
+                    return;
+                }
+                log.warn("Failed to reward transaction {} ({}), retrying", command.transactionId(), e.getMessage());
+                sleepBeforeRetry();
+            }
+        }
+    }
+
+    private void publishUntilMoved(ConsumerRecord<String, byte[]> record, Exception failure) {
+        while (true) {
+            try {
+                retryPublisher.publish(record, failure);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Failed to move transaction record at {}-{}@{} to the retry topics ({}), retrying",
+                        record.topic(), record.partition(), record.offset(), e.getMessage());
+                sleepBeforeRetry();
+            }
+        }
+    }
+
+    private static void sleepBeforeRetry() {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while retrying");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.central.reward_service.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.retrytopic.DeadLetterPublishingRecovererFactory;
+import org.springframework.kafka.retrytopic.DestinationTopicResolver;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands transaction records that batch or parallel mode gave up on to the retry topics of
+ * {@link TransactionEventConsumer}, so every mode ends in the same place: the record moves to the
+ * first retry topic, or straight to the dead-letter topic if the failure is not retryable (e.g.
+ * the record cannot be parsed). The retry and dead-letter containers of the record consumer run
+ * in every mode and take it from there.
+ *
+ * The record is published as consumed, with the same headers the record-mode recoverer adds,
+ * through the destinations registered for {@link TransactionEventConsumer#LISTENER_ID}.
+ */
+@Slf4j
+@Component
+public class TransactionRetryPublisher {
+
+    private final ObjectProvider<DestinationTopicResolver> destinationTopicResolver;
+
+    private final MeterRegistry meterRegistry;
+
+    // The resolver knows the retry topics only once the record listener is registered
+    private volatile DeadLetterPublishingRecoverer recoverer;
+
+    public TransactionRetryPublisher(ObjectProvider<DestinationTopicResolver> destinationTopicResolver,
+                                     MeterRegistry meterRegistry) {
+        this.destinationTopicResolver = destinationTopicResolver;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Publishes the record to its next retry topic or the dead-letter topic and waits for the
+     * broker to acknowledge it.
+     *
+     * @throws org.springframework.kafka.KafkaException if the record could not be published;
+     *         the caller must not commit its offset
+     */
+    public void publish(ConsumerRecord<?, ?> record, Exception failure) {
+        TransactionEventConsumer.retryDepth(meterRegistry, "failed").record(TransactionEventConsumer.attemptOf(record));
+        log.warn("Moving transaction record at {}-{}@{} to the retry topics: {}",
+                record.topic(), record.partition(), record.offset(), failure.getMessage());
+        recoverer().accept(record, failure);
+    }
+
+    private DeadLetterPublishingRecoverer recoverer() {
+        DeadLetterPublishingRecoverer current = recoverer;
+        if (current == null) {
+            synchronized (this) {
+                current = recoverer;
+                if (current == null) {
+                    current = new DeadLetterPublishingRecovererFactory(destinationTopicResolver.getObject())
+                            .create(TransactionEventConsumer.LISTENER_ID);
+                    recoverer = current;
+                }
+            }
+        }
+        return current;
+    }
+}
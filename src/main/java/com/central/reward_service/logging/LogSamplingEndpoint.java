@@ -0,0 +1,62 @@
+package com.central.reward_service.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/logsampling}: reads and changes the share of transactions whose detailed
+ * logs are kept (see {@link TransactionLogSampler}) without a restart. A write lasts until the
+ * next restart or logging reconfiguration, which go back to {@code app.logging.sample-rate}.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "logsampling")
+public class LogSamplingEndpoint {
+
+    private final TransactionLogSampler sampler;
+
+    public LogSamplingEndpoint(@Value("${app.logging.sample-rate:0.01}") double defaultRate) {
+        this(samplerOf((LoggerContext) LoggerFactory.getILoggerFactory(), defaultRate));
+    }
+
+    LogSamplingEndpoint(TransactionLogSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    @ReadOperation
+    public Map<String, Double> sampleRate() {
+        return Map.of("sampleRate", sampler.getSampleRate());
+    }
+
+    @WriteOperation
+    public Map<String, Double> sampleRate(double sampleRate) {
+        double previous = sampler.getSampleRate();
+        sampler.setSampleRate(sampleRate);
+        log.warn("Transaction log sample rate changed from {} to {}", previous, sampleRate);
+        return sampleRate();
+    }
+
+    // Installed by logback-spring.xml; added here when another logging config is in use
+    private static TransactionLogSampler samplerOf(LoggerContext context, double defaultRate) {
+        return context.getTurboFilterList().stream()
+                .filter(TransactionLogSampler.class::isInstance)
+                .map(TransactionLogSampler.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    TransactionLogSampler sampler = new TransactionLogSampler();
+                    sampler.setSampleRate(defaultRate);
+                    sampler.setContext(context);
+                    sampler.start();
+                    context.addTurboFilter(sampler);
+                    return sampler;
+                });
+    }
+}
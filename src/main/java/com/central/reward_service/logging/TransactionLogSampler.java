@@ -0,0 +1,88 @@
+package com.central.reward_service.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Logback turbo filter that keeps the detailed logs of a sample of transactions instead of a
+ * few lines of every one. The sample is picked by hashing the {@value #SAMPLE_KEY} MDC entry,
+ * so a transaction is either logged in full (down to DEBUG, whatever the logger level) on every
+ * thread and consumer it passes through, or not at all.
+ *
+ * WARN and ERROR are never filtered, and neither are loggers outside {@code packagePrefix} or
+ * events logged without a sample key. Turbo filters run before the message is formatted, so a
+ * dropped line costs one MDC lookup and a hash.
+ */
+public class TransactionLogSampler extends TurboFilter {
+
+    /** MDC entry the sample is keyed on: the transaction id, or a request id on the REST path. */
+    public static final String SAMPLE_KEY = "txnId";
+
+    private static final double BUCKETS = 1L << 32;
+
+    private String packagePrefix = "com.central.reward_service";
+
+    private volatile double sampleRate = 1.0;
+
+    // sampleRate scaled to the 32-bit hash range, compared unsigned
+    private volatile long threshold = (long) BUCKETS;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level.isGreaterOrEqual(Level.WARN) || !logger.getName().startsWith(packagePrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        String key = MDC.get(SAMPLE_KEY);
+        if (key == null) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!isSampled(key)) {
+            return FilterReply.DENY;
+        }
+        return level.isGreaterOrEqual(Level.DEBUG) ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+    }
+
+    /**
+     * @return whether the detailed logs of the transaction with this key are kept at the current rate
+     */
+    public boolean isSampled(String key) {
+        return Integer.toUnsignedLong(mix(key.hashCode())) < threshold;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * @param sampleRate share of transactions logged in full, from 0 (none) to 1 (all)
+     */
+    public void setSampleRate(double sampleRate) {
+        if (!(sampleRate >= 0.0 && sampleRate <= 1.0)) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1: " + sampleRate);
+        }
+        this.threshold = (long) (sampleRate * BUCKETS);
+        this.sampleRate = sampleRate;
+    }
+
+    public String getPackagePrefix() {
+        return packagePrefix;
+    }
+
+    public void setPackagePrefix(String packagePrefix) {
+        this.packagePrefix = packagePrefix;
+    }
+
+    // MurmurHash3 finalizer: spreads String.hashCode so similar ids land in unrelated buckets
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
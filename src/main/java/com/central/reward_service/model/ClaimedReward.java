@@ -0,0 +1,12 @@
+package com.central.reward_service.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Columns returned by the conditional claim update, enough to answer the claim request.
+ *
+ * @param redeemCode code the user redeems the reward with
+ * @param expiresAt  when the reward would have expired
+ */
+public record ClaimedReward(String redeemCode, Timestamp expiresAt) {
+}
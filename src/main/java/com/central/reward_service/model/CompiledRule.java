@@ -0,0 +1,20 @@
+package com.central.reward_service.model;
+
+/**
+ * Detached, immutable copy of a {@link RewardRule} as it is used on the hot path.
+ * Carries no JPA state (no lazy {@code rewards} collection, no proxy).
+ */
+public record CompiledRule(
+        long id,
+        String tierName,
+        double minTransactionAmount,
+        String rewardType,
+        String description,
+        Double rewardValue,
+        int weight,
+        Integer dailyCapacity) {
+
+    public boolean isCapped() {
+        return dailyCapacity != null;
+    }
+}
@@ -20,8 +20,11 @@ import java.time.Instant;
 @Builder
 public class Reward {
 
+    /**
+     * Assigned by {@link com.central.reward_service.utils.RewardIdGenerator} before the insert,
+     * so rewards can be inserted in batches and new ids are always the largest in the index.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long rewardId;
 
     // --- Transaction Context ---
@@ -0,0 +1,17 @@
+package com.central.reward_service.model;
+
+import java.sql.Timestamp;
+
+/**
+ * What a claim that matched no row needs to know about the reward to say why.
+ *
+ * @param status    stored status; stays UNCLAIMED after expiry until the sweeper marks it
+ * @param expiresAt when the reward expires
+ */
+public record RewardClaimState(RewardStatus status, Timestamp expiresAt) {
+
+    public boolean isExpiredAt(Timestamp now) {
+        return status == RewardStatus.EXPIRED
+                || (status == RewardStatus.UNCLAIMED && expiresAt != null && !expiresAt.after(now));
+    }
+}
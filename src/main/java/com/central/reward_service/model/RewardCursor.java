@@ -0,0 +1,51 @@
+package com.central.reward_service.model;
+
+import com.central.reward_service.exception.InvalidCursorException;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in a user's reward history, newest first: the last reward of a page. The next page
+ * starts right after {@code (createdAt, rewardId)}, the same key the history index is sorted by.
+ *
+ * Clients get it as an opaque URL-safe token; {@code createdAt} is kept to the microsecond,
+ * the precision it is stored with, so no reward sharing a millisecond is skipped.
+ */
+public record RewardCursor(Timestamp createdAt, long rewardId) {
+
+    private static final int ENCODED_BYTES = 2 * Long.BYTES;
+
+    public static RewardCursor of(RewardView reward) {
+        return new RewardCursor(reward.createdAt(), reward.rewardId());
+    }
+
+    public String encode() {
+        Instant instant = createdAt.toInstant();
+        long epochMicros = Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+        byte[] bytes = ByteBuffer.allocate(ENCODED_BYTES).putLong(epochMicros).putLong(rewardId).array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * @throws InvalidCursorException if {@code token} was not produced by {@link #encode()}
+     */
+    public static RewardCursor decode(String token) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + token, e);
+        }
+        if (bytes.length != ENCODED_BYTES) {
+            throw new InvalidCursorException("Invalid cursor: " + token);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long epochMicros = buffer.getLong();
+        Instant createdAt = Instant.ofEpochSecond(Math.floorDiv(epochMicros, 1_000_000L),
+                Math.floorMod(epochMicros, 1_000_000L) * 1_000L);
+        return new RewardCursor(Timestamp.from(createdAt), buffer.getLong());
+    }
+}
@@ -0,0 +1,25 @@
+package com.central.reward_service.model;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Record formats of the reward export.
+ */
+public enum RewardExportFormat {
+
+    /** One JSON object per line. */
+    NDJSON(MediaType.APPLICATION_NDJSON),
+
+    /** {@code RewardEvent} messages, each preceded by its length as a varint ({@code parseDelimitedFrom}). */
+    PROTOBUF(MediaType.parseMediaType("application/x-protobuf; delimited=true"));
+
+    private final MediaType mediaType;
+
+    RewardExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+}
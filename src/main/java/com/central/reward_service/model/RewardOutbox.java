@@ -0,0 +1,44 @@
+package com.central.reward_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+/**
+ * Kafka message waiting to be published, written in the same transaction as the
+ * {@link Reward} it describes. {@code RewardOutboxRelay} leases the rows in id order,
+ * sends them and deletes them once Kafka has acknowledged them.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "reward_outbox")
+public class RewardOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 255)
+    private String topic;
+
+    // Kafka record key (the userId for reward events), keeps a user's events in one partition
+    @Column(nullable = false, length = 100)
+    private String messageKey;
+
+    // Serialized protobuf event
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(nullable = false)
+    private Timestamp createdAt;
+
+    // Set while a relay is sending the row; an expired lease means the relay died mid-send
+    private Timestamp leasedUntil;
+}
@@ -0,0 +1,39 @@
+package com.central.reward_service.model;
+
+/**
+ * Result of processing one transaction in a batch.
+ *
+ * @param transactionId source transaction
+ * @param status        what happened to it
+ * @param reward        the stored reward when {@code CREATED}, otherwise {@code null}
+ * @param error         reason of a {@code REJECTED} or {@code FAILED} transaction, otherwise {@code null}
+ */
+public record RewardOutcome(String transactionId, Status status, Reward reward, String error) {
+
+    public enum Status {
+        /** A new reward was stored. */
+        CREATED,
+        /** The transaction was already rewarded, nothing was stored. */
+        DUPLICATE,
+        /** The transaction cannot be rewarded (e.g. no matching tier); retrying will not help. */
+        REJECTED,
+        /** The reward could not be stored (e.g. a database error); nothing was stored, retrying may help. */
+        FAILED
+    }
+
+    public static RewardOutcome created(Reward reward) {
+        return new RewardOutcome(reward.getTransactionId(), Status.CREATED, reward, null);
+    }
+
+    public static RewardOutcome duplicate(String transactionId) {
+        return new RewardOutcome(transactionId, Status.DUPLICATE, null, null);
+    }
+
+    public static RewardOutcome rejected(String transactionId, String error) {
+        return new RewardOutcome(transactionId, Status.REJECTED, null, error);
+    }
+
+    public static RewardOutcome failed(String transactionId, String error) {
+        return new RewardOutcome(transactionId, Status.FAILED, null, error);
+    }
+}
@@ -45,6 +45,9 @@ public class RewardRule {
 
     private boolean active; // To turn off rewards without deleting rows
 
+    // Hard limit per UTC day, e.g. 5 for "iPhone"; null = unlimited
+    private Integer dailyCapacity;
+
     /**
      * MAPPING: Defines the One-to-Many relationship to the Reward entity.
      *
@@ -0,0 +1,48 @@
+package com.central.reward_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Units of a capped reward rule handed out to replicas for one UTC day.
+ *
+ * Replicas lease units in blocks and count them down in memory, so this row is touched
+ * once per block instead of once per reward. {@code leased} never exceeds the rule's
+ * daily capacity; {@code lastGrant} is the size of the most recent lease, written by the
+ * same statement so the caller can read it back.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(RewardRuleInventory.Key.class)
+@Table(name = "reward_rule_inventory")
+public class RewardRuleInventory {
+
+    @Id
+    @Column(name = "rule_id")
+    private Long ruleId;
+
+    @Id
+    @Column(name = "period_date")
+    private LocalDate periodDate;
+
+    @Column(nullable = false)
+    private long leased;
+
+    @Column(name = "last_grant", nullable = false)
+    private long lastGrant;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long ruleId;
+        private LocalDate periodDate;
+    }
+}
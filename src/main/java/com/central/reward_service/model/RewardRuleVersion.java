@@ -0,0 +1,27 @@
+package com.central.reward_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single-row table holding the cluster-wide version of the reward rule set.
+ * Every rule mutation bumps it in the same transaction, so all replicas agree
+ * on which version a given rule set is.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "reward_rule_version")
+public class RewardRuleVersion {
+
+    public static final long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private long version;
+}
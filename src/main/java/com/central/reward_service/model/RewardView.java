@@ -0,0 +1,32 @@
+package com.central.reward_service.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Read-only row of the rewards table with just what a {@code RewardResponse} shows. Selected
+ * with a constructor expression, so reads build this record and nothing else: no managed entity,
+ * no dirty-checking snapshot, no {@code RewardRule} proxy.
+ */
+public record RewardView(Long rewardId,
+                         String userId,
+                         String transactionId,
+                         String rewardType,
+                         String rewardDescription,
+                         Double rewardValue,
+                         Timestamp createdAt,
+                         RewardStatus status) {
+
+    /**
+     * View of a reward that was just inserted.
+     */
+    public static RewardView of(Reward reward) {
+        return new RewardView(reward.getRewardId(), reward.getUserId(), reward.getTransactionId(),
+                reward.getRewardType(), reward.getRewardDescription(), reward.getRewardValue(),
+                reward.getCreatedAt(), reward.getStatus());
+    }
+
+    public RewardView withStatus(RewardStatus status) {
+        return new RewardView(rewardId, userId, transactionId, rewardType, rewardDescription, rewardValue,
+                createdAt, status);
+    }
+}
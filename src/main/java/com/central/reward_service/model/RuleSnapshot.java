@@ -0,0 +1,221 @@
+package com.central.reward_service.model;
+
+import com.central.reward_service.utils.AliasSampler;
+import com.central.reward_service.utils.InventoryCounter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * Immutable, compiled view of all active reward rules.
+ *
+ * Tiers are identified by their index in a sorted {@code double[]} of minimum transaction
+ * amounts; each tier has a flat array of {@link CompiledRule}s and a precompiled
+ * {@link AliasSampler}. Looking up a tier and drawing a rule never allocates.
+ * A new snapshot (with a new version) is built whenever the rules change; readers keep
+ * whichever snapshot they picked up until they are done with it.
+ *
+ * Rules with a daily capacity carry an {@link InventoryCounter}. A drawn rule whose counter
+ * has no units left is redrawn, so an exhausted rule drops out of its tier without a rebuild.
+ */
+public final class RuleSnapshot {
+
+    /** Returned by {@link #tierIndexFor(double)} when the amount is below the lowest tier. */
+    public static final int NO_TIER = -1;
+
+    // Alias draws before falling back to a scan over the rules that still have units
+    private static final int MAX_REDRAWS = 8;
+
+    private static final RuleSnapshot EMPTY =
+            new RuleSnapshot(0L, new double[0], new CompiledRule[0][], new InventoryCounter[0][], new AliasSampler[0]);
+
+    private final long version;
+    private final double[] tierBoundaries;
+    private final CompiledRule[][] tierRules;
+    // Parallel to tierRules; null entries are uncapped rules
+    private final InventoryCounter[][] tierInventory;
+    private final AliasSampler[] samplers;
+
+    private RuleSnapshot(long version, double[] tierBoundaries, CompiledRule[][] tierRules,
+                         InventoryCounter[][] tierInventory, AliasSampler[] samplers) {
+        this.version = version;
+        this.tierBoundaries = tierBoundaries;
+        this.tierRules = tierRules;
+        this.tierInventory = tierInventory;
+        this.samplers = samplers;
+    }
+
+    public static RuleSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Groups the rules by minimum transaction amount and compiles every tier.
+     *
+     * @param version version number of the rule set
+     * @param rules   active rules, in any order
+     */
+    public static RuleSnapshot compile(long version, List<CompiledRule> rules) {
+        return compile(version, rules, rule -> null);
+    }
+
+    /**
+     * Same as {@link #compile(long, List)}, attaching the inventory counter of every capped rule.
+     *
+     * @param inventory returns the counter of a rule, or {@code null} if the rule is not capped
+     */
+    public static RuleSnapshot compile(long version, List<CompiledRule> rules,
+                                       Function<CompiledRule, InventoryCounter> inventory) {
+        List<CompiledRule> sorted = new ArrayList<>(rules);
+        // Stable sort keeps the DB order of rules inside a tier
+        sorted.sort(Comparator.comparingDouble(CompiledRule::minTransactionAmount));
+
+        int tierCount = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            if (i == 0 || sorted.get(i).minTransactionAmount() != sorted.get(i - 1).minTransactionAmount()) {
+                tierCount++;
+            }
+        }
+
+        double[] boundaries = new double[tierCount];
+        CompiledRule[][] tierRules = new CompiledRule[tierCount][];
+        InventoryCounter[][] tierInventory = new InventoryCounter[tierCount][];
+        AliasSampler[] samplers = new AliasSampler[tierCount];
+
+        int start = 0;
+        for (int tier = 0; tier < tierCount; tier++) {
+            double boundary = sorted.get(start).minTransactionAmount();
+            int end = start;
+            while (end < sorted.size() && sorted.get(end).minTransactionAmount() == boundary) {
+                end++;
+            }
+
+            CompiledRule[] options = sorted.subList(start, end).toArray(new CompiledRule[0]);
+            int[] weights = new int[options.length];
+            InventoryCounter[] counters = new InventoryCounter[options.length];
+            for (int i = 0; i < options.length; i++) {
+                weights[i] = options[i].weight();
+                counters[i] = inventory.apply(options[i]);
+            }
+
+            boundaries[tier] = boundary;
+            tierRules[tier] = options;
+            tierInventory[tier] = counters;
+            samplers[tier] = AliasSampler.of(weights);
+            start = end;
+        }
+
+        return new RuleSnapshot(version, boundaries, tierRules, tierInventory, samplers);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int tierCount() {
+        return tierBoundaries.length;
+    }
+
+    public boolean isEmpty() {
+        return tierBoundaries.length == 0;
+    }
+
+    /**
+     * Finds the tier with the greatest minimum amount that is {@code <= amount}.
+     *
+     * @return tier index, or {@link #NO_TIER} if the amount is below every tier
+     */
+    public int tierIndexFor(double amount) {
+        int index = Arrays.binarySearch(tierBoundaries, amount);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    public double tierBoundary(int tier) {
+        return tierBoundaries[tier];
+    }
+
+    public int tierSize(int tier) {
+        return tierRules[tier].length;
+    }
+
+    public CompiledRule rule(int tier, int index) {
+        return tierRules[tier][index];
+    }
+
+    /**
+     * Draws one rule of the given tier according to the configured weights, skipping capped
+     * rules with no units left. A capped rule that is returned has had one unit taken.
+     *
+     * @return the drawn rule, or {@code null} if every rule of the tier is out of units
+     */
+    public CompiledRule select(int tier, RandomGenerator random) {
+        CompiledRule[] options = tierRules[tier];
+        InventoryCounter[] counters = tierInventory[tier];
+        for (int attempt = 0; attempt < MAX_REDRAWS; attempt++) {
+            int index = samplers[tier].next(random);
+            InventoryCounter counter = counters[index];
+            if (counter == null || counter.tryAcquire()) {
+                return options[index];
+            }
+        }
+        return selectAvailable(options, counters, random);
+    }
+
+    /**
+     * Gives back the unit taken by {@link #select} when the reward is not stored after all,
+     * e.g. because the transaction turned out to be a duplicate. No-op for uncapped rules.
+     */
+    public void returnUnit(int tier, CompiledRule rule) {
+        CompiledRule[] options = tierRules[tier];
+        for (int i = 0; i < options.length; i++) {
+            if (options[i] == rule) {
+                if (tierInventory[tier][i] != null) {
+                    tierInventory[tier][i].add(1);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Slow path once the alias table keeps hitting exhausted rules: a weighted draw over
+     * the rules that still have units.
+     */
+    private static CompiledRule selectAvailable(CompiledRule[] options, InventoryCounter[] counters,
+                                                RandomGenerator random) {
+        for (int attempt = 0; attempt < MAX_REDRAWS; attempt++) {
+            long totalWeight = 0;
+            int availableCount = 0;
+            for (int i = 0; i < options.length; i++) {
+                if (counters[i] == null || counters[i].remaining() > 0) {
+                    totalWeight += Math.max(0, options[i].weight());
+                    availableCount++;
+                }
+            }
+            if (availableCount == 0) {
+                return null;
+            }
+
+            // Zero total weight: pick uniformly, like the alias table does
+            long target = totalWeight > 0 ? random.nextLong(totalWeight) : random.nextInt(availableCount);
+            for (int i = 0; i < options.length; i++) {
+                if (counters[i] != null && counters[i].remaining() <= 0) {
+                    continue;
+                }
+                target -= totalWeight > 0 ? Math.max(0, options[i].weight()) : 1;
+                if (target < 0) {
+                    if (counters[i] == null || counters[i].tryAcquire()) {
+                        return options[i];
+                    }
+                    // Lost the last unit to another thread, draw again
+                    break;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.central.reward_service.model;
+
+/**
+ * The part of a transaction event that reward processing needs. Built straight from the
+ * Kafka payload by {@code TransactionEventReader}, or from a REST {@code RewardRequest}.
+ *
+ * @param transactionId source transaction, the idempotency key
+ * @param userId        user to reward (the sender of the transaction)
+ * @param amount        transaction amount, selects the reward tier
+ */
+public record TransactionIngestCommand(String transactionId, String userId, double amount) {
+}
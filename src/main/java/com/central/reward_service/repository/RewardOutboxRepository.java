@@ -0,0 +1,39 @@
+package com.central.reward_service.repository;
+
+import com.central.reward_service.model.RewardOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RewardOutboxRepository extends JpaRepository<RewardOutbox, Long>, RewardOutboxRepositoryCustom {
+
+    /**
+     * Leases the oldest messages that no relay holds, for {@code leaseMs} by the database clock.
+     * The lease outlives the claiming transaction, so the caller can commit before sending;
+     * rows being claimed by another relay are skipped, so replicas drain the outbox side by side.
+     * Rows come back in no particular order.
+     */
+    @Query(value = """
+            UPDATE reward_outbox
+               SET leased_until = now() + :leaseMs * INTERVAL '1 millisecond'
+             WHERE id IN (SELECT id FROM reward_outbox
+                           WHERE leased_until IS NULL OR leased_until < now()
+                           ORDER BY id
+                           LIMIT :limit
+                           FOR UPDATE SKIP LOCKED)
+            RETURNING *
+            """, nativeQuery = true)
+    List<RewardOutbox> claimNextBatch(int limit, long leaseMs);
+
+    /**
+     * Gives leased messages back so the next round sends them again without waiting for the lease to run out.
+     */
+    @Modifying
+    @Query(value = "UPDATE reward_outbox SET leased_until = NULL WHERE id IN (:ids)", nativeQuery = true)
+    int releaseAll(Collection<Long> ids);
+}
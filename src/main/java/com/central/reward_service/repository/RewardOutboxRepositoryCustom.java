@@ -0,0 +1,13 @@
+package com.central.reward_service.repository;
+
+import com.central.reward_service.model.RewardOutbox;
+
+import java.util.List;
+
+public interface RewardOutboxRepositoryCustom {
+
+    /**
+     * Appends messages to the outbox as one JDBC batch, in the current transaction.
+     */
+    void insertAll(List<RewardOutbox> messages);
+}
@@ -0,0 +1,35 @@
+package com.central.reward_service.repository;
+
+import com.central.reward_service.model.RewardOutbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Plain JDBC fragment of {@link RewardOutboxRepository}: IDENTITY ids would make JPA insert
+ * row by row, and nothing reads the ids back.
+ */
+@RequiredArgsConstructor
+public class RewardOutboxRepositoryImpl implements RewardOutboxRepositoryCustom {
+
+    private static final String INSERT = """
+            INSERT INTO reward_outbox (topic, message_key, payload, created_at)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<RewardOutbox> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, messages, messages.size(), (ps, message) -> {
+            ps.setString(1, message.getTopic());
+            ps.setString(2, message.getMessageKey());
+            ps.setBytes(3, message.getPayload());
+            ps.setTimestamp(4, message.getCreatedAt());
+        });
+    }
+}
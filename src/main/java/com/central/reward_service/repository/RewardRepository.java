@@ -1,19 +1,86 @@
 package com.central.reward_service.repository;
 
 import com.central.reward_service.model.Reward;
-import org.springframework.data.domain.Page;
+import com.central.reward_service.model.RewardClaimState;
+import com.central.reward_service.model.RewardView;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
-public interface RewardRepository extends JpaRepository<Reward, Long> {
+public interface RewardRepository extends JpaRepository<Reward, Long>, RewardRepositoryCustom {
 
-    // Fetch rewards for a user with pagination (e.g., latest 10)
-    Page<Reward> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
+    // Fetch rewards for a user by page number (e.g., latest 10); a Slice needs no count query
+    @Query("""
+            SELECT new com.central.reward_service.model.RewardView(r.rewardId, r.userId, r.transactionId,
+                   r.rewardType, r.rewardDescription, r.rewardValue, r.createdAt, r.status)
+              FROM Reward r
+             WHERE r.userId = :userId
+             ORDER BY r.createdAt DESC, r.rewardId DESC
+            """)
+    Slice<RewardView> findViewsByUserId(String userId, Pageable pageable);
+
+    // Next page after a cursor: one range scan of idx_rewards_user_created (schema.sql), whatever the depth
+    @Query("""
+            SELECT new com.central.reward_service.model.RewardView(r.rewardId, r.userId, r.transactionId,
+                   r.rewardType, r.rewardDescription, r.rewardValue, r.createdAt, r.status)
+              FROM Reward r
+             WHERE r.userId = :userId
+               AND (r.createdAt, r.rewardId) < (:createdAt, :rewardId)
+             ORDER BY r.createdAt DESC, r.rewardId DESC
+            """)
+    Slice<RewardView> findViewsByUserIdBefore(String userId, Timestamp createdAt, Long rewardId, Pageable pageable);
+
+    @Query("""
+            SELECT new com.central.reward_service.model.RewardView(r.rewardId, r.userId, r.transactionId,
+                   r.rewardType, r.rewardDescription, r.rewardValue, r.createdAt, r.status)
+              FROM Reward r
+             WHERE r.rewardId = :rewardId
+            """)
+    Optional<RewardView> findViewById(Long rewardId);
+
+    // Coalesced lookups by id (RewardLookupCoalescer): one primary key scan for the whole batch
+    @Query("""
+            SELECT new com.central.reward_service.model.RewardView(r.rewardId, r.userId, r.transactionId,
+                   r.rewardType, r.rewardDescription, r.rewardValue, r.createdAt, r.status)
+              FROM Reward r
+             WHERE r.rewardId IN :rewardIds
+            """)
+    List<RewardView> findViewsByRewardIdIn(Collection<Long> rewardIds);
+
+    // The original reward of a transaction that was already rewarded (unique index on transaction_id)
+    @Query("""
+            SELECT new com.central.reward_service.model.RewardView(r.rewardId, r.userId, r.transactionId,
+                   r.rewardType, r.rewardDescription, r.rewardValue, r.createdAt, r.status)
+              FROM Reward r
+             WHERE r.transactionId = :transactionId
+            """)
+    Optional<RewardView> findViewByTransactionId(String transactionId);
+
+    @Query("""
+            SELECT new com.central.reward_service.model.RewardView(r.rewardId, r.userId, r.transactionId,
+                   r.rewardType, r.rewardDescription, r.rewardValue, r.createdAt, r.status)
+              FROM Reward r
+             WHERE r.transactionId IN :transactionIds
+            """)
+    List<RewardView> findViewsByTransactionIdIn(Collection<String> transactionIds);
 
     // Check if a reward already exists for this transaction (Idempotency)
     boolean existsByTransactionId(String transactionId);
-}
\ No newline at end of file
+
+    // Batch idempotency check: which of these transactions are already rewarded (one query)
+    @Query("SELECT r.transactionId FROM Reward r WHERE r.transactionId IN :transactionIds")
+    Set<String> findExistingTransactionIds(Collection<String> transactionIds);
+
+    // Why a claim did not match: not found, already claimed, or expired (possibly not yet marked by the sweeper)
+    @Query("SELECT new com.central.reward_service.model.RewardClaimState(r.status, r.expiresAt) FROM Reward r WHERE r.rewardId = :rewardId")
+    Optional<RewardClaimState> findClaimStateById(Long rewardId);
+}
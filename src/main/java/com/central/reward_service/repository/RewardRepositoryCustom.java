@@ -0,0 +1,62 @@
+package com.central.reward_service.repository;
+
+import com.central.reward_service.model.ClaimedReward;
+import com.central.reward_service.model.Reward;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Write paths and bulk reads of {@link RewardRepository} that JPA cannot express in a single statement.
+ */
+public interface RewardRepositoryCustom {
+
+    /**
+     * Inserts the reward unless one already exists for its transaction id, in one round trip.
+     * The reward id must already be assigned; on success the creation defaults are set on {@code reward}.
+     *
+     * @return the new reward id, or empty if the transaction was already rewarded
+     */
+    Optional<Long> insertIfAbsent(Reward reward);
+
+    /**
+     * Inserts all rewards in one statement, skipping those whose transaction is already rewarded.
+     * Ids must already be assigned; creation defaults are set on every reward.
+     *
+     * @return reward id by transaction id, for the rewards actually inserted
+     */
+    Map<String, Long> insertAllIfAbsent(List<Reward> rewards);
+
+    /**
+     * Claims the reward if it is still unclaimed and not expired at {@code now}, in one conditional
+     * update. Of several concurrent claims on the same reward exactly one gets a result.
+     *
+     * @param redeemCode stored only if the reward has no redeem code yet
+     * @return the claimed reward, or empty if it does not exist, is already claimed or has expired
+     */
+    Optional<ClaimedReward> claimIfUnclaimed(long rewardId, String redeemCode, Timestamp now);
+
+    /**
+     * Marks up to {@code limit} unclaimed rewards that expired before {@code now} as EXPIRED, oldest
+     * first. Rows locked by a claim or by another sweeper are skipped, not waited for.
+     *
+     * @return ids of the rewards expired by this call
+     */
+    List<Long> expireOverdue(Timestamp now, int limit);
+
+    /**
+     * Streams the transaction id of every reward to {@code action}, a fetch at a time rather than
+     * the whole table at once. Must run inside a transaction for the driver to use a cursor.
+     */
+    void forEachTransactionId(Consumer<String> action);
+
+    /**
+     * Streams every reward created in {@code [from, to)} to {@code action}, oldest first, a fetch at
+     * a time. The rewards are detached and carry no rule. Must run inside a transaction for the
+     * driver to use a cursor.
+     */
+    void forEachRewardCreatedBetween(Timestamp from, Timestamp to, Consumer<Reward> action);
+}
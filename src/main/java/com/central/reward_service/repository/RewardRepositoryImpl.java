@@ -0,0 +1,202 @@
+package com.central.reward_service.repository;
+
+import com.central.reward_service.model.ClaimedReward;
+import com.central.reward_service.model.Reward;
+import com.central.reward_service.model.RewardStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC fragment of {@link RewardRepository}. Runs on the connection of the current
+ * JPA transaction.
+ */
+@RequiredArgsConstructor
+public class RewardRepositoryImpl implements RewardRepositoryCustom {
+
+    private static final String INSERT_COLUMNS = """
+            INSERT INTO rewards (reward_id, user_id, transaction_id, transaction_amount, reward_type, reward_description,
+                                 reward_value, redeem_code, created_at, expires_at, status, reward_rule_id)
+            VALUES
+            """;
+
+    // The unique constraint on transaction_id is the idempotency check: no SELECT before the insert
+    private static final String ON_CONFLICT_RETURNING = """
+             ON CONFLICT (transaction_id) DO NOTHING
+            RETURNING transaction_id
+            """;
+
+    // The WHERE clause is the state check: the row lock taken by the update makes a second claim see CLAIMED
+    private static final String CLAIM_IF_UNCLAIMED = """
+            UPDATE rewards
+               SET status = 'CLAIMED',
+                   claimed_at = :now,
+                   redeem_code = COALESCE(NULLIF(redeem_code, ''), :redeemCode)
+             WHERE reward_id = :rewardId
+               AND status = 'UNCLAIMED'
+               AND expires_at > :now
+            RETURNING redeem_code, expires_at
+            """;
+
+    // Served by the partial index idx_rewards_unclaimed_expires_at (schema.sql)
+    private static final String EXPIRE_OVERDUE = """
+            UPDATE rewards
+               SET status = 'EXPIRED'
+             WHERE reward_id IN (SELECT reward_id
+                                   FROM rewards
+                                  WHERE status = 'UNCLAIMED'
+                                    AND expires_at <= :now
+                                  ORDER BY expires_at
+                                  LIMIT :limit
+                                    FOR UPDATE SKIP LOCKED)
+            RETURNING reward_id
+            """;
+
+    private static final String SELECT_TRANSACTION_IDS = "SELECT transaction_id FROM rewards";
+
+    // Served by idx_rewards_created (schema.sql): rows come back in index order, no sort
+    private static final String SELECT_CREATED_BETWEEN = """
+            SELECT reward_id, user_id, transaction_id, transaction_amount, reward_type, reward_description,
+                   reward_value, created_at, expires_at, status, claimed_at
+              FROM rewards
+             WHERE created_at >= ?
+               AND created_at < ?
+             ORDER BY created_at, reward_id
+            """;
+
+    // Rows per round trip when streaming the whole table
+    static final int STREAM_FETCH_SIZE = 10_000;
+
+    // 12 parameters per row, well below the 65535 bind parameters Postgres accepts per statement
+    static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<Long> insertIfAbsent(Reward reward) {
+        return Optional.ofNullable(insertAllIfAbsent(List.of(reward)).get(reward.getTransactionId()));
+    }
+
+    /**
+     * One multi-row statement per {@value #MAX_ROWS_PER_STATEMENT} rewards. Ids are assigned by the
+     * caller; RETURNING tells which transactions were actually inserted.
+     */
+    @Override
+    public Map<String, Long> insertAllIfAbsent(List<Reward> rewards) {
+        Map<String, Long> inserted = new HashMap<>();
+        for (int from = 0; from < rewards.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Reward> chunk = rewards.subList(from, Math.min(rewards.size(), from + MAX_ROWS_PER_STATEMENT));
+            insertChunk(chunk, inserted);
+        }
+        return inserted;
+    }
+
+    @Override
+    public Optional<ClaimedReward> claimIfUnclaimed(long rewardId, String redeemCode, Timestamp now) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("rewardId", rewardId)
+                .addValue("redeemCode", redeemCode)
+                .addValue("now", now);
+        List<ClaimedReward> claimed = jdbcTemplate.query(CLAIM_IF_UNCLAIMED, params,
+                (rs, rowNum) -> new ClaimedReward(rs.getString("redeem_code"), rs.getTimestamp("expires_at")));
+        return claimed.stream().findFirst();
+    }
+
+    @Override
+    public List<Long> expireOverdue(Timestamp now, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("now", now)
+                .addValue("limit", limit);
+        return jdbcTemplate.queryForList(EXPIRE_OVERDUE, params, Long.class);
+    }
+
+    @Override
+    public void forEachTransactionId(Consumer<String> action) {
+        jdbcTemplate.getJdbcOperations().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_TRANSACTION_IDS);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> action.accept(rs.getString("transaction_id")));
+    }
+
+    @Override
+    public void forEachRewardCreatedBetween(Timestamp from, Timestamp to, Consumer<Reward> action) {
+        jdbcTemplate.getJdbcOperations().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_CREATED_BETWEEN);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            statement.setTimestamp(1, from);
+            statement.setTimestamp(2, to);
+            return statement;
+        }, (RowCallbackHandler) rs -> action.accept(Reward.builder()
+                .rewardId(rs.getLong("reward_id"))
+                .userId(rs.getString("user_id"))
+                .transactionId(rs.getString("transaction_id"))
+                .transactionAmount(rs.getDouble("transaction_amount"))
+                .rewardType(rs.getString("reward_type"))
+                .rewardDescription(rs.getString("reward_description"))
+                .rewardValue(rs.getDouble("reward_value"))
+                .createdAt(rs.getTimestamp("created_at"))
+                .expiresAt(rs.getTimestamp("expires_at"))
+                .status(RewardStatus.valueOf(rs.getString("status")))
+                .claimedAt(rs.getTimestamp("claimed_at"))
+                .build()));
+    }
+
+    private void insertChunk(List<Reward> rewards, Map<String, Long> inserted) {
+        Map<String, Long> idsByTransaction = new HashMap<>(rewards.size() * 2);
+        StringBuilder sql = new StringBuilder(INSERT_COLUMNS);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        for (int i = 0; i < rewards.size(); i++) {
+            Reward reward = rewards.get(i);
+            // Same defaults JPA would apply on persist
+            reward.prePersist();
+
+            if (i > 0) {
+                sql.append(",\n");
+            }
+            idsByTransaction.put(reward.getTransactionId(), reward.getRewardId());
+            sql.append("(:rewardId").append(i)
+                    .append(", :userId").append(i)
+                    .append(", :transactionId").append(i)
+                    .append(", :transactionAmount").append(i)
+                    .append(", :rewardType").append(i)
+                    .append(", :rewardDescription").append(i)
+                    .append(", :rewardValue").append(i)
+                    .append(", :redeemCode").append(i)
+                    .append(", :createdAt").append(i)
+                    .append(", :expiresAt").append(i)
+                    .append(", :status").append(i)
+                    .append(", :rewardRuleId").append(i)
+                    .append(')');
+
+            params.addValue("rewardId" + i, reward.getRewardId())
+                    .addValue("userId" + i, reward.getUserId())
+                    .addValue("transactionId" + i, reward.getTransactionId())
+                    .addValue("transactionAmount" + i, reward.getTransactionAmount())
+                    .addValue("rewardType" + i, reward.getRewardType())
+                    .addValue("rewardDescription" + i, reward.getRewardDescription())
+                    .addValue("rewardValue" + i, reward.getRewardValue())
+                    .addValue("redeemCode" + i, reward.getRedeemCode())
+                    .addValue("createdAt" + i, reward.getCreatedAt())
+                    .addValue("expiresAt" + i, reward.getExpiresAt())
+                    .addValue("status" + i, reward.getStatus().name())
+                    .addValue("rewardRuleId" + i, reward.getRewardRule().getId());
+        }
+        sql.append(ON_CONFLICT_RETURNING);
+
+        jdbcTemplate.query(sql.toString(), params,
+                rs -> {
+                    String transactionId = rs.getString("transaction_id");
+                    inserted.put(transactionId, idsByTransaction.get(transactionId));
+                });
+    }
+}
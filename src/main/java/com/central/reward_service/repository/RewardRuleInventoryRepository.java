@@ -0,0 +1,51 @@
+package com.central.reward_service.repository;
+
+import com.central.reward_service.model.RewardRuleInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+@Repository
+public interface RewardRuleInventoryRepository extends JpaRepository<RewardRuleInventory, RewardRuleInventory.Key> {
+
+    /**
+     * Leases up to {@code block} units of a rule for the given day in one atomic statement.
+     * Creates the day's row on first use and never lets {@code leased} exceed {@code capacity}.
+     *
+     * @return number of units granted, or {@code null} if the day's capacity is used up
+     */
+    @Transactional
+    @Query(value = """
+            INSERT INTO reward_rule_inventory AS i (rule_id, period_date, leased, last_grant)
+            VALUES (:ruleId, :periodDate, LEAST(:block, :capacity), LEAST(:block, :capacity))
+            ON CONFLICT (rule_id, period_date) DO UPDATE
+                SET leased = LEAST(i.leased + :block, :capacity),
+                    last_grant = LEAST(i.leased + :block, :capacity) - i.leased
+                WHERE i.leased < :capacity
+            RETURNING i.last_grant
+            """, nativeQuery = true)
+    Long leaseBlock(Long ruleId, LocalDate periodDate, long block, long capacity);
+
+    /**
+     * Gives back units that were leased but never awarded (e.g. on shutdown).
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE reward_rule_inventory
+               SET leased = GREATEST(leased - :units, 0)
+             WHERE rule_id = :ruleId AND period_date = :periodDate
+            """, nativeQuery = true)
+    int release(Long ruleId, LocalDate periodDate, long units);
+
+    /**
+     * Rewards actually issued from a rule since the start of the period, used for reconciliation.
+     */
+    @Query("SELECT COUNT(r) FROM Reward r WHERE r.rewardRule.id = :ruleId AND r.createdAt >= :since")
+    long countIssuedSince(Long ruleId, Timestamp since);
+}
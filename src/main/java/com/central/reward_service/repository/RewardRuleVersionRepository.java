@@ -0,0 +1,28 @@
+package com.central.reward_service.repository;
+
+import com.central.reward_service.model.RewardRuleVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RewardRuleVersionRepository extends JpaRepository<RewardRuleVersion, Long> {
+
+    /**
+     * Bumps the version row, creating it on the first rule change, and returns the new version.
+     * One statement: the row lock it takes orders concurrent rule changes, including the very
+     * first ones on an empty table, so they get distinct, increasing versions.
+     */
+    @Query(value = """
+            INSERT INTO reward_rule_version (id, version) VALUES (:id, 1)
+            ON CONFLICT (id) DO UPDATE SET version = reward_rule_version.version + 1
+            RETURNING version
+            """, nativeQuery = true)
+    long incrementVersion(long id);
+
+    /**
+     * Current rule set version, or 0 if no rule has ever been changed.
+     */
+    @Query("SELECT COALESCE(MAX(v.version), 0) FROM RewardRuleVersion v")
+    long currentVersion();
+}
@@ -0,0 +1,84 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.model.RewardStatus;
+import com.central.reward_service.repository.RewardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Marks unclaimed rewards EXPIRED once their expiry has passed, so stored statuses can be read
+ * as they are instead of being recomputed against {@code expires_at}.
+ *
+ * Each chunk is its own short transaction that locks at most {@code app.reward.expiry.chunk-size}
+ * rows and skips rows held by a claim or by the sweeper of another replica, so replicas split the
+ * backlog between them. Cached views of expired rewards are switched to EXPIRED.
+ */
+@Slf4j
+@Component
+public class RewardExpirySweeper {
+
+    private final RewardRepository rewardRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final RewardViewCache rewardViewCache;
+
+    private final int chunkSize;
+
+    private final Counter expired;
+
+    public RewardExpirySweeper(RewardRepository rewardRepository,
+                               TransactionTemplate transactionTemplate,
+                               RewardViewCache rewardViewCache,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.reward.expiry.chunk-size:500}") int chunkSize) {
+        this.rewardRepository = rewardRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.rewardViewCache = rewardViewCache;
+        this.chunkSize = chunkSize;
+        this.expired = Counter.builder("reward.expiry.swept")
+                .description("Unclaimed rewards marked EXPIRED by the sweeper")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Expires chunks until one comes back short, i.e. nothing overdue is left that another
+     * replica is not already working on.
+     *
+     * @return number of rewards expired by this run
+     */
+    @Scheduled(fixedDelayString = "${app.reward.expiry.sweep-interval-ms:60000}")
+    public int sweep() {
+        // One cut-off for the whole run, so rewards expiring meanwhile wait for the next one
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        int total = 0;
+        int swept;
+        do {
+            swept = sweepChunk(now);
+            total += swept;
+        } while (swept == chunkSize);
+
+        if (total > 0) {
+            log.info("Expired {} overdue rewards", total);
+        }
+        return total;
+    }
+
+    private int sweepChunk(Timestamp now) {
+        List<Long> rewardIds = transactionTemplate.execute(status -> rewardRepository.expireOverdue(now, chunkSize));
+        if (rewardIds == null || rewardIds.isEmpty()) {
+            return 0;
+        }
+        expired.increment(rewardIds.size());
+        rewardViewCache.updateStatus(rewardIds, RewardStatus.EXPIRED);
+        return rewardIds.size();
+    }
+}
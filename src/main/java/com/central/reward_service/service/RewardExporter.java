@@ -0,0 +1,189 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.exception.InvalidExportRangeException;
+import com.central.reward_service.kafka.RewardEventProducer;
+import com.central.reward_service.model.Reward;
+import com.central.reward_service.model.RewardExportFormat;
+import com.central.reward_service.repository.RewardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.exc.JacksonIOException;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Streams every reward created in a date range, for finance.
+ *
+ * Rows are read through a cursor ({@link RewardRepository#forEachRewardCreatedBetween}) and written
+ * to the response one by one, so memory use does not depend on the size of the range. The read-only
+ * transaction, and with it the pooled connection, starts when the response body is written and ends
+ * with the last row. Redeem codes are not exported.
+ */
+@Slf4j
+@Component
+public class RewardExporter {
+
+    private final RewardRepository rewardRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final RewardEventProducer rewardEventProducer;
+
+    private final ObjectWriter ndjsonWriter;
+
+    private final MeterRegistry meterRegistry;
+
+    public RewardExporter(RewardRepository rewardRepository,
+                          PlatformTransactionManager transactionManager,
+                          RewardEventProducer rewardEventProducer,
+                          JsonMapper jsonMapper,
+                          MeterRegistry meterRegistry) {
+        this.rewardRepository = rewardRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rewardEventProducer = rewardEventProducer;
+        // Lines are ended explicitly, the generator must not separate them with a space
+        this.ndjsonWriter = jsonMapper.writer().withRootValueSeparator("");
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Checks the range now, so a bad request fails before the response is committed, and returns
+     * the body that streams the rewards created in {@code [from, to)}, oldest first.
+     */
+    public StreamingResponseBody export(Instant from, Instant to, RewardExportFormat format) {
+        if (!from.isBefore(to)) {
+            throw new InvalidExportRangeException("Export range is empty: from " + from + " is not before to " + to);
+        }
+        return out -> write(from, to, format, out);
+    }
+
+    void write(Instant from, Instant to, RewardExportFormat format, OutputStream out) throws IOException {
+        Counter rows = Counter.builder("reward.export.rows")
+                .description("Rewards written by the export")
+                .tag("format", format.name())
+                .register(meterRegistry);
+        RecordWriter writer = format == RewardExportFormat.PROTOBUF
+                ? new ProtobufWriter(out)
+                : new NdjsonWriter(ndjsonWriter.createGenerator(out));
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        long[] written = {0};
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> rewardRepository.forEachRewardCreatedBetween(
+                    Timestamp.from(from), Timestamp.from(to), reward -> {
+                        writer.write(reward);
+                        written[0]++;
+                    }));
+            writer.flush();
+            outcome = "success";
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor is closed and the transaction rolled back
+            log.warn("Reward export aborted after {} rows: {}", written[0], e.getMessage());
+            throw e.getCause();
+        } finally {
+            rows.increment(written[0]);
+            sample.stop(Timer.builder("reward.export")
+                    .description("Time to stream one reward export")
+                    .tag("format", format.name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+        log.info("Exported {} rewards created between {} and {} as {}", written[0], from, to, format);
+    }
+
+    private interface RecordWriter {
+
+        void write(Reward reward);
+
+        void flush();
+    }
+
+    private class ProtobufWriter implements RecordWriter {
+
+        private final OutputStream out;
+
+        ProtobufWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(Reward reward) {
+            try {
+                rewardEventProducer.toEvent(reward).writeDelimitedTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void flush() {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private record NdjsonWriter(JsonGenerator generator) implements RecordWriter {
+
+        @Override
+        public void write(Reward reward) {
+            try {
+                writeObject(reward);
+            } catch (JacksonIOException e) {
+                throw new UncheckedIOException(e.getCause());
+            }
+        }
+
+        @Override
+        public void flush() {
+            // Not closed: that would close the response stream
+            try {
+                generator.flush();
+            } catch (JacksonIOException e) {
+                throw new UncheckedIOException(e.getCause());
+            }
+        }
+
+        private void writeObject(Reward reward) {
+            generator.writeStartObject();
+            generator.writeNumberProperty("rewardId", reward.getRewardId());
+            generator.writeStringProperty("userId", reward.getUserId());
+            generator.writeStringProperty("transactionId", reward.getTransactionId());
+            generator.writeNumberProperty("transactionAmount", reward.getTransactionAmount());
+            generator.writeStringProperty("rewardType", reward.getRewardType());
+            generator.writeStringProperty("rewardDescription", reward.getRewardDescription());
+            generator.writeNumberProperty("rewardValue", reward.getRewardValue());
+            generator.writeStringProperty("status", reward.getStatus().name());
+            writeTimestamp("createdAt", reward.getCreatedAt());
+            writeTimestamp("expiresAt", reward.getExpiresAt());
+            writeTimestamp("claimedAt", reward.getClaimedAt());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeTimestamp(String name, Timestamp timestamp) {
+            if (timestamp == null) {
+                generator.writeNullProperty(name);
+            } else {
+                generator.writeStringProperty(name, timestamp.toInstant().toString());
+            }
+        }
+    }
+}
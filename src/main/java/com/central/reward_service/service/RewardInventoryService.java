@@ -0,0 +1,214 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.model.CompiledRule;
+import com.central.reward_service.repository.RewardRuleInventoryRepository;
+import com.central.reward_service.utils.InventoryCounter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Enforces the daily capacity of capped reward rules without touching the DB per reward.
+ *
+ * Every capped rule has one {@link InventoryCounter} on this node, shared by all rule
+ * snapshots so a rebuild keeps the units already leased. Counters lease units from the
+ * reward_rule_inventory table in blocks on the IO executor; the request thread only ever
+ * does a CAS. A rule whose day is used up stays out of the draw until the next UTC day
+ * or until its capacity is raised. Each block is stamped with the day it was leased for, and
+ * a counter drops the previous day's units on its first draw after midnight, so they are
+ * never awarded against the new day's row.
+ *
+ * Units leased but not awarded (rolled back transactions, a crashed node) are lost for the
+ * day, so a rule can under-issue but never over-issue. A scheduled reconciliation compares
+ * the counters with the rewards actually issued and retries rules marked exhausted, in case
+ * other replicas gave units back.
+ */
+@Slf4j
+@Service
+public class RewardInventoryService {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final RewardRuleInventoryRepository inventoryRepository;
+
+    private final Executor leaseExecutor;
+
+    private final long leaseBlockSize;
+
+    private final Clock clock;
+
+    private final Map<Long, InventoryCounter> counters = new ConcurrentHashMap<>();
+
+    private volatile LocalDate period;
+
+    @Autowired
+    public RewardInventoryService(RewardRuleInventoryRepository inventoryRepository,
+                                  @Qualifier("ioTaskExecutor") Executor leaseExecutor,
+                                  @Value("${app.reward.inventory.lease-block-size:10}") long leaseBlockSize) {
+        this(inventoryRepository, leaseExecutor, leaseBlockSize, Clock.systemUTC());
+    }
+
+    RewardInventoryService(RewardRuleInventoryRepository inventoryRepository, Executor leaseExecutor,
+                           long leaseBlockSize, Clock clock) {
+        this.inventoryRepository = inventoryRepository;
+        this.leaseExecutor = leaseExecutor;
+        this.leaseBlockSize = leaseBlockSize;
+        this.clock = clock;
+        this.period = LocalDate.now(clock.withZone(ZoneOffset.UTC));
+    }
+
+    /**
+     * Returns the counter of a capped rule, creating it on first use and applying capacity changes.
+     *
+     * @return the rule's counter, or {@code null} if the rule has no daily capacity
+     */
+    public InventoryCounter counterFor(CompiledRule rule) {
+        if (!rule.isCapped()) {
+            counters.remove(rule.id());
+            return null;
+        }
+
+        long capacity = Math.max(0, rule.dailyCapacity());
+        InventoryCounter counter = counters.computeIfAbsent(rule.id(),
+                id -> new InventoryCounter(id, capacity, Math.max(1, leaseBlockSize / 2), this::lease, this::epochDay));
+        if (counter.getCapacity() != capacity) {
+            boolean raised = capacity > counter.getCapacity();
+            counter.setCapacity(capacity);
+            if (raised) {
+                counter.reopen();
+            }
+        }
+        if (counter.remaining() == 0) {
+            // Lease the first block before the rule is drawn
+            counter.requestRefill();
+        }
+        return counter;
+    }
+
+    /**
+     * Drops the counters of rules that are no longer active, giving their units back.
+     */
+    public void retainOnly(Collection<Long> activeRuleIds) {
+        Set<Long> active = Set.copyOf(activeRuleIds);
+        counters.entrySet().removeIf(entry -> {
+            if (active.contains(entry.getKey())) {
+                return false;
+            }
+            release(entry.getValue());
+            return true;
+        });
+    }
+
+    /**
+     * Periodic check of every counter against the DB.
+     */
+    @Scheduled(fixedDelayString = "${app.reward.inventory.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        LocalDate today = currentPeriod();
+        Timestamp since = Timestamp.from(today.atStartOfDay(ZoneOffset.UTC).toInstant());
+
+        for (InventoryCounter counter : counters.values()) {
+            try {
+                long issued = inventoryRepository.countIssuedSince(counter.getRuleId(), since);
+                if (issued >= counter.getCapacity()) {
+                    // Hard stop even if this node still holds units, e.g. after the inventory row was reset
+                    counter.markExhausted();
+                    counter.drain();
+                    log.debug("Rule {} issued {}/{} today, closed", counter.getRuleId(), issued, counter.getCapacity());
+                } else if (counter.isExhausted()) {
+                    // Other replicas may have given units back
+                    counter.reopen();
+                    counter.requestRefill();
+                }
+            } catch (Exception e) {
+                log.warn("Failed to reconcile inventory of rule {}: {}", counter.getRuleId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gives unused units back so other replicas can still award them today.
+     */
+    @PreDestroy
+    public void releaseAll() {
+        counters.values().forEach(this::release);
+    }
+
+    private void lease(InventoryCounter counter) {
+        leaseExecutor.execute(() -> {
+            try {
+                LocalDate leasePeriod = currentPeriod();
+                Long granted = inventoryRepository.leaseBlock(
+                        counter.getRuleId(), leasePeriod, leaseBlockSize, counter.getCapacity());
+                if (granted == null || granted <= 0) {
+                    counter.markExhausted();
+                    log.info("Rule {} reached its daily capacity of {}", counter.getRuleId(), counter.getCapacity());
+                } else if (counter.add(granted, leasePeriod.toEpochDay())) {
+                    log.debug("Leased {} units of rule {}", granted, counter.getRuleId());
+                } else {
+                    // The day rolled over while the lease was in flight; the units stay with that day
+                    log.debug("Dropped {} units of rule {} leased for {}", granted, counter.getRuleId(), leasePeriod);
+                }
+            } catch (Exception e) {
+                // The rule stays out of the draw until the next refill attempt
+                log.warn("Failed to lease inventory for rule {}: {}", counter.getRuleId(), e.getMessage());
+            } finally {
+                counter.refillCompleted();
+            }
+        });
+    }
+
+    private void release(InventoryCounter counter) {
+        long unused = counter.drain();
+        if (unused == 0) {
+            return;
+        }
+        try {
+            inventoryRepository.release(counter.getRuleId(), LocalDate.ofEpochDay(counter.getPeriod()), unused);
+        } catch (Exception e) {
+            log.warn("Failed to release {} units of rule {}: {}", unused, counter.getRuleId(), e.getMessage());
+        }
+    }
+
+    /**
+     * @return today's period, resetting every counter first if the UTC day has changed
+     */
+    private LocalDate currentPeriod() {
+        LocalDate today = LocalDate.now(clock.withZone(ZoneOffset.UTC));
+        if (!today.equals(period)) {
+            rollOver(today);
+        }
+        return today;
+    }
+
+    private synchronized void rollOver(LocalDate today) {
+        if (today.equals(period)) {
+            return;
+        }
+        log.info("Inventory period rolled over from {} to {}", period, today);
+        period = today;
+        for (InventoryCounter counter : counters.values()) {
+            // Yesterday's leftovers belong to yesterday's row
+            counter.rollOver(today.toEpochDay());
+        }
+    }
+
+    // Current UTC day, cheap enough to be read on every draw
+    private long epochDay() {
+        return Math.floorDiv(clock.millis(), MILLIS_PER_DAY);
+    }
+}
@@ -0,0 +1,155 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.model.RewardView;
+import com.central.reward_service.repository.RewardRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Collects reward lookups by id that arrive close together and resolves them with one
+ * {@code WHERE reward_id IN (...)} query, DataLoader style.
+ *
+ * A lookup that arrives while no query is running is sent on its own right away, so a lone lookup
+ * never waits for the window. One that arrives while a query is running opens a batch; the batch
+ * is queried once {@code app.reward.lookup.window-micros} have passed or it holds
+ * {@code app.reward.lookup.max-batch-size} ids, whichever comes first. Queries run in their own
+ * read-only transaction on the IO executor. The ids per query are published as
+ * {@code reward.lookup.batch.size}; its mean is the number of lookups each query saved.
+ */
+@Slf4j
+@Component
+public class RewardLookupCoalescer {
+
+    private final RewardRepository rewardRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Executor queryExecutor;
+
+    private final ScheduledExecutorService windowTimer;
+
+    private final long windowMicros;
+
+    private final int maxBatchSize;
+
+    private final DistributionSummary batchSizes;
+
+    // Guarded by this; null while no lookup is waiting
+    private Map<Long, CompletableFuture<RewardView>> openBatch;
+
+    // Guarded by this; queries dispatched and not yet finished
+    private int queriesRunning;
+
+    public RewardLookupCoalescer(RewardRepository rewardRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Qualifier("ioTaskExecutor") Executor queryExecutor,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.reward.lookup.window-micros:2000}") long windowMicros,
+                                 @Value("${app.reward.lookup.max-batch-size:100}") int maxBatchSize) {
+        this.rewardRepository = rewardRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.queryExecutor = queryExecutor;
+        this.windowTimer = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("reward-lookup-window")
+                .daemon(true)
+                .factory());
+        this.windowMicros = windowMicros;
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizes = DistributionSummary.builder("reward.lookup.batch.size")
+                .description("Reward ids resolved by one coalesced query")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return completes with the reward, with {@code null} if there is none, or exceptionally if
+     *         the query failed
+     */
+    public CompletableFuture<RewardView> load(Long rewardId) {
+        Map<Long, CompletableFuture<RewardView>> ready = null;
+        CompletableFuture<RewardView> reward;
+        synchronized (this) {
+            if (openBatch == null && queriesRunning == 0) {
+                // Nothing to share a query with: send it alone instead of waiting out the window
+                reward = new CompletableFuture<>();
+                ready = new LinkedHashMap<>(Map.of(rewardId, reward));
+            } else {
+                if (openBatch == null) {
+                    Map<Long, CompletableFuture<RewardView>> batch = new LinkedHashMap<>();
+                    openBatch = batch;
+                    windowTimer.schedule(() -> closeWindow(batch), windowMicros, TimeUnit.MICROSECONDS);
+                }
+                reward = openBatch.computeIfAbsent(rewardId, id -> new CompletableFuture<>());
+                if (openBatch.size() >= maxBatchSize) {
+                    ready = openBatch;
+                    openBatch = null;
+                }
+            }
+            if (ready != null) {
+                queriesRunning++;
+            }
+        }
+        if (ready != null) {
+            dispatch(ready);
+        }
+        return reward;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        windowTimer.shutdownNow();
+    }
+
+    private void closeWindow(Map<Long, CompletableFuture<RewardView>> batch) {
+        synchronized (this) {
+            if (openBatch != batch) {
+                // Already sent because it filled up
+                return;
+            }
+            openBatch = null;
+            queriesRunning++;
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Map<Long, CompletableFuture<RewardView>> batch) {
+        queryExecutor.execute(() -> query(batch));
+    }
+
+    private void query(Map<Long, CompletableFuture<RewardView>> batch) {
+        batchSizes.record(batch.size());
+        try {
+            List<RewardView> found = readOnlyTransaction.execute(status ->
+                    rewardRepository.findViewsByRewardIdIn(batch.keySet()));
+            Map<Long, RewardView> byId = found.stream()
+                    .collect(Collectors.toMap(RewardView::rewardId, Function.identity()));
+            batch.forEach((rewardId, reward) -> reward.complete(byId.get(rewardId)));
+        } catch (RuntimeException e) {
+            log.warn("Failed to look up {} rewards: {}", batch.size(), e.getMessage());
+            batch.values().forEach(reward -> reward.completeExceptionally(e));
+        } finally {
+            synchronized (this) {
+                queriesRunning--;
+            }
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.central.reward_service.service;
 
 import org.springframework.http.ResponseEntity;
+import org.openapitools.model.RewardRulePublishRequest;
+import org.openapitools.model.RewardRulePublishResponse;
 import org.openapitools.model.RewardRuleRequest;
 import org.openapitools.model.RewardRuleResponse;
+import org.openapitools.model.RewardRuleSimulationRequest;
+import org.openapitools.model.RewardRuleSimulationResponse;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -22,4 +26,8 @@ public interface RewardRuleService {
     ResponseEntity<RewardRuleResponse> adminRewardRulesPost(RewardRuleRequest rewardRuleRequest);
 
     ResponseEntity<List<RewardRuleResponse>> adminRewardRulesTierTierNameGet(String tierName);
+
+    ResponseEntity<RewardRulePublishResponse> adminRewardRulesPublishPost(RewardRulePublishRequest publishRequest);
+
+    ResponseEntity<RewardRuleSimulationResponse> adminRewardRulesSimulatePost(RewardRuleSimulationRequest simulationRequest);
 }
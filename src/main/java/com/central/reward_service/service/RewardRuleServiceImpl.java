@@ -1,21 +1,30 @@
 package com.central.reward_service.service;
 
 import com.central.reward_service.constants.Constants;
+import com.central.reward_service.exception.InvalidRewardRuleException;
 import com.central.reward_service.exception.RewardNotFoundException;
+import com.central.reward_service.kafka.RewardEventProducer;
 import com.central.reward_service.model.RewardRule;
+import com.central.reward_service.model.RewardRuleVersion;
 import com.central.reward_service.repository.RewardRuleRepository;
+import com.central.reward_service.repository.RewardRuleVersionRepository;
 import com.central.reward_service.utils.ServiceUtils;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.openapitools.model.RewardRulePublishRequest;
+import org.openapitools.model.RewardRulePublishResponse;
 import org.openapitools.model.RewardRuleRequest;
 import org.openapitools.model.RewardRuleResponse;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.openapitools.model.RewardRuleSimulationRequest;
+import org.openapitools.model.RewardRuleSimulationResponse;
+import org.openapitools.model.RewardRuleUpdate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,9 +35,16 @@ public class RewardRuleServiceImpl implements RewardRuleService {
 
     private final RewardRuleRepository rewardRuleRepository;
 
+    private final RewardRuleVersionRepository ruleVersionRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final RuleSetSimulator ruleSetSimulator;
+
     @Override
     @Transactional
     public ResponseEntity<List<RewardRuleResponse>> adminRewardRulesBulkPost(List<RewardRuleRequest> rewardRuleRequests) {
+        rewardRuleRequests.forEach(RewardRuleServiceImpl::validateRewardType);
         try {
             List<RewardRule> rules = rewardRuleRequests.stream()
                     .map(ServiceUtils::constructRewardRuleFromRequest)
@@ -36,6 +52,7 @@ public class RewardRuleServiceImpl implements RewardRuleService {
 
             List<RewardRule> savedRules = rewardRuleRepository.saveAll(rules);
             log.info("Bulk created {} reward rules", savedRules.size());
+            eventPublisher.publishEvent(new RewardRulesChangedEvent("bulk create", nextRuleVersion()));
 
             List<RewardRuleResponse> response = savedRules.stream()
                     .map(ServiceUtils::constructRewardRuleResponse)
@@ -70,6 +87,7 @@ public class RewardRuleServiceImpl implements RewardRuleService {
             }
             rewardRuleRepository.deleteById(id);
             log.info("Deleted reward rule with id: {}", id);
+            eventPublisher.publishEvent(new RewardRulesChangedEvent("delete " + id, nextRuleVersion()));
             return ResponseEntity.noContent().build();
         } catch (RewardNotFoundException e) {
             log.warn("Attempted to delete non-existent reward rule with id: {}", id);
@@ -98,12 +116,14 @@ public class RewardRuleServiceImpl implements RewardRuleService {
     @Override
     @Transactional
     public ResponseEntity<RewardRuleResponse> adminRewardRulesIdPut(Long id, RewardRuleRequest rewardRuleRequest) {
+        validateRewardType(rewardRuleRequest);
         try {
             return rewardRuleRepository.findById(id)
                     .map(rule -> {
                         RewardRule updatedRule = ServiceUtils.updateRewardRuleFromRequest(rule, rewardRuleRequest);
                         RewardRule savedRule = rewardRuleRepository.save(updatedRule);
                         log.info("Updated reward rule with id: {}", id);
+                        eventPublisher.publishEvent(new RewardRulesChangedEvent("update " + id, nextRuleVersion()));
                         return ResponseEntity.ok(ServiceUtils.constructRewardRuleResponse(savedRule));
                     })
                     .orElseThrow(() -> new RewardNotFoundException("Reward rule not found with id: " + id));
@@ -119,10 +139,12 @@ public class RewardRuleServiceImpl implements RewardRuleService {
     @Override
     @Transactional
     public ResponseEntity<RewardRuleResponse> adminRewardRulesPost(RewardRuleRequest rewardRuleRequest) {
+        validateRewardType(rewardRuleRequest);
         try {
             RewardRule rule = ServiceUtils.constructRewardRuleFromRequest(rewardRuleRequest);
             RewardRule savedRule = rewardRuleRepository.save(rule);
             log.info("Created new reward rule with id: {}", savedRule.getId());
+            eventPublisher.publishEvent(new RewardRulesChangedEvent("create " + savedRule.getId(), nextRuleVersion()));
             return ResponseEntity
                     .status(HttpStatus.CREATED)
                     .body(ServiceUtils.constructRewardRuleResponse(savedRule));
@@ -144,4 +166,86 @@ public class RewardRuleServiceImpl implements RewardRuleService {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional
+    public ResponseEntity<RewardRulePublishResponse> adminRewardRulesPublishPost(RewardRulePublishRequest publishRequest) {
+        // No catch-all here: any failure must roll the whole batch back
+        List<RewardRuleResponse> created = new ArrayList<>();
+        List<RewardRuleResponse> updated = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+
+        if (publishRequest.getUpdate() != null) {
+            publishRequest.getUpdate().forEach(update -> validateRewardType(update.getRule()));
+        }
+        if (publishRequest.getCreate() != null) {
+            publishRequest.getCreate().forEach(RewardRuleServiceImpl::validateRewardType);
+        }
+
+        if (publishRequest.getUpdate() != null) {
+            for (RewardRuleUpdate update : publishRequest.getUpdate()) {
+                RewardRule rule = rewardRuleRepository.findById(update.getId())
+                        .orElseThrow(() -> new RewardNotFoundException(Constants.REWARD_NOT_FOUND + update.getId()));
+                RewardRule savedRule = rewardRuleRepository.save(
+                        ServiceUtils.updateRewardRuleFromRequest(rule, update.getRule()));
+                updated.add(ServiceUtils.constructRewardRuleResponse(savedRule));
+            }
+        }
+
+        if (publishRequest.getDelete() != null) {
+            for (Long id : publishRequest.getDelete()) {
+                if (!rewardRuleRepository.existsById(id)) {
+                    throw new RewardNotFoundException(Constants.REWARD_NOT_FOUND + id);
+                }
+                rewardRuleRepository.deleteById(id);
+                deleted.add(id);
+            }
+        }
+
+        if (publishRequest.getCreate() != null && !publishRequest.getCreate().isEmpty()) {
+            List<RewardRule> rules = publishRequest.getCreate().stream()
+                    .map(ServiceUtils::constructRewardRuleFromRequest)
+                    .collect(Collectors.toList());
+            rewardRuleRepository.saveAll(rules).stream()
+                    .map(ServiceUtils::constructRewardRuleResponse)
+                    .forEach(created::add);
+        }
+
+        log.info("Published reward rules - created: {}, updated: {}, deleted: {}",
+                created.size(), updated.size(), deleted.size());
+        // One event for the whole batch: the snapshot is rebuilt once, after commit
+        long version = nextRuleVersion();
+        eventPublisher.publishEvent(new RewardRulesChangedEvent("publish", version));
+
+        return ResponseEntity.ok(RewardRulePublishResponse.builder()
+                .version(version)
+                .created(created)
+                .updated(updated)
+                .deleted(deleted)
+                .build());
+    }
+
+    @Override
+    public ResponseEntity<RewardRuleSimulationResponse> adminRewardRulesSimulatePost(RewardRuleSimulationRequest simulationRequest) {
+        // Read-only and CPU-bound: no transaction, the draws run on the CPU executor
+        return ResponseEntity.ok(ruleSetSimulator.simulate(simulationRequest));
+    }
+
+    /**
+     * Every reward a rule grants is published as a reward event, so its type must be one the
+     * event schema knows; anything else would reach consumers mislabelled or not at all.
+     */
+    private static void validateRewardType(RewardRuleRequest request) {
+        if (!RewardEventProducer.isPublishable(request.getRewardType())) {
+            throw new InvalidRewardRuleException(Constants.UNKNOWN_REWARD_TYPE + request.getRewardType());
+        }
+    }
+
+    /**
+     * Bumps the cluster-wide rule version inside the current transaction.
+     * The row lock orders concurrent rule changes across all replicas.
+     */
+    private long nextRuleVersion() {
+        return ruleVersionRepository.incrementVersion(RewardRuleVersion.SINGLETON_ID);
+    }
+}
@@ -0,0 +1,12 @@
+package com.central.reward_service.service;
+
+/**
+ * Published by {@link RewardRuleServiceImpl} whenever reward rules are created, updated or deleted.
+ * {@link RuleSnapshotManager} rebuilds the rule snapshot once the surrounding transaction commits,
+ * and the new version is announced to the other replicas.
+ *
+ * @param reason  short description of the change, used for logging
+ * @param version rule set version written by the change
+ */
+public record RewardRulesChangedEvent(String reason, long version) {
+}
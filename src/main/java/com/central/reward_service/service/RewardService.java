@@ -1,5 +1,10 @@
 package com.central.reward_service.service;
 
+import com.central.reward_service.model.RewardOutcome;
+import com.central.reward_service.model.RewardView;
+import com.central.reward_service.model.TransactionIngestCommand;
+import org.openapitools.model.RewardBatchRequest;
+import org.openapitools.model.RewardBatchResponse;
 import org.openapitools.model.RewardClaimResponse;
 import org.openapitools.model.RewardRequest;
 import org.openapitools.model.RewardResponse;
@@ -14,7 +19,50 @@ import java.util.List;
 public interface RewardService {
 
     ResponseEntity<RewardResponse> getRewardById(Long rewardId);
-    ResponseEntity<List<RewardResponse>> getUserRewards(String userId, Integer page, Integer size);
+
+    /**
+     * The rewards with the given ids, in the order asked for; ids without a reward are left out.
+     */
+    ResponseEntity<List<RewardResponse>> getRewardsByIds(List<Long> rewardIds);
+
+    /**
+     * A user's rewards, newest first. With a {@code cursor} (from the previous response's
+     * {@code X-Next-Cursor} header) the page starts right after it and {@code page} is ignored.
+     * The response carries the next cursor unless this is the last page.
+     *
+     * @throws com.central.reward_service.exception.InvalidCursorException if the cursor is malformed
+     */
+    ResponseEntity<List<RewardResponse>> getUserRewards(String userId, Integer page, Integer size, String cursor);
+
+    /**
+     * Rewards a transaction. A transaction that is already rewarded gets its original reward back.
+     */
     ResponseEntity<RewardResponse> processTransaction(RewardRequest request);
+
+    /**
+     * Rewards one transaction from the event stream; same as {@link #processTransaction} without
+     * the REST request and response models.
+     *
+     * @return the stored reward, or the original one if the transaction was already rewarded
+     * @throws IllegalStateException if the transaction cannot be rewarded
+     */
+    RewardView ingestTransaction(TransactionIngestCommand command);
+
+    /**
+     * Rewards a batch of transactions in one transaction: one duplicate query, one insert.
+     * If storing fails the whole batch rolls back and the capped units it drew are given back.
+     *
+     * @return one outcome per command, in command order
+     */
+    List<RewardOutcome> processTransactionBatch(List<TransactionIngestCommand> commands);
+
+    /**
+     * REST form of {@link #processTransactionBatch(List)}: one result per transaction, in request
+     * order. Duplicates carry the reward their transaction already has. If the batch fails to
+     * store, each transaction is retried in its own transaction and those that still fail are
+     * reported as {@link RewardOutcome.Status#FAILED}, so one bad item does not fail the rest.
+     */
+    ResponseEntity<RewardBatchResponse> processTransactions(RewardBatchRequest request);
+
     ResponseEntity<RewardClaimResponse> claimReward(Long rewardId);
 }
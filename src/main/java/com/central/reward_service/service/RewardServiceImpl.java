@@ -4,29 +4,50 @@ package com.central.reward_service.service;
 import com.central.reward_service.exception.RewardClaimException;
 import com.central.reward_service.exception.RewardNotFoundException;
 import com.central.reward_service.kafka.RewardEventProducer;
+import com.central.reward_service.kafka.RewardOutboxRelay;
+import com.central.reward_service.model.ClaimedReward;
+import com.central.reward_service.model.CompiledRule;
 import com.central.reward_service.model.Reward;
-import com.central.reward_service.model.RewardRule;
+import com.central.reward_service.model.RewardClaimState;
+import com.central.reward_service.model.RewardCursor;
+import com.central.reward_service.model.RewardOutbox;
+import com.central.reward_service.model.RewardOutcome;
 import com.central.reward_service.model.RewardStatus;
+import com.central.reward_service.model.RewardView;
+import com.central.reward_service.model.RuleSnapshot;
+import com.central.reward_service.model.TransactionIngestCommand;
+import com.central.reward_service.repository.RewardOutboxRepository;
 import com.central.reward_service.repository.RewardRepository;
+import com.central.reward_service.repository.RewardRuleRepository;
+import com.central.reward_service.utils.RewardIdGenerator;
 import com.central.reward_service.utils.ServiceUtils;
 import com.central.reward_service.constants.Constants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.openapitools.model.RewardBatchRequest;
+import org.openapitools.model.RewardBatchResponse;
 import org.openapitools.model.RewardRequest;
 import org.openapitools.model.RewardResponse;
 import org.openapitools.model.RewardClaimResponse;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
@@ -38,98 +59,194 @@ public class RewardServiceImpl implements RewardService {
     @Autowired
     private RewardRepository rewardRepository;
 
+    @Autowired
+    private RewardRuleRepository rewardRuleRepository;
+
+    @Autowired
+    private RuleSnapshotManager ruleSnapshotManager;
+
     @Autowired
     private ServiceUtils serviceUtils;
     @Autowired
     private RewardEventProducer rewardEventProducer;
 
+    @Autowired
+    private RewardOutboxRepository rewardOutboxRepository;
 
-    @Override
-    @Transactional
-    public ResponseEntity<RewardResponse>  processTransaction(RewardRequest request) {
-        // 1. Idempotency Check
-        log.info(Constants.LOG_REWARD_PROCESSING_START, request.getTransactionId());
-        if (rewardRepository.existsByTransactionId(request.getTransactionId())) {
-            throw new IllegalStateException(Constants.TRANSACTION_ALREADY_REWARDED);
-        }
+    @Autowired
+    private RewardIdGenerator rewardIdGenerator;
 
-        // 2. Get Rules from Caffeine Cache (Nano-second latency)
-        TreeMap<Double, List<RewardRule>> cachedRules = serviceUtils.getCachedRewardRules();
+    @Autowired
+    private RewardOutboxRelay rewardOutboxRelay;
 
-        // 3. Determine the correct list of rewards for this amount
-        List<RewardRule> applicableRules = determineApplicableRules(cachedRules, request.getTransactionAmount());
+    @Autowired
+    private RewardViewCache rewardViewCache;
 
-        // 4. Run the Weighted Algorithm
-        RewardRule selectedRule = selectWeightedReward(applicableRules);
+    @Autowired
+    private TransactionReplayCache transactionReplayCache;
 
-        // 5. Save & Return
-        // Handle null rewardValue by defaulting to 0.0
-        Double rewardValue = selectedRule.getRewardValue() != null ? selectedRule.getRewardValue() : 0.0;
-        
-        Reward reward = Reward.builder()
-                .userId(request.getUserId())
-                .transactionId(request.getTransactionId())
-                .transactionAmount(request.getTransactionAmount())
-                .rewardType(selectedRule.getRewardType())
-                .rewardDescription(selectedRule.getDescription())
-                .rewardValue(rewardValue)
-                .rewardRule(selectedRule)
-                .redeemCode(String.valueOf(UUID.randomUUID()))
-                .build();
-        rewardRepository.save(reward);
+    @Autowired
+    private TransactionIdFilter transactionIdFilter;
 
-        // 6. Send Reward Event to Kafka
+    @Autowired
+    private RewardLookupCoalescer rewardLookupCoalescer;
 
-        try{
-            rewardEventProducer.sendRewardEvent(reward);
-            log.info(Constants.LOG_REWARD_PROCESSED, request.getTransactionId());
-        }
-        catch (Exception e){
-            log.error("Failed to create transaction: {}", e.getMessage(), e);
-        }
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
-        return ResponseEntity.ok(serviceUtils.constructRewardResponse(reward));
+
+    @Override
+    @Transactional
+    public ResponseEntity<RewardResponse>  processTransaction(RewardRequest request) {
+        RewardView reward = ingestTransaction(new TransactionIngestCommand(
+                request.getTransactionId(), request.getUserId(), request.getTransactionAmount()));
+        // Callers of the API usually look the new reward up next
+        rewardViewCache.put(reward);
+        return ResponseEntity.ok(serviceUtils.constructRewardViewResponse(reward));
     }
 
     @Override
     @Transactional
-    public ResponseEntity<RewardClaimResponse> claimReward(Long rewardId) {
-        // 1. Fetch the reward
-        Reward reward = rewardRepository.findById(rewardId)
-                .orElseThrow(() -> new RewardNotFoundException(Constants.REWARD_NOT_FOUND + rewardId));
+    public RewardView ingestTransaction(TransactionIngestCommand command) {
+        // Repeats of a recent transaction are answered from the replay cache, concurrent ones wait for the first
+        return transactionReplayCache.rewardFor(command.transactionId(),
+                () -> rewardTransaction(command), this::findRewardView);
+    }
 
-        // 2. Check for expiry
-        if (reward.getStatus() == RewardStatus.EXPIRED ||
-                (reward.getExpiresAt() != null &&
-                        reward.getExpiresAt().before(new Timestamp(System.currentTimeMillis())))) {
-            reward.setStatus(RewardStatus.EXPIRED);
-            rewardRepository.save(reward);
-            log.warn(Constants.LOG_REWARD_EXPIRED, rewardId);
-            throw new RewardClaimException(Constants.REWARD_ALREADY_CLAIMED);
+    @Override
+    @Transactional
+    public List<RewardOutcome> processTransactionBatch(List<TransactionIngestCommand> commands) {
+        RewardOutcome[] outcomes = new RewardOutcome[commands.size()];
+
+        // 1. Duplicates inside the batch, then against the DB in a single query
+        Map<String, Integer> firstOccurrence = new HashMap<>();
+        for (int i = 0; i < commands.size(); i++) {
+            String transactionId = commands.get(i).transactionId();
+            if (firstOccurrence.putIfAbsent(transactionId, i) != null) {
+                outcomes[i] = RewardOutcome.duplicate(transactionId);
+            }
         }
+        //    Ids the filter has certainly never seen are new and skip the query
+        Set<String> alreadyRewarded = firstOccurrence.isEmpty()
+                ? Set.of()
+                : transactionIdFilter.findRewarded(firstOccurrence.keySet(), rewardRepository::findExistingTransactionIds);
+
+        // 2. Draw every reward from the same snapshot
+        RuleSnapshot rules = ruleSnapshotManager.current();
+        List<Reward> pending = new ArrayList<>();
+        List<Integer> pendingIndexes = new ArrayList<>();
+        List<Integer> pendingTiers = new ArrayList<>();
+        List<CompiledRule> pendingRules = new ArrayList<>();
+        for (int i = 0; i < commands.size(); i++) {
+            TransactionIngestCommand command = commands.get(i);
+            if (outcomes[i] != null) {
+                continue;
+            }
+            if (alreadyRewarded.contains(command.transactionId())) {
+                outcomes[i] = RewardOutcome.duplicate(command.transactionId());
+                continue;
+            }
+            try {
+                int tier = determineApplicableRules(rules, command.amount());
+                CompiledRule selectedRule = selectWeightedReward(rules, tier);
+                pending.add(buildReward(command, selectedRule));
+                pendingIndexes.add(i);
+                pendingTiers.add(tier);
+                pendingRules.add(selectedRule);
+            } catch (IllegalStateException e) {
+                outcomes[i] = RewardOutcome.rejected(command.transactionId(), e.getMessage());
+            }
+        }
+
+        // 3. One insert for the whole batch; rows that lost a race with another consumer are skipped
+        Map<String, Long> inserted;
+        List<RewardOutbox> events = new ArrayList<>();
+        try {
+            inserted = pending.isEmpty() ? Map.of() : rewardRepository.insertAllIfAbsent(pending);
+            for (int k = 0; k < pending.size(); k++) {
+                Reward reward = pending.get(k);
+                if (inserted.containsKey(reward.getTransactionId())) {
+                    outcomes[pendingIndexes.get(k)] = RewardOutcome.created(reward);
+                    rewardEventProducer.toOutboxEntry(reward).ifPresent(events::add);
+                } else {
+                    outcomes[pendingIndexes.get(k)] = RewardOutcome.duplicate(reward.getTransactionId());
+                }
+            }
 
-        // 3. Verify it's in UNCLAIMED state (not already claimed)
-        if (reward.getStatus() != RewardStatus.UNCLAIMED) {
-            throw new RewardClaimException(Constants.INVALID_REWARD_STATE + reward.getStatus());
+            // 4. Reward events go out through the outbox, committed together with the rewards
+            rewardOutboxRepository.insertAll(events);
+        } catch (RuntimeException e) {
+            // Nothing is stored: every capped unit drawn for the batch goes back
+            for (int k = 0; k < pending.size(); k++) {
+                rules.returnUnit(pendingTiers.get(k), pendingRules.get(k));
+            }
+            throw e;
+        }
+        for (int k = 0; k < pending.size(); k++) {
+            transactionIdFilter.add(pending.get(k).getTransactionId());
+            if (!inserted.containsKey(pending.get(k).getTransactionId())) {
+                rules.returnUnit(pendingTiers.get(k), pendingRules.get(k));
+            }
         }
+        if (!events.isEmpty()) {
+            rewardOutboxRelay.relayAfterCommit();
+        }
+
+        log.info("Processed reward batch of {} transactions - created: {}", commands.size(), inserted.size());
+        return Arrays.asList(outcomes);
+    }
 
-        // 4. Generate Redeem Code and Update Status
-        String redeemCode = reward.getRedeemCode();
-        if (redeemCode == null || redeemCode.isEmpty()) {
-            redeemCode = String.valueOf(UUID.randomUUID());
-            reward.setRedeemCode(redeemCode);
+    @Override
+    public ResponseEntity<RewardBatchResponse> processTransactions(RewardBatchRequest request) {
+        List<TransactionIngestCommand> commands = request.getTransactions().stream()
+                .map(item -> new TransactionIngestCommand(item.getTransactionId(), item.getUserId(),
+                        item.getTransactionAmount()))
+                .toList();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<RewardOutcome> outcomes;
+        try {
+            outcomes = transaction.execute(status -> processTransactionBatch(commands));
+        } catch (RuntimeException e) {
+            // The batch rolled back as a whole: store what can be stored, one transaction per item
+            log.warn("Reward batch of {} transactions failed ({}), retrying one by one", commands.size(), e.getMessage());
+            outcomes = commands.stream()
+                    .map(command -> processAlone(transaction, command))
+                    .toList();
         }
 
-        reward.setStatus(RewardStatus.CLAIMED);
-        reward.setClaimedAt(new Timestamp(System.currentTimeMillis()));
-        rewardRepository.save(reward);
+        // Duplicates get the reward their transaction already has, all read in one query
+        Set<String> duplicates = outcomes.stream()
+                .filter(outcome -> outcome.status() == RewardOutcome.Status.DUPLICATE)
+                .map(RewardOutcome::transactionId)
+                .collect(Collectors.toSet());
+        Map<String, RewardView> originals = duplicates.isEmpty()
+                ? Map.of()
+                : rewardRepository.findViewsByTransactionIdIn(duplicates).stream()
+                        .collect(Collectors.toMap(RewardView::transactionId, view -> view));
+
+        return ResponseEntity.ok(RewardBatchResponse.builder()
+                .results(outcomes.stream()
+                        .map(outcome -> serviceUtils.constructRewardBatchResult(
+                                outcome, originals.get(outcome.transactionId())))
+                        .collect(Collectors.toList()))
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public ResponseEntity<RewardClaimResponse> claimReward(Long rewardId) {
+        // 1. Check state and claim in one conditional update, so concurrent claims cannot both win
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        ClaimedReward claimed = rewardRepository.claimIfUnclaimed(rewardId, String.valueOf(UUID.randomUUID()), now)
+                .orElseThrow(() -> claimRejection(rewardId, now));
+        rewardViewCache.updateStatus(rewardId, RewardStatus.CLAIMED);
         log.info(Constants.LOG_REWARD_CLAIMED, rewardId);
 
-        // 5. Create and return the response
+        // 2. Create and return the response
         RewardClaimResponse response = RewardClaimResponse.builder()
                 .rewardStatus(RewardClaimResponse.RewardStatusEnum.CLAIMED)
-                .expiresAt(reward.getExpiresAt().toInstant().atOffset(java.time.ZoneOffset.UTC))
-                .redeemCode(redeemCode)
+                .expiresAt(claimed.expiresAt().toInstant().atOffset(java.time.ZoneOffset.UTC))
+                .redeemCode(claimed.redeemCode())
                 .build();
 
         return ResponseEntity.ok(response);
@@ -138,77 +255,170 @@ public class RewardServiceImpl implements RewardService {
 
 //    ## Reward Retrieval Methods
 
+    // Reads select RewardView projections in read-only transactions: no entities to hydrate or flush.
+    // Lookups by id go through the view cache; its misses are coalesced into IN queries.
+
     @Override
-    @Cacheable(value = "user_rewards", key = "#rewardId")
     public ResponseEntity<RewardResponse>  getRewardById(Long rewardId) {
-        Reward reward = rewardRepository.findById(rewardId)
-                .orElseThrow(() -> new RewardNotFoundException(Constants.REWARD_NOT_FOUND + rewardId));
-        return ResponseEntity.ok(serviceUtils.constructRewardResponse(reward));
+        return ResponseEntity.ok(serviceUtils.constructRewardViewResponse(findRewardView(rewardId)));
+    }
+
+    @Override
+    public ResponseEntity<List<RewardResponse>> getRewardsByIds(List<Long> rewardIds) {
+        // All misses are queued before waiting on any, so they share as few queries as possible
+        List<CompletableFuture<RewardView>> rewards = rewardIds.stream()
+                .distinct()
+                .map(rewardId -> rewardViewCache.get(rewardId, rewardLookupCoalescer::load))
+                .toList();
+        return ResponseEntity.ok(rewards.stream()
+                .map(RewardServiceImpl::await)
+                .filter(Objects::nonNull)
+                .map(reward -> serviceUtils.constructRewardViewResponse(reward))
+                .collect(Collectors.toList()));
     }
 
     @Override
-    public ResponseEntity<List<RewardResponse>> getUserRewards(String userId, Integer page, Integer size) {
-        Page<Reward> rewardPage = rewardRepository.findByUserIdOrderByCreatedAtDesc(
-                userId, PageRequest.of(page, size));
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<RewardResponse>> getUserRewards(String userId, Integer page, Integer size, String cursor) {
+        Slice<RewardView> rewardSlice;
+        if (cursor != null && !cursor.isBlank()) {
+            RewardCursor after = RewardCursor.decode(cursor);
+            rewardSlice = rewardRepository.findViewsByUserIdBefore(
+                    userId, after.createdAt(), after.rewardId(), PageRequest.ofSize(size));
+        } else {
+            rewardSlice = rewardRepository.findViewsByUserId(userId, PageRequest.of(page, size));
+        }
 
-        return ResponseEntity.ok(rewardPage.getContent().stream()
-                .map(reward -> serviceUtils.constructRewardResponse(reward))
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (rewardSlice.hasNext()) {
+            response.header(Constants.NEXT_CURSOR_HEADER, RewardCursor.of(rewardSlice.getContent().getLast()).encode());
+        }
+        return response.body(rewardSlice.getContent().stream()
+                .map(reward -> serviceUtils.constructRewardViewResponse(reward))
                 .collect(Collectors.toList()));
     }
 
 
 //    ## Private Helper Methods
 
-    private List<RewardRule> determineApplicableRules(TreeMap<Double, List<RewardRule>> rules, Double amount) {
-        log.info(Constants.LOG_TRANSACTION_PROCESSING, amount);
+    private RewardView rewardTransaction(TransactionIngestCommand command) {
+        log.debug(Constants.LOG_REWARD_PROCESSING_START, command.transactionId());
 
-        // Efficiently find the tier: floorEntry finds the closest key <= amount
-        Map.Entry<Double, List<RewardRule>> entry = rules.floorEntry(amount);
+        // 1. Get the compiled rule snapshot (single volatile read, no cache lookup)
+        RuleSnapshot rules = ruleSnapshotManager.current();
 
-        if (entry == null || entry.getValue().isEmpty()) {
-            // No tier found, or the lowest tier is empty: throw config error
-            throw new IllegalStateException(Constants.NO_REWARD_TIER);
+        // 2. Determine the correct tier of rewards for this amount
+        int tier = determineApplicableRules(rules, command.amount());
+
+        // 3. Run the Weighted Algorithm
+        CompiledRule selectedRule = selectWeightedReward(rules, tier);
+
+        // 4. Idempotent insert: the duplicate check and the insert are one statement
+        Reward reward = buildReward(command, selectedRule);
+        boolean inserted = rewardRepository.insertIfAbsent(reward).isPresent();
+        transactionIdFilter.add(command.transactionId());
+        if (!inserted) {
+            // Already rewarded: the capped unit drawn for this duplicate goes back, the original reward is returned
+            rules.returnUnit(tier, selectedRule);
+            log.info(Constants.LOG_TRANSACTION_REPLAYED, command.transactionId());
+            return rewardRepository.findViewByTransactionId(command.transactionId())
+                    .orElseThrow(() -> new IllegalStateException(Constants.TRANSACTION_ALREADY_REWARDED));
         }
-        return entry.getValue();
+
+        // 5. Queue the reward event in the same transaction; RewardOutboxRelay publishes it after commit
+        rewardEventProducer.toOutboxEntry(reward).ifPresent(event -> {
+            rewardOutboxRepository.insertAll(List.of(event));
+            rewardOutboxRelay.relayAfterCommit();
+        });
+        log.info(Constants.LOG_REWARD_PROCESSED, command.transactionId());
+
+        return RewardView.of(reward);
     }
 
-    private RewardRule selectWeightedReward(List<RewardRule> options) {
-        if (options == null || options.isEmpty()) {
-            throw new IllegalStateException(Constants.NO_REWARDS_CONFIGURED);
+    private RewardOutcome processAlone(TransactionTemplate transaction, TransactionIngestCommand command) {
+        try {
+            return transaction.execute(status -> processTransactionBatch(List.of(command))).getFirst();
+        } catch (RuntimeException e) {
+            log.error("Failed to reward transaction {}: {}", command.transactionId(), e.getMessage());
+            return RewardOutcome.failed(command.transactionId(), Constants.TRANSACTION_NOT_STORED);
+        }
+    }
+
+    private RewardView findRewardView(Long rewardId) {
+        RewardView reward = await(rewardViewCache.get(rewardId, rewardLookupCoalescer::load));
+        if (reward == null) {
+            throw new RewardNotFoundException(Constants.REWARD_NOT_FOUND + rewardId);
         }
+        return reward;
+    }
 
-        // If there's only one option, return it immediately
-        if (options.size() == 1) {
-            return options.get(0);
+    private static RewardView await(CompletableFuture<RewardView> reward) {
+        try {
+            return reward.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
+    }
+
+    // The claim matched no row: one read tells a missing reward from an expired or already claimed one.
+    // Expiry is judged against the claim's own clock, the sweeper may not have marked the row yet.
+    private RuntimeException claimRejection(Long rewardId, Timestamp now) {
+        RewardClaimState state = rewardRepository.findClaimStateById(rewardId)
+                .orElseThrow(() -> new RewardNotFoundException(Constants.REWARD_NOT_FOUND + rewardId));
+        if (state.isExpiredAt(now)) {
+            log.warn(Constants.LOG_REWARD_EXPIRED, rewardId);
+            return new RewardClaimException(Constants.REWARD_ALREADY_CLAIMED);
+        }
+        return new RewardClaimException(Constants.INVALID_REWARD_STATE + state.status());
+    }
+
+    private Reward buildReward(TransactionIngestCommand command, CompiledRule selectedRule) {
+        // Handle null rewardValue by defaulting to 0.0
+        Double rewardValue = selectedRule.rewardValue() != null ? selectedRule.rewardValue() : 0.0;
+
+        return Reward.builder()
+                .rewardId(rewardIdGenerator.nextId())
+                .userId(command.userId())
+                .transactionId(command.transactionId())
+                .transactionAmount(command.amount())
+                .rewardType(selectedRule.rewardType())
+                .rewardDescription(selectedRule.description())
+                .rewardValue(rewardValue)
+                .rewardRule(rewardRuleRepository.getReferenceById(selectedRule.id()))
+                .redeemCode(String.valueOf(UUID.randomUUID()))
+                .build();
+    }
 
-        ThreadLocalRandom random = ThreadLocalRandom.current();
+    private int determineApplicableRules(RuleSnapshot rules, double amount) {
+        log.debug(Constants.LOG_TRANSACTION_PROCESSING, amount);
 
-        // Calculate total weight
-        int totalWeight = options.stream()
-                .mapToInt(RewardRule::getWeight)
-                .sum();
+        // Binary search over the primitive tier boundaries: closest boundary <= amount
+        int tier = rules.tierIndexFor(amount);
 
-        if (totalWeight <= 0) {
-            // If all weights are zero, treat them as equal probability
-            return options.get(random.nextInt(options.size()));
+        if (tier == RuleSnapshot.NO_TIER) {
+            // No tier found: throw config error
+            throw new IllegalStateException(Constants.NO_REWARD_TIER);
         }
+        return tier;
+    }
 
-        // Generate a random value in the range [0, totalWeight)
-        int randomValue = random.nextInt(totalWeight);
-        int currentSum = 0;
-
-        // Select a reward based on weights
-        for (RewardRule rule : options) {
-            currentSum += rule.getWeight();
-            if (randomValue < currentSum) {
-                log.debug("Selected reward: {} with weight {}", rule.getDescription(), rule.getWeight());
-                return rule;
-            }
+    private CompiledRule selectWeightedReward(RuleSnapshot rules, int tier) {
+        if (rules.tierSize(tier) == 0) {
+            throw new IllegalStateException(Constants.NO_REWARDS_CONFIGURED);
         }
 
-        // This should theoretically never be reached if the weights are positive
-        return options.get(random.nextInt(options.size()));
+        // Alias table was precompiled with the snapshot: O(1), no allocation.
+        // Single option and all-zero weights are handled by the table itself.
+        // Capped rules that are out of units for today are redrawn.
+        CompiledRule rule = rules.select(tier, ThreadLocalRandom.current());
+        if (rule == null) {
+            throw new IllegalStateException(Constants.REWARD_TIER_EXHAUSTED);
+        }
+        log.debug("Selected reward: {} with weight {}", rule.description(), rule.weight());
+        return rule;
     }
 
 }
\ No newline at end of file
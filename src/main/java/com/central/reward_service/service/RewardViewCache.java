@@ -0,0 +1,114 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.model.RewardStatus;
+import com.central.reward_service.model.RewardView;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Reward lookups by id, kept as {@link RewardView} records rather than whole responses.
+ *
+ * The cache is bounded by the estimated heap size of its entries
+ * ({@code app.reward.cache.max-bytes}) and written through: new rewards are put, claims and
+ * expiries replace the cached status. Writes made inside a transaction reach the cache only
+ * after it commits, so a rolled back claim never shows up as CLAIMED. Hit and miss counts are
+ * published as {@code cache.gets{cache="reward_views"}}.
+ */
+@Component
+public class RewardViewCache {
+
+    static final String CACHE_NAME = "reward_views";
+
+    // Object header plus reference and primitive fields of the record, the key and the map node
+    private static final int ENTRY_OVERHEAD_BYTES = 120;
+
+    // Header, fields and backing array header of a String; contents are one byte per Latin-1 char
+    private static final int STRING_OVERHEAD_BYTES = 40;
+
+    // Boxed Double and Timestamp referenced by the record
+    private static final int BOXED_FIELDS_BYTES = 16 + 32;
+
+    private final AsyncCache<Long, RewardView> cache;
+
+    public RewardViewCache(MeterRegistry meterRegistry,
+                           @Value("${app.reward.cache.max-bytes:16777216}") long maxBytes,
+                           @Value("${app.reward.cache.expire-after-write-ms:3600000}") long expireAfterWriteMs) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher(RewardViewCache::weigh)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Cached view of a reward, loading it on a miss. Concurrent misses for the same id share one
+     * load, and a status change arriving meanwhile is applied once the load completes instead of
+     * being lost.
+     *
+     * @param loader completes with the reward, or with {@code null} if there is none (nothing is
+     *               cached then)
+     */
+    public CompletableFuture<RewardView> get(Long rewardId, Function<Long, CompletableFuture<RewardView>> loader) {
+        return cache.get(rewardId, (id, executor) -> loader.apply(id));
+    }
+
+    /**
+     * Caches a reward created (or replayed) by the current transaction. A cached entry is kept,
+     * since it may already carry a later status.
+     */
+    public void put(RewardView reward) {
+        afterCommit(() -> cache.asMap().putIfAbsent(reward.rewardId(), CompletableFuture.completedFuture(reward)));
+    }
+
+    /**
+     * Sets the status of cached rewards; rewards not in the cache are left to the next load.
+     */
+    public void updateStatus(Collection<Long> rewardIds, RewardStatus status) {
+        afterCommit(() -> rewardIds.forEach(rewardId ->
+                cache.asMap().computeIfPresent(rewardId, (id, reward) ->
+                        reward.thenApply(loaded -> loaded != null ? loaded.withStatus(status) : null))));
+    }
+
+    public void updateStatus(Long rewardId, RewardStatus status) {
+        updateStatus(List.of(rewardId), status);
+    }
+
+    static int weigh(Long rewardId, RewardView reward) {
+        return ENTRY_OVERHEAD_BYTES + BOXED_FIELDS_BYTES
+                + stringBytes(reward.userId())
+                + stringBytes(reward.transactionId())
+                + stringBytes(reward.rewardType())
+                + stringBytes(reward.rewardDescription());
+    }
+
+    private static int stringBytes(String value) {
+        return value == null ? 0 : STRING_OVERHEAD_BYTES + value.length();
+    }
+
+    private static void afterCommit(Runnable write) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                write.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,255 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.exception.InvalidSimulationException;
+import com.central.reward_service.model.CompiledRule;
+import com.central.reward_service.model.RuleSnapshot;
+import com.central.reward_service.utils.AliasSampler;
+import com.central.reward_service.utils.ServiceUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.openapitools.model.AmountBucket;
+import org.openapitools.model.RewardRuleRequest;
+import org.openapitools.model.RewardRuleSimulationRequest;
+import org.openapitools.model.RewardRuleSimulationResponse;
+import org.openapitools.model.RewardTypeOutcome;
+import org.openapitools.model.TailPayout;
+import org.openapitools.model.TierOutcome;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Monte Carlo simulation of a candidate rule set, used before publishing new weights.
+ *
+ * The candidate rules are compiled into a {@link RuleSnapshot} and drawn with
+ * {@link RuleSnapshot#tierIndexFor(double)} and {@link RuleSnapshot#select}, exactly like
+ * {@link RewardServiceImpl} does. Draws are split into fixed-size chunks that run on the
+ * CPU executor, each with its own {@link SplittableRandom} split off the request seed in
+ * chunk order, so a seed always reproduces the same result whatever the pool size.
+ */
+@Slf4j
+@Service
+public class RuleSetSimulator {
+
+    static final long DEFAULT_DRAWS = 1_000_000L;
+
+    // Draws per task; fixed so the split of the random streams does not depend on the pool size
+    static final int CHUNK_SIZE = 250_000;
+
+    private final Executor cpuExecutor;
+
+    public RuleSetSimulator(@Qualifier("cpuTaskExecutor") Executor cpuExecutor) {
+        this.cpuExecutor = cpuExecutor;
+    }
+
+    public RewardRuleSimulationResponse simulate(RewardRuleSimulationRequest request) {
+        List<CompiledRule> candidates = compileCandidates(request.getRules());
+        if (candidates.isEmpty()) {
+            throw new InvalidSimulationException("Candidate rule set has no active rules");
+        }
+        // Capacities are ignored: compile without inventory counters
+        RuleSnapshot rules = RuleSnapshot.compile(0L, candidates);
+        AmountDistribution amounts = AmountDistribution.of(request.getAmountDistribution());
+
+        long draws = request.getDraws() != null ? request.getDraws() : DEFAULT_DRAWS;
+        long seed = request.getSeed() != null ? request.getSeed() : ThreadLocalRandom.current().nextLong();
+        log.info("Simulating {} draws over {} candidate rules in {} tiers (seed {})",
+                draws, candidates.size(), rules.tierCount(), seed);
+
+        SplittableRandom root = new SplittableRandom(seed);
+        List<CompletableFuture<Tally>> chunks = new ArrayList<>();
+        for (long scheduled = 0; scheduled < draws; scheduled += CHUNK_SIZE) {
+            int chunkDraws = (int) Math.min(CHUNK_SIZE, draws - scheduled);
+            SplittableRandom stream = root.split();
+            chunks.add(CompletableFuture.supplyAsync(
+                    () -> run(rules, amounts, stream, chunkDraws, candidates.size()), cpuExecutor));
+        }
+
+        Tally total = new Tally(candidates.size(), rules.tierCount());
+        for (CompletableFuture<Tally> chunk : chunks) {
+            total.merge(chunk.join());
+        }
+        return toResponse(rules, candidates, total, draws, seed);
+    }
+
+    /**
+     * Inactive rules are dropped; the others get their list index as id so the
+     * draw loop can count them in a flat array.
+     */
+    private static List<CompiledRule> compileCandidates(List<RewardRuleRequest> requests) {
+        List<CompiledRule> candidates = new ArrayList<>();
+        for (RewardRuleRequest request : requests) {
+            if (Boolean.FALSE.equals(request.getActive())) {
+                continue;
+            }
+            candidates.add(ServiceUtils.constructCompiledRule(candidates.size(), request));
+        }
+        return candidates;
+    }
+
+    private static Tally run(RuleSnapshot rules, AmountDistribution amounts, SplittableRandom random,
+                             int draws, int ruleCount) {
+        Tally tally = new Tally(ruleCount, rules.tierCount());
+        for (int i = 0; i < draws; i++) {
+            double amount = amounts.next(random);
+            int tier = rules.tierIndexFor(amount);
+            if (tier == RuleSnapshot.NO_TIER) {
+                tally.unrewarded++;
+                continue;
+            }
+            tally.tierTransactions[tier]++;
+            tally.ruleCounts[(int) rules.select(tier, random).id()]++;
+        }
+        return tally;
+    }
+
+    private static RewardRuleSimulationResponse toResponse(RuleSnapshot rules, List<CompiledRule> candidates,
+                                                           Tally tally, long draws, long seed) {
+        double totalPayout = 0;
+        Map<String, RewardTypeOutcome> byType = new LinkedHashMap<>();
+        for (CompiledRule rule : candidates) {
+            long count = tally.ruleCounts[(int) rule.id()];
+            double payout = count * payoutOf(rule);
+            totalPayout += payout;
+
+            RewardTypeOutcome outcome = byType.computeIfAbsent(String.valueOf(rule.rewardType()),
+                    type -> RewardTypeOutcome.builder().rewardType(type).count(0L).totalPayout(0.0).build());
+            outcome.setCount(outcome.getCount() + count);
+            outcome.setTotalPayout(outcome.getTotalPayout() + payout);
+        }
+        byType.values().forEach(outcome -> outcome.setShare((double) outcome.getCount() / draws));
+
+        List<TierOutcome> tiers = new ArrayList<>();
+        for (int tier = 0; tier < rules.tierCount(); tier++) {
+            double tierPayout = 0;
+            for (int i = 0; i < rules.tierSize(tier); i++) {
+                CompiledRule rule = rules.rule(tier, i);
+                tierPayout += tally.ruleCounts[(int) rule.id()] * payoutOf(rule);
+            }
+            long transactions = tally.tierTransactions[tier];
+            tiers.add(TierOutcome.builder()
+                    .minTransactionAmount(rules.tierBoundary(tier))
+                    .transactions(transactions)
+                    .expectedCost(transactions > 0 ? tierPayout / transactions : 0.0)
+                    .build());
+        }
+
+        return RewardRuleSimulationResponse.builder()
+                .draws(draws)
+                .seed(seed)
+                .expectedCostPerTransaction(totalPayout / draws)
+                .unrewardedShare((double) tally.unrewarded / draws)
+                .rewardTypes(new ArrayList<>(byType.values()))
+                .tiers(tiers)
+                .tailPayout(tailPayout(candidates, tally, draws))
+                .build();
+    }
+
+    /**
+     * Payouts only take the values of the candidate rules (plus 0 for unrewarded transactions),
+     * so the percentiles are read off the exact counts instead of a sample.
+     */
+    private static TailPayout tailPayout(List<CompiledRule> candidates, Tally tally, long draws) {
+        int n = candidates.size();
+        double[] values = new double[n + 1];
+        long[] counts = new long[n + 1];
+        Integer[] order = new Integer[n + 1];
+        for (int i = 0; i < n; i++) {
+            values[i] = payoutOf(candidates.get(i));
+            counts[i] = tally.ruleCounts[i];
+            order[i] = i;
+        }
+        values[n] = 0.0;
+        counts[n] = tally.unrewarded;
+        order[n] = n;
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        return TailPayout.builder()
+                .p99(percentile(values, counts, order, draws, 0.99))
+                .p999(percentile(values, counts, order, draws, 0.999))
+                .max(percentile(values, counts, order, draws, 1.0))
+                .build();
+    }
+
+    private static double percentile(double[] values, long[] counts, Integer[] order, long draws, double quantile) {
+        long rank = (long) Math.ceil(quantile * draws);
+        long seen = 0;
+        double value = 0.0;
+        for (int index : order) {
+            if (counts[index] == 0) {
+                continue;
+            }
+            seen += counts[index];
+            value = values[index];
+            if (seen >= rank) {
+                break;
+            }
+        }
+        return value;
+    }
+
+    // Same default as RewardServiceImpl when a rule has no value
+    private static double payoutOf(CompiledRule rule) {
+        return rule.rewardValue() != null ? rule.rewardValue() : 0.0;
+    }
+
+    /**
+     * Transaction amounts: a bucket is picked by weight, then an amount uniformly inside it.
+     */
+    private record AmountDistribution(double[] min, double[] span, AliasSampler buckets) {
+
+        static AmountDistribution of(List<AmountBucket> buckets) {
+            double[] min = new double[buckets.size()];
+            double[] span = new double[buckets.size()];
+            int[] weights = new int[buckets.size()];
+            for (int i = 0; i < buckets.size(); i++) {
+                AmountBucket bucket = buckets.get(i);
+                if (bucket.getMaxAmount() < bucket.getMinAmount()) {
+                    throw new InvalidSimulationException("Amount bucket maxAmount must not be below minAmount");
+                }
+                min[i] = bucket.getMinAmount();
+                span[i] = bucket.getMaxAmount() - bucket.getMinAmount();
+                weights[i] = bucket.getWeight();
+            }
+            return new AmountDistribution(min, span, AliasSampler.of(weights));
+        }
+
+        double next(SplittableRandom random) {
+            int bucket = buckets.next(random);
+            return min[bucket] + random.nextDouble() * span[bucket];
+        }
+    }
+
+    /**
+     * Counts of one chunk of draws; chunks are summed once they are all done.
+     */
+    private static final class Tally {
+
+        private final long[] ruleCounts;
+        private final long[] tierTransactions;
+        private long unrewarded;
+
+        Tally(int ruleCount, int tierCount) {
+            this.ruleCounts = new long[ruleCount];
+            this.tierTransactions = new long[tierCount];
+        }
+
+        void merge(Tally other) {
+            for (int i = 0; i < ruleCounts.length; i++) {
+                ruleCounts[i] += other.ruleCounts[i];
+            }
+            for (int i = 0; i < tierTransactions.length; i++) {
+                tierTransactions[i] += other.tierTransactions[i];
+            }
+            unrewarded += other.unrewarded;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.model.CompiledRule;
+import com.central.reward_service.model.RuleSnapshot;
+import com.central.reward_service.repository.RewardRuleRepository;
+import com.central.reward_service.repository.RewardRuleVersionRepository;
+import com.central.reward_service.utils.ServiceUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Owns the current {@link RuleSnapshot}.
+ * The hot path reads it through a single volatile reference - no cache lookup, no locking.
+ * Rebuilding loads the active rules from the DB, compiles them and swaps the reference.
+ *
+ * Rule changes trigger a rebuild on the IO executor after their transaction commits,
+ * so no request ever pays for the reload. Requests already holding the old snapshot
+ * finish with it; the next read sees the new one.
+ *
+ * Snapshot versions come from the reward_rule_version table, so replicas can compare
+ * them with the versions announced on the rule version topic.
+ */
+@Slf4j
+@Service
+public class RuleSnapshotManager {
+
+    private final RewardRuleRepository ruleRepository;
+
+    private final RewardRuleVersionRepository ruleVersionRepository;
+
+    private final RewardInventoryService rewardInventoryService;
+
+    private final Executor rebuildExecutor;
+
+    // Set while a rebuild is queued but has not started reading the DB yet
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    private volatile RuleSnapshot snapshot;
+
+    public RuleSnapshotManager(RewardRuleRepository ruleRepository,
+                               RewardRuleVersionRepository ruleVersionRepository,
+                               RewardInventoryService rewardInventoryService,
+                               @Qualifier("ioTaskExecutor") Executor rebuildExecutor) {
+        this.ruleRepository = ruleRepository;
+        this.ruleVersionRepository = ruleVersionRepository;
+        this.rewardInventoryService = rewardInventoryService;
+        this.rebuildExecutor = rebuildExecutor;
+    }
+
+    /**
+     * Loads the first snapshot once the application (and RewardRuleDataLoader) has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    /**
+     * Schedules a rebuild once the transaction that changed the rules has committed.
+     * Runs immediately if the change was made outside a transaction.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRewardRulesChanged(RewardRulesChangedEvent event) {
+        log.debug("Reward rules changed ({}), scheduling snapshot rebuild", event.reason());
+        refreshAsync();
+    }
+
+    /**
+     * Called when another replica announces a rule version. Rebuilds only if this node is behind.
+     */
+    public void onRemoteVersion(long version) {
+        long localVersion = current().getVersion();
+        if (version > localVersion) {
+            log.info("Rule version {} announced, local snapshot is v{} - rebuilding", version, localVersion);
+            refreshAsync();
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot in the background. Changes that arrive while a rebuild is
+     * still queued are folded into it, since it has not read the DB yet.
+     */
+    public void refreshAsync() {
+        if (!rebuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        rebuildExecutor.execute(() -> {
+            rebuildPending.set(false);
+            try {
+                refresh();
+            } catch (Exception e) {
+                log.error("Failed to rebuild reward rule snapshot, keeping v{}: {}",
+                        snapshot != null ? snapshot.getVersion() : 0, e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * @return the snapshot currently in use; built on first access if startup has not done it yet
+     */
+    public RuleSnapshot current() {
+        RuleSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = refresh();
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Rebuilds the snapshot from the active rules in the DB and publishes it.
+     *
+     * @return the newly published snapshot
+     */
+    public synchronized RuleSnapshot refresh() {
+        log.info("Building reward rule snapshot from database...");
+
+        // Read the version first: if a change commits in between, the snapshot is labelled
+        // older than its content and the change's own announcement triggers another rebuild
+        long version = ruleVersionRepository.currentVersion();
+        List<CompiledRule> rules = ruleRepository.findByActiveTrue().stream()
+                .map(ServiceUtils::constructCompiledRule)
+                .toList();
+
+        // Capped rules keep their inventory counter (and leased units) across rebuilds
+        RuleSnapshot rebuilt = RuleSnapshot.compile(version, rules, rewardInventoryService::counterFor);
+        snapshot = rebuilt;
+        rewardInventoryService.retainOnly(rules.stream().map(CompiledRule::id).toList());
+
+        log.info("Published reward rule snapshot v{} with {} tiers", rebuilt.getVersion(), rebuilt.tierCount());
+        return rebuilt;
+    }
+}
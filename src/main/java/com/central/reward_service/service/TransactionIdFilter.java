@@ -0,0 +1,149 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.repository.RewardRepository;
+import com.central.reward_service.utils.ScalableBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * In-memory record of the transaction ids that have a reward, used to skip the duplicate query
+ * for ids that are certainly new.
+ *
+ * A {@link ScalableBloomFilter} is seeded at startup by streaming {@code transaction_id} from the
+ * rewards table on the IO executor, and every reward this replica stores is added to it. Until
+ * seeding has finished every id counts as possibly rewarded. Rewards stored by other replicas are
+ * not in the filter, which is safe: the insert skips them on the unique constraint anyway.
+ */
+@Slf4j
+@Component
+public class TransactionIdFilter {
+
+    private final RewardRepository rewardRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Executor seedExecutor;
+
+    private final ScalableBloomFilter filter;
+
+    private volatile boolean seeded;
+
+    private final Counter definiteMisses;
+
+    private final Counter possibleHits;
+
+    private final Counter falsePositives;
+
+    private final Timer rebuild;
+
+    public TransactionIdFilter(RewardRepository rewardRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Qualifier("ioTaskExecutor") Executor seedExecutor,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.reward.transaction-filter.initial-capacity:1000000}") long initialCapacity,
+                               @Value("${app.reward.transaction-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.rewardRepository = rewardRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.seedExecutor = seedExecutor;
+        this.filter = new ScalableBloomFilter(initialCapacity, falsePositiveRate);
+
+        this.definiteMisses = checks(meterRegistry, "definite_miss");
+        this.possibleHits = checks(meterRegistry, "possible_hit");
+        this.falsePositives = checks(meterRegistry, "false_positive");
+        this.rebuild = Timer.builder("reward.transaction.filter.rebuild")
+                .description("Time to seed the transaction id filter from the rewards table")
+                .register(meterRegistry);
+        Gauge.builder("reward.transaction.filter.false_positive.expected", filter,
+                        ScalableBloomFilter::expectedFalsePositiveRate)
+                .description("False-positive rate estimated from the bits set in the filter")
+                .register(meterRegistry);
+        Gauge.builder("reward.transaction.filter.memory", filter, f -> f.bitSize() / 8.0)
+                .description("Size of the filter's bit arrays")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("reward.transaction.filter.entries", filter, ScalableBloomFilter::approximateElementCount)
+                .description("Transaction ids added to the filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Seeds the filter in the background once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        seedExecutor.execute(this::seed);
+    }
+
+    void seed() {
+        long start = System.nanoTime();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> rewardRepository.forEachTransactionId(filter::put));
+            seeded = true;
+            long elapsedNanos = System.nanoTime() - start;
+            rebuild.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            log.info("Seeded transaction id filter with {} ids in {} ms",
+                    filter.approximateElementCount(), elapsedNanos / 1_000_000);
+        } catch (Exception e) {
+            log.error("Failed to seed transaction id filter, every id goes to the DB: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Records a transaction that now has a reward.
+     */
+    public void add(String transactionId) {
+        filter.put(transactionId);
+    }
+
+    /**
+     * Which of the given transactions are already rewarded. Only the ids the filter might
+     * contain are passed to {@code lookup}; if there are none, it is not called at all.
+     */
+    public Set<String> findRewarded(Collection<String> transactionIds,
+                                    Function<Collection<String>, Set<String>> lookup) {
+        boolean complete = seeded;
+        List<String> possible = new ArrayList<>();
+        for (String transactionId : transactionIds) {
+            if (!complete || filter.mightContain(transactionId)) {
+                possible.add(transactionId);
+            }
+        }
+        definiteMisses.increment(transactionIds.size() - possible.size());
+        if (possible.isEmpty()) {
+            return Set.of();
+        }
+
+        possibleHits.increment(possible.size());
+        Set<String> rewarded = lookup.apply(possible);
+        if (complete) {
+            falsePositives.increment(possible.size() - rewarded.size());
+        }
+        return rewarded;
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("reward.transaction.filter.checks")
+                .description("Transaction ids checked against the filter, by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
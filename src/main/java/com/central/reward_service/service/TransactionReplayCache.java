@@ -0,0 +1,143 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.exception.TransactionInProgressException;
+import com.central.reward_service.model.RewardView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Remembers which reward each recently seen transaction got, so a redelivered event or a retried
+ * request is answered with the original reward instead of running the rule draw and the insert
+ * again. The unique index on {@code transaction_id} stays the source of truth; this only keeps
+ * repeats away from it.
+ *
+ * Holds at most {@code app.reward.replay.max-entries} transaction ids. Concurrent calls for the
+ * same transaction are collapsed: one caller ingests it, the others wait for its transaction to
+ * commit and then read the reward it stored. If that caller fails or rolls back, the next waiter
+ * ingests the transaction itself. Waiters give up after {@code app.reward.replay.await-timeout-ms}
+ * with a {@link TransactionInProgressException}, which consumers retry.
+ */
+@Component
+public class TransactionReplayCache {
+
+    static final String CACHE_NAME = "transaction_rewards";
+
+    private final Cache<String, Long> rewardIds;
+
+    // Transactions being ingested right now; completed with the reward id, or null if that failed
+    private final Map<String, CompletableFuture<Long>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter collapsed;
+
+    private final long awaitTimeoutMs;
+
+    public TransactionReplayCache(MeterRegistry meterRegistry,
+                                  @Value("${app.reward.replay.max-entries:100000}") long maxEntries,
+                                  @Value("${app.reward.replay.await-timeout-ms:5000}") long awaitTimeoutMs) {
+        this.rewardIds = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, rewardIds, CACHE_NAME);
+        this.collapsed = Counter.builder("reward.replay.collapsed")
+                .description("Calls that waited for a concurrent call ingesting the same transaction")
+                .register(meterRegistry);
+        this.awaitTimeoutMs = awaitTimeoutMs;
+    }
+
+    /**
+     * The reward of a transaction: ingested by {@code ingest} the first time, afterwards (and for
+     * callers racing with the first one) read back with {@code replay}.
+     *
+     * @param ingest stores the reward, or returns the one already stored for the transaction
+     * @param replay reads a stored reward by id
+     */
+    public RewardView rewardFor(String transactionId, Supplier<RewardView> ingest, Function<Long, RewardView> replay) {
+        while (true) {
+            Long known = rewardIds.getIfPresent(transactionId);
+            if (known != null) {
+                return replay.apply(known);
+            }
+
+            CompletableFuture<Long> mine = new CompletableFuture<>();
+            CompletableFuture<Long> running = inFlight.putIfAbsent(transactionId, mine);
+            if (running == null) {
+                return ingest(transactionId, mine, ingest);
+            }
+
+            collapsed.increment();
+            Long rewardId = await(transactionId, running);
+            if (rewardId != null) {
+                return replay.apply(rewardId);
+            }
+            // The first caller failed: try again, possibly as the one ingesting
+        }
+    }
+
+    private RewardView ingest(String transactionId, CompletableFuture<Long> mine, Supplier<RewardView> ingest) {
+        RewardView reward;
+        try {
+            reward = ingest.get();
+        } catch (RuntimeException e) {
+            release(transactionId, mine, null);
+            throw e;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(transactionId, mine, reward.rewardId());
+            return reward;
+        }
+        // Waiters must not look the reward up before it is committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(transactionId, mine, status == STATUS_COMMITTED ? reward.rewardId() : null);
+            }
+        });
+        return reward;
+    }
+
+    private void release(String transactionId, CompletableFuture<Long> mine, Long rewardId) {
+        if (rewardId != null) {
+            rewardIds.put(transactionId, rewardId);
+        }
+        inFlight.remove(transactionId, mine);
+        mine.complete(rewardId);
+    }
+
+    /**
+     * Not an {@link IllegalStateException}: callers treat those as a final rejection and would
+     * drop the transaction, while this one only has to be tried again.
+     */
+    private Long await(String transactionId, CompletableFuture<Long> running) {
+        try {
+            return running.get(awaitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionInProgressException(
+                    "Interrupted while waiting for a concurrent ingest of transaction " + transactionId);
+        } catch (TimeoutException e) {
+            throw new TransactionInProgressException("Transaction " + transactionId
+                    + " is still being ingested by another call after " + awaitTimeoutMs + " ms");
+        } catch (ExecutionException e) {
+            // Never completed exceptionally
+            return null;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.central.reward_service.utils;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Vose alias table over a fixed set of integer weights.
+ * The table is built once per tier; every draw afterwards costs two random numbers,
+ * runs in constant time and allocates nothing.
+ *
+ * Negative weights are treated as zero. If the total weight is zero, every option
+ * is equally likely (same behaviour as the old linear scan).
+ */
+public final class AliasSampler {
+
+    private final double[] probability;
+    private final int[] alias;
+
+    private AliasSampler(double[] probability, int[] alias) {
+        this.probability = probability;
+        this.alias = alias;
+    }
+
+    /**
+     * Builds the alias table for the given weights.
+     *
+     * @param weights one weight per option, in option order
+     * @return a sampler returning indexes into {@code weights}
+     */
+    public static AliasSampler of(int[] weights) {
+        if (weights == null || weights.length == 0) {
+            throw new IllegalArgumentException("At least one weight is required");
+        }
+
+        int n = weights.length;
+        double[] probability = new double[n];
+        int[] alias = new int[n];
+
+        long totalWeight = 0;
+        for (int weight : weights) {
+            totalWeight += Math.max(0, weight);
+        }
+
+        if (totalWeight <= 0) {
+            // All weights are zero: every column keeps itself, i.e. uniform selection
+            for (int i = 0; i < n; i++) {
+                probability[i] = 1.0;
+                alias[i] = i;
+            }
+            return new AliasSampler(probability, alias);
+        }
+
+        // Scale so the average column height is exactly 1
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int i = 0; i < n; i++) {
+            scaled[i] = (double) Math.max(0, weights[i]) * n / totalWeight;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        // Pair every short column with a tall one that tops it up to 1
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            probability[less] = scaled[less];
+            alias[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Whatever is left is (up to rounding error) exactly full
+        while (largeCount > 0) {
+            int index = large[--largeCount];
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+        while (smallCount > 0) {
+            int index = small[--smallCount];
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+
+        return new AliasSampler(probability, alias);
+    }
+
+    /**
+     * @return number of options in this table
+     */
+    public int size() {
+        return probability.length;
+    }
+
+    /**
+     * Draws one option index.
+     *
+     * @param random source of randomness (e.g. ThreadLocalRandom or a seeded SplittableRandom)
+     * @return index of the selected option
+     */
+    public int next(RandomGenerator random) {
+        int n = probability.length;
+        if (n == 1) {
+            return 0;
+        }
+        int column = random.nextInt(n);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+}
@@ -0,0 +1,217 @@
+package com.central.reward_service.utils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free, striped counter of locally available units of a capped reward rule.
+ *
+ * Units are leased from the DB in blocks and spread over the stripes; a draw takes one
+ * unit with a single CAS on the caller's stripe, falling back to the other stripes.
+ * When the counter runs low it asks its owner for another block through the
+ * {@code refillRequest} callback. It never talks to the DB itself.
+ *
+ * Units are only valid in the period (UTC day) they were leased for. Every draw checks the
+ * period first, so units left from the previous day are dropped before anything is awarded
+ * against the new day's capacity.
+ */
+public final class InventoryCounter {
+
+    // 16 longs = 128 bytes between stripes, so neighbouring stripes never share a cache line
+    private static final int STRIDE = 16;
+
+    private final long ruleId;
+    private final int mask;
+    private final AtomicLongArray stripes;
+    private final long lowWater;
+    private final Consumer<InventoryCounter> refillRequest;
+    private final LongSupplier currentPeriod;
+
+    private final AtomicBoolean refillPending = new AtomicBoolean();
+
+    // Period of the units held in the stripes
+    private volatile long period;
+
+    private volatile long capacity;
+    private volatile boolean exhausted;
+
+    /**
+     * @param ruleId        rule this counter belongs to
+     * @param capacity      maximum units per period
+     * @param lowWater      ask for a refill once fewer units than this are left locally
+     * @param refillRequest called (at most once until {@link #refillCompleted()}) when units run low
+     */
+    public InventoryCounter(long ruleId, long capacity, long lowWater, Consumer<InventoryCounter> refillRequest) {
+        this(ruleId, capacity, lowWater, refillRequest, () -> 0L);
+    }
+
+    /**
+     * @param currentPeriod the period draws are made in now, e.g. the UTC epoch day; called on every draw
+     */
+    public InventoryCounter(long ruleId, long capacity, long lowWater, Consumer<InventoryCounter> refillRequest,
+                            LongSupplier currentPeriod) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(16, Runtime.getRuntime().availableProcessors())));
+        this.ruleId = ruleId;
+        this.mask = stripeCount - 1;
+        this.stripes = new AtomicLongArray(stripeCount * STRIDE);
+        this.capacity = capacity;
+        this.lowWater = lowWater;
+        this.refillRequest = refillRequest;
+        this.currentPeriod = currentPeriod;
+        this.period = currentPeriod.getAsLong();
+    }
+
+    public long getRuleId() {
+        return ruleId;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(long capacity) {
+        this.capacity = capacity;
+    }
+
+    public long getPeriod() {
+        return period;
+    }
+
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * Takes one unit if any is available locally.
+     *
+     * @return {@code true} if a unit was taken, {@code false} if the rule must be skipped for now
+     */
+    public boolean tryAcquire() {
+        long now = currentPeriod.getAsLong();
+        if (now != period) {
+            rollOver(now);
+        }
+        int start = (int) Thread.currentThread().threadId() & mask;
+        for (int i = 0; i <= mask; i++) {
+            int slot = ((start + i) & mask) * STRIDE;
+            long available;
+            while ((available = stripes.get(slot)) > 0) {
+                if (stripes.compareAndSet(slot, available, available - 1)) {
+                    if (available == 1 && remaining() < lowWater) {
+                        requestRefill();
+                    }
+                    return true;
+                }
+            }
+        }
+        requestRefill();
+        return false;
+    }
+
+    /**
+     * @return units currently available on this node (a racy but never negative sum)
+     */
+    public long remaining() {
+        long total = 0;
+        for (int i = 0; i <= mask; i++) {
+            total += stripes.get(i * STRIDE);
+        }
+        return total;
+    }
+
+    /**
+     * Adds a freshly leased block of the current period.
+     */
+    public void add(long units) {
+        add(units, period);
+    }
+
+    /**
+     * Adds a freshly leased block, spread evenly over the stripes. A block leased for an earlier
+     * period than the counter's arrived too late and is dropped.
+     *
+     * @return {@code false} if the block was dropped
+     */
+    public synchronized boolean add(long units, long leasePeriod) {
+        if (leasePeriod < period) {
+            return false;
+        }
+        rollOver(leasePeriod);
+        addUnits(units);
+        return true;
+    }
+
+    /**
+     * Moves the counter to a later period: the units left belong to the previous period's row and
+     * are dropped, and refills are allowed again. Does nothing if the counter is already there.
+     *
+     * @return number of units dropped
+     */
+    public synchronized long rollOver(long newPeriod) {
+        if (newPeriod <= period) {
+            return 0;
+        }
+        // Drained before the period moves on, so no draw of the new period can take an old unit
+        long dropped = drain();
+        period = newPeriod;
+        exhausted = false;
+        return dropped;
+    }
+
+    private void addUnits(long units) {
+        int stripeCount = mask + 1;
+        long share = units / stripeCount;
+        long rest = units % stripeCount;
+        for (int i = 0; i < stripeCount; i++) {
+            long amount = share + (i < rest ? 1 : 0);
+            if (amount > 0) {
+                stripes.addAndGet(i * STRIDE, amount);
+            }
+        }
+    }
+
+    /**
+     * Removes every local unit.
+     *
+     * @return number of units removed
+     */
+    public long drain() {
+        long drained = 0;
+        for (int i = 0; i <= mask; i++) {
+            drained += stripes.getAndSet(i * STRIDE, 0);
+        }
+        return drained;
+    }
+
+    /**
+     * The DB has no capacity left for this period: stop asking for refills.
+     */
+    public void markExhausted() {
+        exhausted = true;
+    }
+
+    /**
+     * Capacity became available again (new period or raised limit).
+     */
+    public void reopen() {
+        exhausted = false;
+    }
+
+    /**
+     * Must be called by the owner once a requested refill has finished, successful or not.
+     */
+    public void refillCompleted() {
+        refillPending.set(false);
+    }
+
+    /**
+     * Asks the owner for another block unless one is already on its way or the rule is exhausted.
+     */
+    public void requestRefill() {
+        if (!exhausted && refillPending.compareAndSet(false, true)) {
+            refillRequest.accept(this);
+        }
+    }
+}
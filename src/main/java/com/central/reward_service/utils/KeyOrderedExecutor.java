@@ -0,0 +1,42 @@
+package com.central.reward_service.utils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs tasks on a shared executor, one at a time and in submission order per key, in
+ * parallel across keys.
+ *
+ * Each key keeps only the future of its last task; a new task is chained behind it and
+ * the entry is dropped once the key's last task is done, so idle keys cost nothing.
+ */
+public final class KeyOrderedExecutor {
+
+    private final Executor executor;
+
+    private final Map<Object, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    public KeyOrderedExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @return completes when the task has run; a failing task does not stop later tasks of its key
+     */
+    public CompletableFuture<Void> submit(Object key, Runnable task) {
+        CompletableFuture<Void> next = tails.compute(key, (k, tail) -> tail == null
+                ? CompletableFuture.runAsync(task, executor)
+                : tail.handle((ignored, error) -> null).thenRunAsync(task, executor));
+        next.whenComplete((ignored, error) -> tails.remove(key, next));
+        return next;
+    }
+
+    /**
+     * @return number of keys with a queued or running task
+     */
+    public int activeKeys() {
+        return tails.size();
+    }
+}
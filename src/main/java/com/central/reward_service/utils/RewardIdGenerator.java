@@ -0,0 +1,85 @@
+package com.central.reward_service.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free generator of 64-bit, time-ordered reward ids (TSID layout).
+ *
+ * <pre>
+ *  | 1 bit 0 | 42 bits ms since 2025-01-01 UTC | 10 bits node | 12 bits sequence |
+ * </pre>
+ *
+ * Ids from one node strictly increase. Ids from different nodes sort by millisecond, so new
+ * rows always land at the right edge of the primary key index. More than 4096 ids in one
+ * millisecond borrow from the next millisecond instead of waiting, and a clock that steps
+ * back is ignored until it catches up again.
+ */
+@Slf4j
+@Component
+public class RewardIdGenerator {
+
+    static final long EPOCH_MS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+
+    // Last issued (millis << SEQUENCE_BITS | sequence); one CAS per id
+    private final AtomicLong state = new AtomicLong();
+
+    public RewardIdGenerator(@Value("${app.id.node-id:-1}") int nodeId,
+                             @Value("${app.node-id}") String nodeName) {
+        this(resolveNodeId(nodeId, nodeName), System::currentTimeMillis);
+    }
+
+    RewardIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MS) << SEQUENCE_BITS;
+        long prev;
+        long next;
+        do {
+            prev = state.get();
+            next = Math.max(now, prev + 1);
+        } while (!state.compareAndSet(prev, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return millis << (NODE_BITS + SEQUENCE_BITS) | nodeBits | sequence;
+    }
+
+    /**
+     * @return creation time encoded in an id from this generator
+     */
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MS);
+    }
+
+    /**
+     * Without an explicit node id the replica name is hashed, which may collide between
+     * replicas; deployments with more than one replica must set {@code app.id.node-id}.
+     */
+    private static int resolveNodeId(int nodeId, String nodeName) {
+        if (nodeId >= 0) {
+            return nodeId;
+        }
+        int derived = Math.floorMod(nodeName.hashCode(), MAX_NODE_ID + 1);
+        log.warn("app.id.node-id is not set, using {} derived from node name {}", derived, nodeName);
+        return derived;
+    }
+}
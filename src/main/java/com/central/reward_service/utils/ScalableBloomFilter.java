@@ -0,0 +1,190 @@
+package com.central.reward_service.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of strings that grows with its contents (Almeida et al., "Scalable
+ * Bloom Filters").
+ *
+ * Keys go into the newest stage until it holds its planned number of keys; then a stage twice
+ * as large with half the false-positive rate is added. Earlier stages stay as they are, so the
+ * overall false-positive rate stays below the configured one however many keys are added.
+ * {@link #mightContain} never gives a false negative for a key that was {@link #put}.
+ */
+public final class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final double falsePositiveRate;
+
+    // Copy-on-write: readers take the array once, growth replaces it under the lock
+    private volatile Stage[] stages;
+
+    /**
+     * @param initialCapacity   keys the first stage is sized for
+     * @param falsePositiveRate upper bound of the false-positive rate, over all stages
+     */
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("initialCapacity must be positive");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        // Stage i gets P * (1 - r) * r^i, which sums to at most P
+        this.stages = new Stage[]{new Stage(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO))};
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        for (Stage stage : stages) {
+            if (stage.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void put(String key) {
+        long hash = hash(key);
+        Stage[] current = stages;
+        for (Stage stage : current) {
+            if (stage.mightContain(hash)) {
+                return;
+            }
+        }
+        Stage last = current[current.length - 1];
+        last.put(hash);
+        if (last.isFull()) {
+            grow(last);
+        }
+    }
+
+    /**
+     * @return keys added so far; keys already reported present when added are not counted
+     */
+    public long approximateElementCount() {
+        long count = 0;
+        for (Stage stage : stages) {
+            count += stage.count.get();
+        }
+        return count;
+    }
+
+    /**
+     * Estimate from the bits actually set, so it reflects the keys added rather than the plan.
+     */
+    public double expectedFalsePositiveRate() {
+        double allMiss = 1.0;
+        for (Stage stage : stages) {
+            allMiss *= 1.0 - stage.expectedFalsePositiveRate();
+        }
+        return 1.0 - allMiss;
+    }
+
+    public long bitSize() {
+        long bits = 0;
+        for (Stage stage : stages) {
+            bits += stage.bits;
+        }
+        return bits;
+    }
+
+    public int stageCount() {
+        return stages.length;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    private synchronized void grow(Stage full) {
+        Stage[] current = stages;
+        Stage last = current[current.length - 1];
+        if (last != full) {
+            // Another thread grew it already
+            return;
+        }
+        Stage[] grown = new Stage[current.length + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        grown[current.length] = new Stage(last.capacity * GROWTH_FACTOR, last.falsePositiveRate * TIGHTENING_RATIO);
+        stages = grown;
+    }
+
+    // 64-bit FNV-1a over the UTF-16 chars, finished with the MurmurHash3 fmix64 avalanche
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // Kirsch-Mitzenmacher: the k indexes are h1 + i * h2, with h2 the hash's halves swapped.
+    // 64-bit arithmetic, so stages past 2^32 bits are addressed in full.
+    static long bitIndex(long hash, int i, long bits) {
+        return ((hash + i * Long.rotateLeft(hash, 32)) & Long.MAX_VALUE) % bits;
+    }
+
+    private static final class Stage {
+
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bits;
+        private final int hashes;
+        private final AtomicLongArray words;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong bitsSet = new AtomicLong();
+
+        Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            // Optimal sizing: m = -n ln p / (ln 2)^2 bits, k = log2(1/p) hash functions
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = Math.toIntExact(Math.max(1, (optimalBits + 63) / 64));
+            this.words = new AtomicLongArray(wordCount);
+            this.bits = wordCount * 64L;
+            this.hashes = Math.max(1, (int) Math.ceil(-Math.log(falsePositiveRate) / Math.log(2)));
+        }
+
+        boolean mightContain(long hash) {
+            for (int i = 1; i <= hashes; i++) {
+                long index = bitIndex(hash, i, bits);
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void put(long hash) {
+            for (int i = 1; i <= hashes; i++) {
+                long index = bitIndex(hash, i, bits);
+                long mask = 1L << index;
+                long before = words.getAndUpdate((int) (index >>> 6), word -> word | mask);
+                if ((before & mask) == 0) {
+                    bitsSet.incrementAndGet();
+                }
+            }
+            count.incrementAndGet();
+        }
+
+        boolean isFull() {
+            return count.get() >= capacity;
+        }
+
+        double expectedFalsePositiveRate() {
+            return Math.pow((double) bitsSet.get() / bits, hashes);
+        }
+    }
+}
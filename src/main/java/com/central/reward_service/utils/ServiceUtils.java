@@ -1,47 +1,25 @@
 package com.central.reward_service.utils;
 
+import com.central.reward_service.model.CompiledRule;
 import com.central.reward_service.model.Reward;
+import com.central.reward_service.model.RewardOutcome;
 import com.central.reward_service.model.RewardRule;
-import com.central.reward_service.repository.RewardRuleRepository;
+import com.central.reward_service.model.RewardStatus;
+import com.central.reward_service.model.RewardView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.openapitools.model.RewardBatchResult;
 import org.openapitools.model.RewardResponse;
 import org.openapitools.model.RewardRuleResponse;
 import org.openapitools.model.RewardRuleRequest;
 import java.time.ZoneId;
-import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ServiceUtils {
 
-    private final RewardRuleRepository ruleRepository;
-
-    /**
-     * This method is CACHED.
-     * It hits the DB only once every hour (or configured time).
-     * It transforms the flat DB list into a highly optimized TreeMap for fast lookup.
-     */
-    @Cacheable(value = "reward_rules", key = "'active_rules'")
-    public TreeMap<Double, List<RewardRule>> getCachedRewardRules() {
-        log.info("Cache Miss: Fetching Reward Rules from Database...");
-
-        List<RewardRule> allRules = ruleRepository.findByActiveTrue();
-
-        // Group by Min Transaction Amount to create Tiers dynamically
-        Map<Double, List<RewardRule>> groupedRules = allRules.stream()
-                .collect(Collectors.groupingBy(RewardRule::getMinTransactionAmount));
-
-        // Convert to TreeMap for range lookups (floorEntry)
-        return new TreeMap<>(groupedRules);
-    }
-
     public RewardResponse constructRewardResponse(Reward reward){
         return RewardResponse.builder()
                 .rewardId(reward.getRewardId())
@@ -50,10 +28,50 @@ public class ServiceUtils {
                 .description(reward.getRewardDescription())
                 .rewardValue(reward.getRewardValue())
                 .userId(reward.getUserId())
+                .rewardStatus(toStatusEnum(reward.getStatus()))
                 .createdAt(reward.getCreatedAt().toInstant().atZone(ZoneId.systemDefault()).toOffsetDateTime())
                 .build();
     }
 
+    /**
+     * Same response as {@link #constructRewardResponse(Reward)}, from the read-side projection.
+     */
+    public RewardResponse constructRewardViewResponse(RewardView reward) {
+        return RewardResponse.builder()
+                .rewardId(reward.rewardId())
+                .transactionId(reward.transactionId())
+                .rewardType(reward.rewardType())
+                .description(reward.rewardDescription())
+                .rewardValue(reward.rewardValue())
+                .userId(reward.userId())
+                .rewardStatus(toStatusEnum(reward.status()))
+                .createdAt(reward.createdAt().toInstant().atZone(ZoneId.systemDefault()).toOffsetDateTime())
+                .build();
+    }
+
+    /**
+     * Result of one batch item; {@code original} is the stored reward of a duplicate, if found.
+     */
+    public RewardBatchResult constructRewardBatchResult(RewardOutcome outcome, RewardView original) {
+        RewardBatchResult.RewardBatchResultBuilder result = RewardBatchResult.builder()
+                .transactionId(outcome.transactionId());
+        return switch (outcome.status()) {
+            case CREATED -> result.outcome(RewardBatchResult.OutcomeEnum.CREATED)
+                    .reward(constructRewardResponse(outcome.reward()))
+                    .build();
+            case DUPLICATE -> result.outcome(RewardBatchResult.OutcomeEnum.DUPLICATE)
+                    .reward(original != null ? constructRewardViewResponse(original) : null)
+                    .build();
+            case REJECTED, FAILED -> result.outcome(RewardBatchResult.OutcomeEnum.ERROR)
+                    .errorMessage(outcome.error())
+                    .build();
+        };
+    }
+
+    private static RewardResponse.RewardStatusEnum toStatusEnum(RewardStatus status) {
+        return status != null ? RewardResponse.RewardStatusEnum.valueOf(status.name()) : null;
+    }
+
     public static RewardRuleResponse constructRewardRuleResponse(RewardRule rule){
         return RewardRuleResponse.builder()
                 .id(rule.getId())
@@ -64,9 +82,40 @@ public class ServiceUtils {
                 .description(rule.getDescription())
                 .rewardType(rule.getRewardType())
                 .rewardValue(rule.getRewardValue())
+                .dailyCapacity(rule.getDailyCapacity())
                 .build();
     }
 
+    /**
+     * Detaches a rule entity into the immutable form used by the rule snapshot.
+     */
+    public static CompiledRule constructCompiledRule(RewardRule rule) {
+        return new CompiledRule(
+                rule.getId(),
+                rule.getTierName(),
+                rule.getMinTransactionAmount(),
+                rule.getRewardType(),
+                rule.getDescription(),
+                rule.getRewardValue(),
+                rule.getWeight(),
+                rule.getDailyCapacity());
+    }
+
+    /**
+     * Compiles a rule that is not stored, e.g. a candidate rule of a simulation.
+     */
+    public static CompiledRule constructCompiledRule(long id, RewardRuleRequest request) {
+        return new CompiledRule(
+                id,
+                request.getTierName(),
+                request.getMinTransactionAmount(),
+                request.getRewardType(),
+                request.getDescription(),
+                request.getRewardValue(),
+                request.getWeight(),
+                request.getDailyCapacity());
+    }
+
     // Add these methods to ServiceUtils.java
 
     public static RewardRule constructRewardRuleFromRequest(RewardRuleRequest request) {
@@ -78,6 +127,7 @@ public class ServiceUtils {
                 .rewardValue(request.getRewardValue())
                 .weight(request.getWeight())
                 .active(request.getActive())
+                .dailyCapacity(request.getDailyCapacity())
                 .build();
     }
 
@@ -89,6 +139,7 @@ public class ServiceUtils {
         rule.setRewardValue(request.getRewardValue());
         rule.setWeight(request.getWeight());
         rule.setActive(request.getActive());
+        rule.setDailyCapacity(request.getDailyCapacity());
         return rule;
     }
 
@@ -0,0 +1,11 @@
+-- Runs after Hibernate has created or updated the tables (spring.jpa.defer-datasource-initialization).
+-- Indexes Hibernate cannot declare from the entities.
+
+-- Expiry sweeper: only the unclaimed rewards are indexed, and the sweeper reads them in expiry order
+CREATE INDEX IF NOT EXISTS idx_rewards_unclaimed_expires_at ON rewards (expires_at) WHERE status = 'UNCLAIMED';
+
+-- User reward history, newest first: serves both page numbers and cursors (scanned backwards)
+CREATE INDEX IF NOT EXISTS idx_rewards_user_created ON rewards (user_id, created_at, reward_id);
+
+-- Admin export by creation date: streamed in index order, so a range of any size needs no sort
+CREATE INDEX IF NOT EXISTS idx_rewards_created ON rewards (created_at, reward_id);
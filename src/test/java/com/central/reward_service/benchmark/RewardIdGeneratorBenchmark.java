@@ -0,0 +1,75 @@
+package com.central.reward_service.benchmark;
+
+import com.central.reward_service.utils.RewardIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of {@link RewardIdGenerator} with one generator shared by all benchmark threads,
+ * next to a plain {@link AtomicLong} counter (lower bound for one shared CAS) and
+ * {@link UUID#randomUUID()} (what a non-ordered application id would cost).
+ *
+ * Not run by the test suite. Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.central.reward_service.benchmark.RewardIdGeneratorBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RewardIdGeneratorBenchmark {
+
+    private final RewardIdGenerator generator = new RewardIdGenerator(1, "benchmark");
+
+    private final AtomicLong counter = new AtomicLong();
+
+    @Benchmark
+    @Threads(1)
+    public long tsidSingleThread() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long tsidContended() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long atomicCounterContended() {
+        return counter.incrementAndGet();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public UUID randomUuidContended() {
+        return UUID.randomUUID();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RewardIdGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
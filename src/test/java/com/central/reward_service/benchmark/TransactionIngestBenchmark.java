@@ -0,0 +1,79 @@
+package com.central.reward_service.benchmark;
+
+import com.central.reward_service.kafka.TransactionEventReader;
+import com.central.reward_service.model.TransactionIngestCommand;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Timestamp;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openapitools.model.RewardRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reward.events.TransactionEvent;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning one transaction record into what the reward service consumes: the previous
+ * path (full {@link TransactionEvent} parse, then a {@link RewardRequest}) next to
+ * {@link TransactionEventReader}. Run with {@code -prof gc} to compare bytes allocated per event.
+ *
+ * Not run by the test suite. Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.central.reward_service.benchmark.TransactionIngestBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionIngestBenchmark {
+
+    private final byte[] record = TransactionEvent.newBuilder()
+            .setTransactionId("8f14e45f-ceea-467f-a8ad-0d2f1d3e6c7b")
+            .setSenderId("user-2f7c9a1e")
+            .setReceiverId("merchant-93b1d4c8")
+            .setAmount(1249.50)
+            .setStatus("COMPLETED")
+            .setCreatedAt(Timestamp.newBuilder().setSeconds(1_760_000_000L).setNanos(123_000_000).build())
+            .setUpdatedAt(Timestamp.newBuilder().setSeconds(1_760_000_002L).setNanos(456_000_000).build())
+            .build()
+            .toByteArray();
+
+    private final TransactionEventReader reader = new TransactionEventReader(new SimpleMeterRegistry(), List.of("COMPLETED"));
+
+    @Benchmark
+    public RewardRequest parseAndBuildRequest() throws InvalidProtocolBufferException {
+        TransactionEvent event = TransactionEvent.parseFrom(record);
+        return RewardRequest.builder()
+                .transactionId(event.getTransactionId())
+                .transactionAmount(event.getAmount())
+                .userId(event.getSenderId())
+                .build();
+    }
+
+    @Benchmark
+    public TransactionIngestCommand readCommand() throws InvalidProtocolBufferException {
+        return reader.read(record);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TransactionIngestBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
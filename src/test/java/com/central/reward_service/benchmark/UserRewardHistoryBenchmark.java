@@ -0,0 +1,149 @@
+package com.central.reward_service.benchmark;
+
+import com.central.reward_service.model.Reward;
+import com.central.reward_service.model.RewardRule;
+import com.central.reward_service.model.RewardView;
+import com.central.reward_service.utils.ServiceUtils;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openapitools.model.RewardResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of the user-history endpoint through Hibernate, on an in-memory H2 database:
+ * loading managed {@link Reward} entities (the previous read path) against selecting
+ * {@link RewardView} projections in a read-only session, both mapped to {@link RewardResponse}.
+ * Run with {@code -prof gc} to compare bytes allocated per page; the database round trip is
+ * in both numbers.
+ *
+ * Not run by the test suite. Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.central.reward_service.benchmark.UserRewardHistoryBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserRewardHistoryBenchmark {
+
+    private static final String USER_ID = "user-2f7c9a1e";
+
+    private static final String ENTITY_PAGE = """
+            SELECT r FROM Reward r
+             WHERE r.userId = :userId
+             ORDER BY r.createdAt DESC, r.rewardId DESC
+            """;
+
+    // Same projection as RewardRepository.findViewsByUserId
+    private static final String PROJECTION_PAGE = """
+            SELECT new com.central.reward_service.model.RewardView(r.rewardId, r.userId, r.transactionId,
+                   r.rewardType, r.rewardDescription, r.rewardValue, r.createdAt, r.status)
+              FROM Reward r
+             WHERE r.userId = :userId
+             ORDER BY r.createdAt DESC, r.rewardId DESC
+            """;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private final ServiceUtils serviceUtils = new ServiceUtils();
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Reward.class)
+                .addAnnotatedClass(RewardRule.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:history;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .buildSessionFactory();
+        sessionFactory.inTransaction(session -> {
+            RewardRule rule = RewardRule.builder()
+                    .tierName("TIER_1").minTransactionAmount(0.0).rewardType("CASHBACK")
+                    .description("5% cashback").rewardValue(62.5).weight(1).active(true)
+                    .build();
+            session.persist(rule);
+            for (int i = 0; i < pageSize; i++) {
+                session.persist(Reward.builder()
+                        .rewardId(7_340_032_000_000L + i)
+                        .userId(USER_ID)
+                        .transactionId("8f14e45f-ceea-467f-a8ad-" + String.format("%012d", i))
+                        .transactionAmount(1249.50)
+                        .rewardType("CASHBACK")
+                        .rewardDescription("5% cashback")
+                        .rewardValue(62.5)
+                        .redeemCode("d3b07384-d9a0-4c9b-8e3f-1c2a7b6e5f40")
+                        .rewardRule(rule)
+                        .build());
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<RewardResponse> entityPage() {
+        return sessionFactory.fromTransaction(session -> session.createSelectionQuery(ENTITY_PAGE, Reward.class)
+                .setParameter("userId", USER_ID)
+                .setMaxResults(pageSize)
+                .getResultList()
+                .stream()
+                .map(serviceUtils::constructRewardResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public List<RewardResponse> projectionPage() {
+        return sessionFactory.fromTransaction(session -> {
+            readOnly(session);
+            return session.createSelectionQuery(PROJECTION_PAGE, RewardView.class)
+                    .setParameter("userId", USER_ID)
+                    .setMaxResults(pageSize)
+                    .getResultList()
+                    .stream()
+                    .map(serviceUtils::constructRewardViewResponse)
+                    .toList();
+        });
+    }
+
+    // What @Transactional(readOnly = true) sets on the session
+    private static void readOnly(Session session) {
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserRewardHistoryBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
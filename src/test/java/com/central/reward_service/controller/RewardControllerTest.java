@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.openapitools.model.RewardBatchRequest;
+import org.openapitools.model.RewardBatchResponse;
 import org.openapitools.model.RewardClaimResponse;
 import org.openapitools.model.RewardRequest;
 import org.openapitools.model.RewardResponse;
@@ -66,23 +68,38 @@ class RewardControllerTest {
         verify(rewardService, times(1)).getRewardById(1L);
     }
 
+    @Test
+    void getRewardsByIds_ShouldReturnRewards() {
+        // Arrange
+        List<Long> ids = List.of(1L, 2L);
+        when(rewardService.getRewardsByIds(ids)).thenReturn(ResponseEntity.ok(List.of(rewardResponse)));
+
+        // Act
+        ResponseEntity<List<RewardResponse>> response = rewardController.getRewardsByIds(ids);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(rewardResponse), response.getBody());
+        verify(rewardService, times(1)).getRewardsByIds(ids);
+    }
+
     @Test
     void getUserRewards_ShouldReturnUserRewards() {
         // Arrange
         List<RewardResponse> rewards = Arrays.asList(rewardResponse);
-        when(rewardService.getUserRewards(anyString(), anyInt(), anyInt()))
+        when(rewardService.getUserRewards(anyString(), anyInt(), anyInt(), isNull()))
             .thenReturn(ResponseEntity.ok(rewards));
         
         // Act
         ResponseEntity<List<RewardResponse>> response = 
-            rewardController.getUserRewards("user123", 0, 10);
+            rewardController.getUserRewards("user123", 0, 10, null);
         
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertFalse(response.getBody().isEmpty());
         assertEquals(1, response.getBody().size());
-        verify(rewardService, times(1)).getUserRewards("user123", 0, 10);
+        verify(rewardService, times(1)).getUserRewards("user123", 0, 10, null);
     }
 
     @Test
@@ -102,6 +119,21 @@ class RewardControllerTest {
         verify(rewardService, times(1)).processTransaction(rewardRequest);
     }
 
+    @Test
+    void processTransactionBatch_ShouldDelegateToService() {
+        // Arrange
+        RewardBatchRequest batchRequest = RewardBatchRequest.builder().transactions(List.of(rewardRequest)).build();
+        RewardBatchResponse batchResponse = RewardBatchResponse.builder().results(List.of()).build();
+        when(rewardService.processTransactions(batchRequest)).thenReturn(ResponseEntity.ok(batchResponse));
+
+        // Act
+        ResponseEntity<RewardBatchResponse> response = rewardController.processTransactionBatch(batchRequest);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(batchResponse, response.getBody());
+    }
+
     @Test
     void claimReward_ShouldClaimSuccessfully() {
         // Arrange
@@ -0,0 +1,122 @@
+package com.central.reward_service.controller;
+
+import com.central.reward_service.exception.InvalidExportRangeException;
+import com.central.reward_service.model.RewardExportFormat;
+import com.central.reward_service.service.RewardExporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+class RewardExportControllerTest {
+
+    private static final OffsetDateTime FROM = OffsetDateTime.parse("2026-01-01T00:00:00+05:30");
+    private static final OffsetDateTime TO = OffsetDateTime.parse("2026-02-01T00:00:00+05:30");
+    private static final long EXPORT_TIMEOUT_MS = 1_800_000;
+
+    @Mock
+    private RewardExporter rewardExporter;
+
+    // Runs the streamed body inline and records that it went through the IO executor
+    private final List<Runnable> ioTasks = new ArrayList<>();
+
+    private final Executor ioTaskExecutor = task -> {
+        ioTasks.add(task);
+        task.run();
+    };
+
+    private RewardExportController rewardExportController;
+
+    @BeforeEach
+    void setUp() {
+        rewardExportController = new RewardExportController(rewardExporter, ioTaskExecutor, EXPORT_TIMEOUT_MS);
+    }
+
+    @Test
+    void exportRewards_ShouldStreamWithFormatContentType() {
+        // Arrange
+        StreamingResponseBody body = out -> { };
+        when(rewardExporter.export(Instant.parse("2025-12-31T18:30:00Z"), Instant.parse("2026-01-31T18:30:00Z"),
+                RewardExportFormat.PROTOBUF)).thenReturn(body);
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response =
+                rewardExportController.exportRewards(FROM, TO, RewardExportFormat.PROTOBUF, asyncRequest());
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(body, response.getBody());
+        assertTrue(MediaType.parseMediaType("application/x-protobuf").includes(response.getHeaders().getContentType()));
+        assertEquals("attachment; filename=\"rewards.protobuf\"",
+                response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+    }
+
+    @Test
+    void exportRewards_ShouldStreamOnIoExecutorWithExportTimeout() throws Exception {
+        // Arrange
+        when(rewardExporter.export(any(), any(), any()))
+                .thenReturn(out -> out.write("{}\n".getBytes(StandardCharsets.UTF_8)));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(rewardExportController).build();
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/admin/rewards/export")
+                        .param("from", FROM.toString())
+                        .param("to", TO.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert - the timeout is set on this request only, the MVC-wide default is untouched
+        assertEquals(EXPORT_TIMEOUT_MS, result.getRequest().getAsyncContext().getTimeout());
+        assertEquals(1, ioTasks.size());
+        mockMvc.perform(asyncDispatch(result)).andExpect(content().string("{}\n"));
+    }
+
+    @Test
+    void exportRewards_WithEmptyRange_ShouldPropagateValidationError() {
+        // Arrange
+        MockHttpServletRequest request = asyncRequest();
+        when(rewardExporter.export(any(), any(), any())).thenThrow(new InvalidExportRangeException("Export range is empty"));
+
+        // Act & Assert
+        assertThrows(InvalidExportRangeException.class,
+                () -> rewardExportController.exportRewards(TO, FROM, RewardExportFormat.NDJSON, request));
+        assertTrue(ioTasks.isEmpty());
+    }
+
+    private static MockHttpServletRequest asyncRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        WebAsyncUtils.getAsyncManager(request)
+                .setAsyncWebRequest(new StandardServletAsyncWebRequest(request, new MockHttpServletResponse()));
+        return request;
+    }
+}
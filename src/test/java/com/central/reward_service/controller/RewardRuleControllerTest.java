@@ -7,6 +7,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.openapitools.model.RewardRulePublishRequest;
+import org.openapitools.model.RewardRulePublishResponse;
+import org.openapitools.model.RewardRuleSimulationRequest;
+import org.openapitools.model.RewardRuleSimulationResponse;
 import org.openapitools.model.RewardRuleRequest;
 import org.openapitools.model.RewardRuleResponse;
 import org.springframework.http.HttpStatus;
@@ -168,4 +172,40 @@ class RewardRuleControllerTest {
         assertEquals("GOLD", response.getBody().get(0).getTierName());
         verify(rewardRuleService).adminRewardRulesTierTierNameGet("GOLD");
     }
+
+    @Test
+    void adminRewardRulesPublishPost_ShouldCallService() {
+        // Arrange
+        RewardRulePublishRequest request = new RewardRulePublishRequest().create(List.of(testRequest));
+        RewardRulePublishResponse publishResponse = new RewardRulePublishResponse().created(List.of(testResponse));
+        when(rewardRuleService.adminRewardRulesPublishPost(request))
+            .thenReturn(ResponseEntity.ok(publishResponse));
+
+        // Act
+        ResponseEntity<RewardRulePublishResponse> response =
+            rewardRuleController.adminRewardRulesPublishPost(request);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(publishResponse, response.getBody());
+        verify(rewardRuleService).adminRewardRulesPublishPost(request);
+    }
+
+    @Test
+    void adminRewardRulesSimulatePost_ShouldCallService() {
+        // Arrange
+        RewardRuleSimulationRequest request = new RewardRuleSimulationRequest().rules(List.of(testRequest)).seed(42L);
+        RewardRuleSimulationResponse simulationResponse = new RewardRuleSimulationResponse().draws(1000L).seed(42L);
+        when(rewardRuleService.adminRewardRulesSimulatePost(request))
+            .thenReturn(ResponseEntity.ok(simulationResponse));
+
+        // Act
+        ResponseEntity<RewardRuleSimulationResponse> response =
+            rewardRuleController.adminRewardRulesSimulatePost(request);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(simulationResponse, response.getBody());
+        verify(rewardRuleService).adminRewardRulesSimulatePost(request);
+    }
 }
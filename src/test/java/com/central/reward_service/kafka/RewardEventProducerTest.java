@@ -1,52 +1,39 @@
 package com.central.reward_service.kafka;
 
 import com.central.reward_service.model.Reward;
+import com.central.reward_service.model.RewardOutbox;
 import com.central.reward_service.model.RewardStatus;
-import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.TopicPartition;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
-import java.util.concurrent.CompletableFuture;
+import reward.events.RewardEvent;
+import reward.events.RewardType;
 
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class RewardEventProducerTest {
 
+    private static final String REWARD_TOPIC = "reward-generated-events";
+
     @Mock
     private KafkaTemplate<String, byte[]> kafkaTemplate;
 
-    @InjectMocks
     private RewardEventProducer rewardEventProducer;
 
-    @Captor
-    private ArgumentCaptor<String> topicCaptor;
-    @Captor
-    private ArgumentCaptor<String> keyCaptor;
-    @Captor
-    private ArgumentCaptor<byte[]> valueCaptor;
-
     private Reward reward;
-    private CompletableFuture<SendResult<String, byte[]>> future;
 
     private Reward createTestReward() {
         return Reward.builder()
@@ -62,58 +49,73 @@ class RewardEventProducerTest {
                 .expiresAt(Timestamp.from(Instant.now().plusSeconds(86400)))
                 .build();
     }
-    
+
     @BeforeEach
     void setUp() {
         reward = createTestReward();
-        future = new CompletableFuture<>();
-        // Set up the topic value for testing using the correct field name
-        ReflectionTestUtils.setField(rewardEventProducer, "REWARD_TOPIC", "reward-generated-events");
+        rewardEventProducer = new RewardEventProducer(kafkaTemplate, REWARD_TOPIC);
     }
 
     @Test
-    void sendRewardEvent_ShouldSendToKafka() throws ExecutionException, InterruptedException {
-        // Arrange
-        when(kafkaTemplate.send(anyString(), anyString(), any(byte[].class))).thenReturn(future);
-        RecordMetadata metadata = new RecordMetadata(
-                new TopicPartition("reward-generated-events", 0), 1L, 0, 0L, 0, 0);
-        future.complete(new SendResult<>(null, metadata));
-
+    void toOutboxEntry_ShouldSerializeEventKeyedByUser() throws Exception {
         // Act
-        rewardEventProducer.sendRewardEvent(reward);
+        RewardOutbox entry = rewardEventProducer.toOutboxEntry(reward).orElseThrow();
 
         // Assert
-        verify(kafkaTemplate, times(1)).send(
-            topicCaptor.capture(), 
-            keyCaptor.capture(), 
-            valueCaptor.capture()
-        );
-        
-        assertEquals("reward-generated-events", topicCaptor.getValue());
-        assertEquals(reward.getUserId(), keyCaptor.getValue());
+        assertEquals(REWARD_TOPIC, entry.getTopic());
+        assertEquals(reward.getUserId(), entry.getMessageKey());
+        assertNotNull(entry.getCreatedAt());
+        RewardEvent event = RewardEvent.parseFrom(entry.getPayload());
+        assertEquals("1", event.getRewardId());
+        assertEquals("txn123", event.getTransactionId());
+        assertEquals(RewardType.CASHBACK, event.getRewardType());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void toOutboxEntry_WithUnknownRewardType_ShouldNotBuildEvent() {
+        // Arrange - a real reward must not go out as another type, e.g. BETTER_LUCK ("no reward")
+        reward.setRewardType("NEW_PROMO");
+
+        // Act & Assert
+        assertTrue(rewardEventProducer.toOutboxEntry(reward).isEmpty());
+    }
+
+    @Test
+    void isPublishable_ShouldAcceptOnlyEventSchemaTypes() {
+        assertTrue(RewardEventProducer.isPublishable("CASHBACK"));
+        assertFalse(RewardEventProducer.isPublishable("NEW_PROMO"));
+        assertFalse(RewardEventProducer.isPublishable("UNRECOGNIZED"));
+        assertFalse(RewardEventProducer.isPublishable(null));
     }
 
     @Test
-    void sendRewardEvent_WhenKafkaFails_ShouldLogError() {
+    void send_ShouldSendToKafka() {
         // Arrange
-        CompletableFuture<SendResult<String, byte[]>> failedFuture = new CompletableFuture<>();
-        failedFuture.completeExceptionally(new RuntimeException("Kafka error"));
-        when(kafkaTemplate.send(anyString(), anyString(), any(byte[].class)))
-                .thenReturn(failedFuture);
+        RewardOutbox entry = rewardEventProducer.toOutboxEntry(reward).orElseThrow();
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition(REWARD_TOPIC, 0), 1L, 0, 0L, 0, 0);
+        when(kafkaTemplate.send(REWARD_TOPIC, "user123", entry.getPayload()))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, metadata)));
 
         // Act
-        rewardEventProducer.sendRewardEvent(reward);
+        CompletableFuture<SendResult<String, byte[]>> ack = rewardEventProducer.send(entry);
+
+        // Assert
+        assertTrue(ack.isDone());
+        assertFalse(ack.isCompletedExceptionally());
     }
 
     @Test
-    void sendRewardEvent_WithNullReward_ShouldNotSend() {
-        // Reset the mock to clear any setup from @BeforeEach
-        reset(kafkaTemplate);
-        
+    void send_WhenKafkaFails_ShouldCompleteExceptionally() {
+        // Arrange
+        RewardOutbox entry = rewardEventProducer.toOutboxEntry(reward).orElseThrow();
+        when(kafkaTemplate.send(REWARD_TOPIC, "user123", entry.getPayload()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Kafka error")));
+
         // Act
-        rewardEventProducer.sendRewardEvent(null);
+        CompletableFuture<SendResult<String, byte[]>> ack = rewardEventProducer.send(entry);
 
         // Assert
-        verify(kafkaTemplate, never()).send(anyString(), anyString(), any(byte[].class));
+        assertTrue(ack.isCompletedExceptionally());
     }
 }
@@ -0,0 +1,190 @@
+package com.central.reward_service.kafka;
+
+import com.central.reward_service.model.RewardOutbox;
+import com.central.reward_service.repository.RewardOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RewardOutboxRelayTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    private static final long LEASE_MS = 60_000L;
+
+    @Mock
+    private RewardOutboxRepository outboxRepository;
+
+    @Mock
+    private RewardEventProducer rewardEventProducer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RewardOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new RewardOutboxRelay(outboxRepository, rewardEventProducer,
+                new TransactionTemplate(transactionManager), Runnable::run, meterRegistry, BATCH_SIZE, 1_000L, LEASE_MS);
+    }
+
+    @Test
+    void relay_ShouldSendBatchesAndDeleteAcknowledgedRows() {
+        // Arrange - one full batch, then one more message, then empty
+        when(outboxRepository.claimNextBatch(BATCH_SIZE, LEASE_MS))
+                .thenReturn(List.of(entry(1L), entry(2L)))
+                .thenReturn(List.of(entry(3L)));
+        when(rewardEventProducer.send(any(RewardOutbox.class))).thenReturn(acked());
+
+        // Act
+        relay.relay();
+
+        // Assert
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(rewardEventProducer, times(3)).send(any(RewardOutbox.class));
+        // Per batch: one transaction to lease, one to delete
+        verify(transactionManager, times(4)).commit(any());
+        verify(outboxRepository, never()).releaseAll(anyCollection());
+        assertEquals(2, meterRegistry.get("reward.outbox.relay.batch").timer().count());
+        assertEquals(3, meterRegistry.get("reward.outbox.delivery.lag").timer().count());
+    }
+
+    @Test
+    void relayBatch_WhenSendFails_ShouldReleaseUnacknowledgedRows() {
+        // Arrange - claimed rows come back in no particular order
+        RewardOutbox first = entry(1L);
+        RewardOutbox second = entry(2L);
+        when(outboxRepository.claimNextBatch(BATCH_SIZE, LEASE_MS)).thenReturn(List.of(second, first));
+        when(rewardEventProducer.send(first)).thenReturn(acked());
+        when(rewardEventProducer.send(second)).thenReturn(CompletableFuture.failedFuture(new RuntimeException("Kafka error")));
+
+        // Act
+        int sent = relay.relayBatch();
+
+        // Assert - only the acknowledged row is removed, the other one is given back
+        assertEquals(1, sent);
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxRepository).releaseAll(List.of(2L));
+        assertEquals(1.0, meterRegistry.get("reward.outbox.send.failures").counter().count());
+    }
+
+    @Test
+    void relayBatch_ShouldSendInIdOrderAfterCommittingTheLease() {
+        // Arrange
+        when(outboxRepository.claimNextBatch(BATCH_SIZE, LEASE_MS)).thenReturn(List.of(entry(2L), entry(1L)));
+        when(rewardEventProducer.send(any(RewardOutbox.class))).thenReturn(acked());
+
+        // Act
+        relay.relayBatch();
+
+        // Assert - the lease transaction has committed before the first send
+        InOrder inOrder = inOrder(outboxRepository, transactionManager, rewardEventProducer);
+        inOrder.verify(outboxRepository).claimNextBatch(BATCH_SIZE, LEASE_MS);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(rewardEventProducer).send(argThat(entry -> entry.getId() == 1L));
+        inOrder.verify(rewardEventProducer).send(argThat(entry -> entry.getId() == 2L));
+        inOrder.verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void relay_WhenOutboxEmpty_ShouldNotSend() {
+        // Arrange
+        when(outboxRepository.claimNextBatch(BATCH_SIZE, LEASE_MS)).thenReturn(new ArrayList<>());
+
+        // Act
+        relay.relay();
+
+        // Assert
+        verifyNoInteractions(rewardEventProducer);
+        verify(outboxRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+
+    @Test
+    void relayAfterCommit_InTransaction_ShouldRelayOnlyAfterCommit() {
+        // Arrange
+        when(outboxRepository.claimNextBatch(BATCH_SIZE, LEASE_MS)).thenReturn(new ArrayList<>());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            relay.relayAfterCommit();
+
+            // Assert - nothing happens while the transaction is open
+            verifyNoInteractions(outboxRepository);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(outboxRepository).claimNextBatch(BATCH_SIZE, LEASE_MS);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void relayAfterCommit_WithoutTransaction_ShouldRelayRightAway() {
+        // Arrange
+        when(outboxRepository.claimNextBatch(BATCH_SIZE, LEASE_MS)).thenReturn(new ArrayList<>());
+
+        // Act
+        relay.relayAfterCommit();
+
+        // Assert
+        verify(outboxRepository).claimNextBatch(BATCH_SIZE, LEASE_MS);
+    }
+
+    @Test
+    void relay_WhileWakeUpRoundIsRunning_ShouldNotStartASecondRound() {
+        // Arrange - the wake-up round is queued on the executor but has not finished
+        List<Runnable> queued = new ArrayList<>();
+        relay = new RewardOutboxRelay(outboxRepository, rewardEventProducer,
+                new TransactionTemplate(transactionManager), queued::add, meterRegistry, BATCH_SIZE, 1_000L, LEASE_MS);
+        when(outboxRepository.claimNextBatch(BATCH_SIZE, LEASE_MS)).thenReturn(new ArrayList<>());
+        relay.relayAfterCommit();
+
+        // Act
+        relay.relay();
+
+        // Assert - the scheduled round is left to the running one
+        verifyNoInteractions(outboxRepository);
+        assertEquals(1, queued.size());
+        queued.get(0).run();
+        verify(outboxRepository, times(1)).claimNextBatch(BATCH_SIZE, LEASE_MS);
+    }
+
+    private static RewardOutbox entry(long id) {
+        return RewardOutbox.builder()
+                .id(id)
+                .topic("reward-generated-events")
+                .messageKey("user-" + id)
+                .payload(new byte[]{1})
+                .createdAt(new Timestamp(System.currentTimeMillis()))
+                .build();
+    }
+
+    private static CompletableFuture<SendResult<String, byte[]>> acked() {
+        return CompletableFuture.completedFuture(new SendResult<>(null, null));
+    }
+}
@@ -0,0 +1,114 @@
+package com.central.reward_service.kafka;
+
+import com.central.reward_service.service.RewardRulesChangedEvent;
+import com.central.reward_service.service.RuleSnapshotManager;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Round trip over an embedded broker: one node announces a rule version, a node that starts
+ * afterwards still sees the latest version and asks its snapshot manager to catch up.
+ */
+@SpringJUnitConfig
+@EmbeddedKafka(partitions = 1, topics = "reward-rule-versions")
+@TestPropertySource(properties = {
+        "kafka.topics.reward_service.rule_versions=reward-rule-versions",
+        "spring.kafka.consumer.group-id=reward-service-test",
+        "app.node-id=node-a"
+})
+class RuleVersionEventPropagationTest {
+
+    @Autowired
+    private RuleVersionEventProducer ruleVersionEventProducer;
+
+    @Autowired
+    private RuleSnapshotManager ruleSnapshotManager;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @Test
+    void startingNode_ShouldCatchUpToLatestAnnouncedVersion() {
+        // Arrange - versions announced while the other node's listener is not running yet
+        ruleVersionEventProducer.onRewardRulesChanged(new RewardRulesChangedEvent("create 1", 3L));
+        ruleVersionEventProducer.onRewardRulesChanged(new RewardRulesChangedEvent("publish", 7L));
+
+        // Act - the other node starts
+        registry.getListenerContainer("ruleVersionListener").start();
+
+        // Assert - it reads the topic from the beginning and sees the latest version
+        verify(ruleSnapshotManager, timeout(30_000)).onRemoteVersion(7L);
+
+        // And keeps following new announcements
+        ruleVersionEventProducer.sendRuleVersion(8L);
+        verify(ruleSnapshotManager, timeout(30_000)).onRemoteVersion(8L);
+    }
+
+    @Configuration
+    @EnableKafka
+    static class Config {
+
+        @Bean
+        static PropertySourcesPlaceholderConfigurer placeholderConfigurer() {
+            return new PropertySourcesPlaceholderConfigurer();
+        }
+
+        @Bean
+        RuleSnapshotManager ruleSnapshotManager() {
+            return Mockito.mock(RuleSnapshotManager.class);
+        }
+
+        @Bean
+        KafkaTemplate<String, byte[]> kafkaTemplate(EmbeddedKafkaBroker broker) {
+            return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                    KafkaTestUtils.producerProps(broker),
+                    new StringSerializer(),
+                    new ByteArraySerializer()));
+        }
+
+        @Bean
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> kafkaListenerContainerFactory(EmbeddedKafkaBroker broker) {
+            ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+            factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(
+                    KafkaTestUtils.consumerProps(broker, "unused", false),
+                    new StringDeserializer(),
+                    new ByteArrayDeserializer()));
+            // Started by the test, to simulate a node coming up after the announcements
+            factory.setAutoStartup(false);
+            return factory;
+        }
+
+        @Bean
+        RuleVersionEventProducer ruleVersionEventProducer(KafkaTemplate<String, byte[]> kafkaTemplate,
+                                                          @Value("${kafka.topics.reward_service.rule_versions}") String topic) {
+            return new RuleVersionEventProducer(kafkaTemplate, topic, "node-a");
+        }
+
+        @Bean
+        RuleVersionEventConsumer ruleVersionEventConsumer(RuleSnapshotManager ruleSnapshotManager) {
+            return new RuleVersionEventConsumer(ruleSnapshotManager);
+        }
+    }
+}
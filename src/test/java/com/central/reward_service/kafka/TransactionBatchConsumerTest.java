@@ -0,0 +1,134 @@
+package com.central.reward_service.kafka;
+
+import com.central.reward_service.model.RewardOutcome;
+import com.central.reward_service.model.TransactionIngestCommand;
+import com.central.reward_service.service.RewardService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import reward.events.TransactionEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBatchConsumerTest {
+
+    private static final String TOPIC = "txn-sender-events";
+
+    @Mock
+    private RewardService rewardService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TransactionBatchConsumer transactionBatchConsumer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transactionBatchConsumer = new TransactionBatchConsumer(rewardService,
+                new TransactionEventReader(meterRegistry, List.of("COMPLETED")), meterRegistry);
+    }
+
+    @Test
+    void handleSenderTransactions_ShouldProcessWholePollInOneBatch() {
+        // Arrange
+        List<ConsumerRecord<String, byte[]>> records = List.of(record(0, "txn-1", 100.0), record(1, "txn-2", 200.0));
+        when(rewardService.processTransactionBatch(anyList()))
+                .thenReturn(List.of(RewardOutcome.duplicate("txn-1"), RewardOutcome.rejected("txn-2", "no tier")));
+
+        // Act
+        transactionBatchConsumer.handleSenderTransactions(records);
+
+        // Assert
+        verify(rewardService).processTransactionBatch(argThat(commands ->
+                commands.size() == 2
+                        && "txn-1".equals(commands.get(0).transactionId())
+                        && "user-txn-2".equals(commands.get(1).userId())
+                        && commands.get(1).amount() == 200.0));
+        verify(rewardService, never()).ingestTransaction(any());
+        assertEquals(2, meterRegistry.get("reward.transaction.retry.depth").tag("outcome", "rejected").summary().count());
+    }
+
+    @Test
+    void handleSenderTransactions_WithPoisonRecord_ShouldProcessRecordsBeforeItAndFailOnlyIt() {
+        // Arrange
+        List<ConsumerRecord<String, byte[]>> records = List.of(
+                record(0, "txn-1", 100.0),
+                new ConsumerRecord<>(TOPIC, 0, 1, "key", "not a protobuf".getBytes()),
+                record(2, "txn-3", 100.0));
+        when(rewardService.processTransactionBatch(anyList())).thenReturn(List.of());
+
+        // Act & Assert
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+                () -> transactionBatchConsumer.handleSenderTransactions(records));
+        assertEquals(1, exception.getIndex());
+        // Not retryable, so the error handler sends it straight to the dead-letter topic
+        assertInstanceOf(DeserializationException.class, exception.getCause());
+        verify(rewardService).processTransactionBatch(argThat(commands ->
+                commands.size() == 1 && "txn-1".equals(commands.get(0).transactionId())));
+    }
+
+    @Test
+    void handleSenderTransactions_WhenBatchFails_ShouldReplayOneByOneAndReportFailingRecord() {
+        // Arrange
+        List<ConsumerRecord<String, byte[]>> records = List.of(
+                record(0, "txn-1", 100.0), record(1, "txn-2", 100.0), record(2, "txn-3", 100.0));
+        when(rewardService.processTransactionBatch(anyList())).thenThrow(new RuntimeException("DB Error"));
+        when(rewardService.ingestTransaction(any(TransactionIngestCommand.class)))
+                .thenReturn(null)
+                .thenThrow(new IllegalStateException("Transaction already rewarded"))
+                .thenThrow(new RuntimeException("DB Error"));
+
+        // Act & Assert - duplicates are final, the real failure is pinned to its record
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+                () -> transactionBatchConsumer.handleSenderTransactions(records));
+        assertEquals(2, exception.getIndex());
+        verify(rewardService, times(3)).ingestTransaction(any(TransactionIngestCommand.class));
+    }
+
+    @Test
+    void handleSenderTransactions_ShouldDropEventsThatAreNotCompleted() {
+        // Arrange
+        byte[] pending = TransactionEvent.newBuilder()
+                .setTransactionId("txn-2")
+                .setSenderId("user-txn-2")
+                .setAmount(100.0)
+                .setStatus("PENDING")
+                .build()
+                .toByteArray();
+        List<ConsumerRecord<String, byte[]>> records = List.of(
+                record(0, "txn-1", 100.0), new ConsumerRecord<>(TOPIC, 0, 1, "key", pending), record(2, "txn-3", 100.0));
+        when(rewardService.processTransactionBatch(anyList())).thenThrow(new RuntimeException("DB Error"));
+        when(rewardService.ingestTransaction(any(TransactionIngestCommand.class)))
+                .thenReturn(null)
+                .thenThrow(new RuntimeException("DB Error"));
+
+        // Act & Assert - the failure is reported against the record it came from, not the command index
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+                () -> transactionBatchConsumer.handleSenderTransactions(records));
+        assertEquals(2, exception.getIndex());
+        verify(rewardService).processTransactionBatch(argThat(commands ->
+                commands.size() == 2 && "txn-3".equals(commands.get(1).transactionId())));
+    }
+
+    private static ConsumerRecord<String, byte[]> record(long offset, String transactionId, double amount) {
+        byte[] value = TransactionEvent.newBuilder()
+                .setTransactionId(transactionId)
+                .setSenderId("user-" + transactionId)
+                .setAmount(amount)
+                .setStatus("COMPLETED")
+                .build()
+                .toByteArray();
+        return new ConsumerRecord<>(TOPIC, 0, offset, "key", value);
+    }
+}
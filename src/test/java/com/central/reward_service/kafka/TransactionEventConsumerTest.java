@@ -1,19 +1,26 @@
 package com.central.reward_service.kafka;
 
+import com.central.reward_service.model.TransactionIngestCommand;
 import com.central.reward_service.service.RewardService;
-import org.apache.kafka.clients.producer.ProducerRecord;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.openapitools.model.RewardRequest;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.DeserializationException;
 import reward.events.TransactionEvent;
 
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -21,92 +28,133 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class TransactionEventConsumerTest {
 
-    @Mock
-    private KafkaTemplate<String, byte[]> kafkaTemplate;
+    private static final String TOPIC = "txn-sender-events";
 
     @Mock
     private RewardService rewardService;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
+
     private TransactionEventConsumer transactionEventConsumer;
 
     @Captor
-    private ArgumentCaptor<RewardRequest> rewardRequestCaptor;
+    private ArgumentCaptor<TransactionIngestCommand> commandCaptor;
 
-    private TransactionEvent transactionEvent;
-    private byte[] serializedEvent;
+    private TransactionIngestCommand command;
 
     @BeforeEach
-    void setUp() throws Exception {
-        // Create a test transaction event using the builder pattern
-        transactionEvent = TransactionEvent.newBuilder()
-                .setTransactionId("txn-123")
-                .setSenderId("user-456")
-                .setReceiverId("receiver-789")  // Added required field
-                .setAmount(100.0)
-                .setStatus("COMPLETED")  // Added required field
-                .setCreatedAt(com.google.protobuf.Timestamp.getDefaultInstance())  // Added required field
-                .setUpdatedAt(com.google.protobuf.Timestamp.getDefaultInstance())  // Added required field
-                .build();
-
-        serializedEvent = transactionEvent.toByteArray();
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transactionEventConsumer = new TransactionEventConsumer(rewardService,
+                new TransactionEventReader(meterRegistry, List.of("COMPLETED")), meterRegistry);
+
+        command = new TransactionIngestCommand("txn-123", "user-456", 100.0);
     }
 
     @Test
-    void handleSenderTransaction_ShouldProcessValidEvent() throws Exception {
+    void handleSenderTransaction_ShouldProcessValidEvent() {
         // Act
-        transactionEventConsumer.handleSenderTransaction(serializedEvent);
+        transactionEventConsumer.handleSenderTransaction(record(TOPIC));
 
         // Assert
-        verify(rewardService).processTransaction(rewardRequestCaptor.capture());
-        RewardRequest capturedRequest = rewardRequestCaptor.getValue();
-        
-        assertNotNull(capturedRequest);
-        assertEquals(transactionEvent.getTransactionId(), capturedRequest.getTransactionId());
-        assertEquals(transactionEvent.getSenderId(), capturedRequest.getUserId());
-        assertEquals(transactionEvent.getAmount(), capturedRequest.getTransactionAmount());
+        verify(rewardService).ingestTransaction(commandCaptor.capture());
+        assertEquals(command, commandCaptor.getValue());
+        assertEquals(1.0, retryDepth("rewarded").max());
     }
 
     @Test
-    void handleSenderTransaction_ShouldLogProcessingTime() throws Exception {
+    void handleSenderTransaction_FromRetryTopic_ShouldRecordAttempt() {
         // Arrange
-        doAnswer(invocation -> {
-            Thread.sleep(100); // Simulate processing time
-            return null;
-        }).when(rewardService).processTransaction(any(RewardRequest.class));
+        ConsumerRecord<String, byte[]> record = record(TOPIC + "-retry-5000");
+        record.headers().add(RetryTopicHeaders.DEFAULT_HEADER_ATTEMPTS, BigInteger.valueOf(3).toByteArray());
 
         // Act
-        transactionEventConsumer.handleSenderTransaction(serializedEvent);
+        transactionEventConsumer.handleSenderTransaction(record);
 
-        // Assert - Just verify the method completes without exceptions
-        verify(rewardService).processTransaction(any(RewardRequest.class));
+        // Assert
+        assertEquals(3.0, retryDepth("rewarded").max());
     }
 
     @Test
-    void handleSenderTransaction_ShouldHandleInvalidProtobuf() {
+    void handleSenderTransaction_WhenNotRewarded_ShouldNotRetry() {
         // Arrange
-        byte[] invalidData = "invalid".getBytes();
-
-        // Act & Assert
-        assertThrows(RuntimeException.class, () -> {
-            transactionEventConsumer.handleSenderTransaction(invalidData);
-        });
+        doThrow(new IllegalStateException("Transaction already rewarded"))
+                .when(rewardService).ingestTransaction(any(TransactionIngestCommand.class));
 
-        // Verify no interaction with reward service for invalid data
-        verifyNoInteractions(rewardService);
+        // Act & Assert - a duplicate is final, so nothing is thrown to the retry machinery
+        assertDoesNotThrow(() -> transactionEventConsumer.handleSenderTransaction(record(TOPIC)));
+        assertEquals(1, retryDepth("rejected").count());
     }
 
     @Test
-    void handleSenderTransaction_ShouldLogErrorWhenProcessingFails() throws Exception {
+    void handleSenderTransaction_ShouldRethrowWhenProcessingFails() {
         // Arrange
         String errorMessage = "Processing failed";
         doThrow(new RuntimeException(errorMessage))
-                .when(rewardService).processTransaction(any(RewardRequest.class));
+                .when(rewardService).ingestTransaction(any(TransactionIngestCommand.class));
+
+        // Act & Assert - the retry topics take it from here
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                transactionEventConsumer.handleSenderTransaction(record(TOPIC)));
+        assertEquals(errorMessage, exception.getMessage());
+        assertEquals(1, retryDepth("failed").count());
+    }
+
+    @Test
+    void handleSenderTransaction_WithSkippedEvent_ShouldDoNothing() {
+        // Arrange - events that are not completed are not rewarded
+        byte[] pending = TransactionEvent.newBuilder().setTransactionId("txn-123").setStatus("PENDING").build().toByteArray();
+
+        // Act
+        transactionEventConsumer.handleSenderTransaction(new ConsumerRecord<>(TOPIC, 0, 0L, "user-456", pending));
+        transactionEventConsumer.handleSenderTransaction(new ConsumerRecord<>(TOPIC, 0, 1L, "user-456", null));
+
+        // Assert
+        verifyNoInteractions(rewardService);
+    }
+
+    @Test
+    void handleSenderTransaction_WithInvalidBytes_ShouldThrowDeserializationException() {
+        // Arrange
+        byte[] invalid = "invalid".getBytes(StandardCharsets.UTF_8);
+
+        // Act & Assert - not retryable, the record goes straight to the dead-letter topic
+        DeserializationException exception = assertThrows(DeserializationException.class, () ->
+                transactionEventConsumer.handleSenderTransaction(new ConsumerRecord<>(TOPIC, 0, 0L, "user-456", invalid)));
+        assertArrayEquals(invalid, exception.getData());
+        verifyNoInteractions(rewardService);
+    }
+
+    @Test
+    void handleDeadLetter_ShouldCountByException() {
+        // Arrange
+        ConsumerRecord<String, byte[]> record = record(TOPIC + "-dlt");
+        record.headers().add(KafkaHeaders.EXCEPTION_FQCN,
+                "org.springframework.kafka.listener.ListenerExecutionFailedException".getBytes(StandardCharsets.UTF_8));
+        record.headers().add(KafkaHeaders.EXCEPTION_CAUSE_FQCN,
+                "org.springframework.dao.DataAccessResourceFailureException".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        transactionEventConsumer.handleDeadLetter(record);
 
-        // Act & Assert
-        assertThrows(RuntimeException.class, () -> {
-            transactionEventConsumer.handleSenderTransaction(serializedEvent);
-        });
+        // Assert
+        assertEquals(1.0, meterRegistry.get("reward.transaction.dead.letters")
+                .tag("exception", "org.springframework.dao.DataAccessResourceFailureException")
+                .counter().count());
+    }
+
+    private ConsumerRecord<String, byte[]> record(String topic) {
+        byte[] event = TransactionEvent.newBuilder()
+                .setTransactionId(command.transactionId())
+                .setSenderId(command.userId())
+                .setAmount(command.amount())
+                .setStatus("COMPLETED")
+                .build()
+                .toByteArray();
+        return new ConsumerRecord<>(topic, 0, 0L, command.userId(), event);
+    }
 
+    private DistributionSummary retryDepth(String outcome) {
+        return meterRegistry.get("reward.transaction.retry.depth").tag("outcome", outcome).summary();
     }
 }
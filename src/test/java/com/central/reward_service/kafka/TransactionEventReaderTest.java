@@ -0,0 +1,88 @@
+package com.central.reward_service.kafka;
+
+import com.central.reward_service.model.TransactionIngestCommand;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Timestamp;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reward.events.TransactionEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionEventReaderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TransactionEventReader reader = new TransactionEventReader(meterRegistry, List.of("COMPLETED", "settled"));
+
+    @Test
+    void read_ShouldMatchFullParse() throws Exception {
+        // Arrange - every field set, including the ones the reader skips
+        TransactionEvent event = TransactionEvent.newBuilder()
+                .setTransactionId("txn-123")
+                .setSenderId("user-456")
+                .setReceiverId("receiver-789")
+                .setAmount(1234.56)
+                .setStatus("COMPLETED")
+                .setCreatedAt(Timestamp.newBuilder().setSeconds(1_700_000_000L).setNanos(5).build())
+                .setUpdatedAt(Timestamp.newBuilder().setSeconds(1_700_000_001L).build())
+                .build();
+        TransactionEvent parsed = TransactionEvent.parseFrom(event.toByteArray());
+
+        // Act
+        TransactionIngestCommand command = reader.read(event.toByteArray());
+
+        // Assert
+        assertEquals(new TransactionIngestCommand(parsed.getTransactionId(), parsed.getSenderId(), parsed.getAmount()),
+                command);
+    }
+
+    @Test
+    void read_WhenStatusIsNotCompleted_ShouldReturnNull() throws Exception {
+        // Arrange
+        byte[] data = TransactionEvent.newBuilder()
+                .setTransactionId("txn-123").setSenderId("user-456").setAmount(100.0).setStatus("REVERSED")
+                .build().toByteArray();
+
+        // Act & Assert
+        assertNull(reader.read(data));
+        assertEquals(1.0, meterRegistry.get("reward.transaction.skipped").counter().count());
+    }
+
+    @Test
+    void read_ShouldMatchRewardableStatusesIgnoringCase() throws Exception {
+        // Arrange
+        byte[] completed = event("completed");
+        byte[] settled = event("SETTLED");
+
+        // Act & Assert
+        assertNotNull(reader.read(completed));
+        assertNotNull(reader.read(settled));
+        assertEquals(0.0, meterRegistry.get("reward.transaction.skipped").counter().count());
+    }
+
+    @Test
+    void read_WithoutStatus_ShouldReturnCommand() throws Exception {
+        // Arrange
+        byte[] data = TransactionEvent.newBuilder()
+                .setTransactionId("txn-123").setSenderId("user-456").setAmount(100.0)
+                .build().toByteArray();
+
+        // Act & Assert
+        assertEquals(new TransactionIngestCommand("txn-123", "user-456", 100.0), reader.read(data));
+    }
+
+    @Test
+    void read_WithInvalidBytes_ShouldThrow() {
+        assertThrows(InvalidProtocolBufferException.class,
+                () -> reader.read("not a protobuf".getBytes()));
+    }
+
+    private static byte[] event(String status) {
+        return TransactionEvent.newBuilder()
+                .setTransactionId("txn-123").setSenderId("user-456").setAmount(100.0).setStatus(status)
+                .build().toByteArray();
+    }
+}
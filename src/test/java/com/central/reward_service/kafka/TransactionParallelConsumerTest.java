@@ -0,0 +1,219 @@
+package com.central.reward_service.kafka;
+
+import com.central.reward_service.model.TransactionIngestCommand;
+import com.central.reward_service.service.RewardService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import reward.events.TransactionEvent;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionParallelConsumerTest {
+
+    private static final String TOPIC = "txn-sender-events";
+
+    private static final long WAIT_MS = 5_000L;
+
+    @Mock
+    private RewardService rewardService;
+
+    @Mock
+    private TransactionRetryPublisher retryPublisher;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void handleSenderTransaction_ShouldProcessAndAcknowledgeInOrderPerSender() throws Exception {
+        // Arrange
+        TransactionParallelConsumer consumer = consumer(16, 0);
+        Acknowledgment firstAck = mock(Acknowledgment.class);
+        Acknowledgment secondAck = mock(Acknowledgment.class);
+
+        // Act
+        consumer.handleSenderTransaction(record(0, "txn-1", "user-1"), firstAck);
+        consumer.handleSenderTransaction(record(1, "txn-2", "user-1"), secondAck);
+
+        // Assert
+        verify(firstAck, timeout(WAIT_MS)).acknowledge();
+        verify(secondAck, timeout(WAIT_MS)).acknowledge();
+        InOrder inOrder = inOrder(rewardService);
+        inOrder.verify(rewardService).ingestTransaction(argThat(command -> "txn-1".equals(command.transactionId())));
+        inOrder.verify(rewardService).ingestTransaction(argThat(command -> "txn-2".equals(command.transactionId())
+                && "user-1".equals(command.userId())));
+        assertEquals(2, meterRegistry.get("reward.transaction.retry.depth").tag("outcome", "rewarded").summary().count());
+    }
+
+    @Test
+    void handleSenderTransaction_WhenNotRewarded_ShouldAcknowledgeWithoutRetry() throws Exception {
+        // Arrange
+        TransactionParallelConsumer consumer = consumer(16, 2);
+        Acknowledgment ack = mock(Acknowledgment.class);
+        when(rewardService.ingestTransaction(any(TransactionIngestCommand.class)))
+                .thenThrow(new IllegalStateException("Transaction already rewarded"));
+
+        // Act
+        consumer.handleSenderTransaction(record(0, "txn-1", "user-1"), ack);
+
+        // Assert
+        verify(ack, timeout(WAIT_MS)).acknowledge();
+        verify(rewardService, times(1)).ingestTransaction(any(TransactionIngestCommand.class));
+    }
+
+    @Test
+    void handleSenderTransaction_WithPoisonRecord_ShouldMoveItToDeadLetterTopicAndAcknowledge() throws Exception {
+        // Arrange
+        TransactionParallelConsumer consumer = consumer(16, 2);
+        Acknowledgment ack = mock(Acknowledgment.class);
+        ConsumerRecord<String, byte[]> poison = new ConsumerRecord<>(TOPIC, 0, 0, "key", "not a protobuf".getBytes());
+
+        // Act
+        consumer.handleSenderTransaction(poison, ack);
+
+        // Assert - not retryable, so the publisher routes it to the dead-letter topic
+        verify(retryPublisher).publish(eq(poison), isA(DeserializationException.class));
+        verify(ack).acknowledge();
+        verifyNoInteractions(rewardService);
+    }
+
+    @Test
+    void handleSenderTransaction_WhenRetriesExhausted_ShouldMoveItToRetryTopicsAndAcknowledge() throws Exception {
+        // Arrange
+        TransactionParallelConsumer consumer = consumer(16, 1);
+        Acknowledgment ack = mock(Acknowledgment.class);
+        ConsumerRecord<String, byte[]> record = record(0, "txn-1", "user-1");
+        RuntimeException failure = new RuntimeException("DB Error");
+        when(rewardService.ingestTransaction(any(TransactionIngestCommand.class))).thenThrow(failure);
+
+        // Act
+        consumer.handleSenderTransaction(record, ack);
+
+        // Assert - one in-place retry, then the retry topics take over
+        verify(ack, timeout(WAIT_MS)).acknowledge();
+        verify(rewardService, times(2)).ingestTransaction(any(TransactionIngestCommand.class));
+        verify(retryPublisher).publish(record, failure);
+    }
+
+    @Test
+    void handleSenderTransaction_WhenRetryTopicPublishFails_ShouldRetryUntilMovedAndAcknowledge() throws Exception {
+        // Arrange
+        TransactionParallelConsumer consumer = consumer(16, 0);
+        Acknowledgment ack = mock(Acknowledgment.class);
+        ConsumerRecord<String, byte[]> record = record(0, "txn-1", "user-1");
+        when(rewardService.ingestTransaction(any(TransactionIngestCommand.class))).thenThrow(new RuntimeException("DB Error"));
+        doThrow(new KafkaException("broker unavailable")).doNothing().when(retryPublisher).publish(any(), any());
+
+        // Act
+        consumer.handleSenderTransaction(record, ack);
+
+        // Assert - not left unacknowledged, which would hold back the partition's commits
+        verify(ack, timeout(WAIT_MS)).acknowledge();
+        verify(retryPublisher, times(2)).publish(eq(record), any());
+    }
+
+    @Test
+    void handleSenderTransaction_WhenNotCompleted_ShouldAcknowledgeWithoutProcessing() throws Exception {
+        // Arrange
+        TransactionParallelConsumer consumer = consumer(16, 2);
+        Acknowledgment ack = mock(Acknowledgment.class);
+        byte[] failed = TransactionEvent.newBuilder().setTransactionId("txn-1").setSenderId("user-1")
+                .setAmount(100.0).setStatus("FAILED").build().toByteArray();
+
+        // Act
+        consumer.handleSenderTransaction(new ConsumerRecord<>(TOPIC, 0, 0, "user-1", failed), ack);
+
+        // Assert
+        verify(ack).acknowledge();
+        verifyNoInteractions(rewardService);
+    }
+
+    @Test
+    void handleSenderTransaction_WhenPartitionLimitReached_ShouldWaitForAFreeSlot() throws Exception {
+        // Arrange - one record in flight per partition, and the first one blocks
+        TransactionParallelConsumer consumer = consumer(1, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        when(rewardService.ingestTransaction(any(TransactionIngestCommand.class))).thenAnswer(invocation -> {
+            release.await(WAIT_MS, TimeUnit.MILLISECONDS);
+            return null;
+        });
+        consumer.handleSenderTransaction(record(0, "txn-1", "user-1"), mock(Acknowledgment.class));
+
+        // Act
+        Future<?> second = executor.submit(() -> {
+            consumer.handleSenderTransaction(record(1, "txn-2", "user-2"), mock(Acknowledgment.class));
+            return null;
+        });
+
+        // Assert
+        Thread.sleep(200);
+        assertFalse(second.isDone());
+        release.countDown();
+        second.get(WAIT_MS, TimeUnit.MILLISECONDS);
+        verify(rewardService, timeout(WAIT_MS).times(2)).ingestTransaction(any(TransactionIngestCommand.class));
+    }
+
+    @Test
+    void onPartitionsRevoked_ShouldGiveReassignedPartitionAFullLimit() throws Exception {
+        // Arrange - the only slot of partition 0 is held by a record that never finishes
+        TransactionParallelConsumer consumer = consumer(1, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        when(rewardService.ingestTransaction(any(TransactionIngestCommand.class))).thenAnswer(invocation -> {
+            release.await(WAIT_MS, TimeUnit.MILLISECONDS);
+            return null;
+        });
+        consumer.handleSenderTransaction(record(0, "txn-1", "user-1"), mock(Acknowledgment.class));
+
+        // Act
+        consumer.onPartitionsRevoked(List.of(new TopicPartition(TOPIC, 0)));
+        Future<?> afterReassignment = executor.submit(() -> {
+            consumer.handleSenderTransaction(record(0, "txn-1", "user-1"), mock(Acknowledgment.class));
+            return null;
+        });
+
+        // Assert
+        afterReassignment.get(WAIT_MS, TimeUnit.MILLISECONDS);
+        release.countDown();
+    }
+
+    private TransactionParallelConsumer consumer(int maxInFlightPerPartition, long retries) {
+        return new TransactionParallelConsumer(rewardService, retryPublisher,
+                new TransactionEventReader(meterRegistry, List.of("COMPLETED")), executor, meterRegistry,
+                maxInFlightPerPartition, retries);
+    }
+
+    private static ConsumerRecord<String, byte[]> record(long offset, String transactionId, String senderId) {
+        byte[] value = TransactionEvent.newBuilder()
+                .setTransactionId(transactionId)
+                .setSenderId(senderId)
+                .setAmount(100.0)
+                .build()
+                .toByteArray();
+        return new ConsumerRecord<>(TOPIC, 0, offset, senderId, value);
+    }
+}
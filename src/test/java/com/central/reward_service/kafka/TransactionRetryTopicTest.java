@@ -0,0 +1,169 @@
+package com.central.reward_service.kafka;
+
+import com.central.reward_service.config.KafkaConsumerConfig;
+import com.central.reward_service.service.RewardService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.kafka.autoconfigure.KafkaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import reward.events.TransactionEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Record mode over an embedded broker: a record that cannot be parsed goes straight to the
+ * dead-letter topic, a record that keeps failing goes there after its retries, and neither
+ * holds up the records behind it.
+ */
+@SpringJUnitConfig
+@EmbeddedKafka(partitions = 1, topics = "txn-sender-events")
+@TestPropertySource(properties = {
+        "kafka.topics.reward_service.receiver=txn-sender-events",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.group-id=reward-service-test",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "app.kafka.retry.attempts=3",
+        "app.kafka.retry.delay-ms=100",
+        "app.kafka.retry.multiplier=2",
+        "app.kafka.retry.max-delay-ms=1000"
+})
+class TransactionRetryTopicTest {
+
+    private static final String TOPIC = "txn-sender-events";
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private RewardService rewardService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void failingRecords_ShouldMoveToRetryAndDeadLetterTopicsWithoutBlockingThePartition() {
+        // Arrange - txn-fail keeps failing with a transient error, the others succeed
+        when(rewardService.ingestTransaction(argThat(command -> command != null
+                && "txn-fail".equals(command.transactionId()))))
+                .thenThrow(new IllegalArgumentException("database unavailable"));
+        KafkaTemplate<String, byte[]> producer = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(broker), new StringSerializer(), new ByteArraySerializer()));
+
+        // Act
+        producer.send(TOPIC, "user-1", "not a protobuf".getBytes());
+        ProducerRecord<String, byte[]> failing = new ProducerRecord<>(TOPIC, "user-1", event("txn-fail"));
+        failing.headers().add("trace-id", "trace-1".getBytes(StandardCharsets.UTF_8));
+        producer.send(failing);
+        producer.send(TOPIC, "user-1", event("txn-ok"));
+        producer.flush();
+
+        // Assert - the record behind the failures is processed right away
+        verify(rewardService, timeout(30_000)).ingestTransaction(argThat(command -> command != null
+                && "txn-ok".equals(command.transactionId())));
+        // txn-fail: first delivery plus two retries
+        verify(rewardService, timeout(30_000).times(3)).ingestTransaction(argThat(command -> command != null
+                && "txn-fail".equals(command.transactionId())));
+
+        List<ConsumerRecord<String, byte[]>> deadLetters = readDeadLetters(2);
+        assertEquals(2, deadLetters.size());
+        assertArrayEquals("not a protobuf".getBytes(), deadLetters.get(0).value());
+        assertNotNull(deadLetters.get(0).headers().lastHeader(KafkaHeaders.EXCEPTION_FQCN));
+        assertNotNull(deadLetters.get(1).headers().lastHeader(KafkaHeaders.ORIGINAL_OFFSET));
+        // Forwarded as received: every field of the event and the producer's headers
+        assertArrayEquals(event("txn-fail"), deadLetters.get(1).value());
+        assertArrayEquals("trace-1".getBytes(StandardCharsets.UTF_8),
+                deadLetters.get(1).headers().lastHeader("trace-id").value());
+        assertEquals(3.0, meterRegistry.get("reward.transaction.retry.depth").tag("outcome", "failed").summary().max());
+    }
+
+    private List<ConsumerRecord<String, byte[]>> readDeadLetters(int count) {
+        try (Consumer<String, byte[]> consumer = new DefaultKafkaConsumerFactory<String, byte[]>(
+                KafkaTestUtils.consumerProps(broker, "dlt-reader", false),
+                new StringDeserializer(), new ByteArrayDeserializer()).createConsumer()) {
+            consumer.subscribe(List.of(TOPIC + "-dlt"));
+            return toList(KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(30), count).records(TOPIC + "-dlt"));
+        }
+    }
+
+    private static <T> List<T> toList(Iterable<T> records) {
+        List<T> list = new ArrayList<>();
+        records.forEach(list::add);
+        return list;
+    }
+
+    private static byte[] event(String transactionId) {
+        return TransactionEvent.newBuilder()
+                .setTransactionId(transactionId)
+                .setSenderId("user-1")
+                .setReceiverId("user-2")
+                .setAmount(100.0)
+                .build()
+                .toByteArray();
+    }
+
+    @Configuration
+    @ImportAutoConfiguration(KafkaAutoConfiguration.class)
+    @Import(KafkaConsumerConfig.class)
+    static class Config {
+
+        @Bean
+        static PropertySourcesPlaceholderConfigurer placeholderConfigurer() {
+            return new PropertySourcesPlaceholderConfigurer();
+        }
+
+        @Bean
+        TaskScheduler taskScheduler() {
+            ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+            scheduler.initialize();
+            return scheduler;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        RewardService rewardService() {
+            return Mockito.mock(RewardService.class);
+        }
+
+        @Bean
+        TransactionEventConsumer transactionEventConsumer(RewardService rewardService, MeterRegistry meterRegistry) {
+            return new TransactionEventConsumer(rewardService,
+                    new TransactionEventReader(meterRegistry, List.of("COMPLETED")), meterRegistry);
+        }
+    }
+}
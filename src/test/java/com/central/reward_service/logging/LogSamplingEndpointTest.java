@@ -0,0 +1,38 @@
+package com.central.reward_service.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogSamplingEndpointTest {
+
+    @Test
+    void sampleRate_ShouldChangeTheSamplerAtRuntime() {
+        // Arrange
+        TransactionLogSampler sampler = new TransactionLogSampler();
+        sampler.setSampleRate(0.01);
+        LogSamplingEndpoint endpoint = new LogSamplingEndpoint(sampler);
+
+        // Act
+        Map<String, Double> response = endpoint.sampleRate(0.5);
+
+        // Assert
+        assertEquals(0.5, sampler.getSampleRate());
+        assertEquals(Map.of("sampleRate", 0.5), response);
+        assertEquals(Map.of("sampleRate", 0.5), endpoint.sampleRate());
+    }
+
+    @Test
+    void sampleRate_OutOfRange_ShouldLeaveRateUnchanged() {
+        // Arrange
+        TransactionLogSampler sampler = new TransactionLogSampler();
+        sampler.setSampleRate(0.01);
+        LogSamplingEndpoint endpoint = new LogSamplingEndpoint(sampler);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> endpoint.sampleRate(2.0));
+        assertEquals(0.01, sampler.getSampleRate());
+    }
+}
@@ -0,0 +1,92 @@
+package com.central.reward_service.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionLogSamplerTest {
+
+    private final LoggerContext context = new LoggerContext();
+
+    private final Logger serviceLogger = context.getLogger("com.central.reward_service.service.RewardServiceImpl");
+
+    private TransactionLogSampler sampler;
+
+    @BeforeEach
+    void setUp() {
+        sampler = new TransactionLogSampler();
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void decide_WhenSampled_ShouldAcceptDebugRegardlessOfLoggerLevel() {
+        // Arrange
+        sampler.setSampleRate(1.0);
+        MDC.put(TransactionLogSampler.SAMPLE_KEY, "txn-1");
+
+        // Act & Assert
+        assertEquals(FilterReply.ACCEPT, decide(serviceLogger, Level.DEBUG));
+        assertEquals(FilterReply.ACCEPT, decide(serviceLogger, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(serviceLogger, Level.TRACE));
+    }
+
+    @Test
+    void decide_WhenNotSampled_ShouldDenyBelowWarnOnly() {
+        // Arrange
+        sampler.setSampleRate(0.0);
+        MDC.put(TransactionLogSampler.SAMPLE_KEY, "txn-1");
+
+        // Act & Assert
+        assertEquals(FilterReply.DENY, decide(serviceLogger, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(serviceLogger, Level.WARN));
+        assertEquals(FilterReply.NEUTRAL, decide(serviceLogger, Level.ERROR));
+    }
+
+    @Test
+    void decide_OutsideTransactionOrPackage_ShouldStayNeutral() {
+        // Arrange
+        sampler.setSampleRate(0.0);
+
+        // Act & Assert - no sample key
+        assertEquals(FilterReply.NEUTRAL, decide(serviceLogger, Level.INFO));
+        // Act & Assert - third-party logger
+        MDC.put(TransactionLogSampler.SAMPLE_KEY, "txn-1");
+        assertEquals(FilterReply.NEUTRAL, decide(context.getLogger("org.apache.kafka.clients.NetworkClient"), Level.INFO));
+    }
+
+    @Test
+    void isSampled_ShouldKeepRoughlyTheConfiguredShareAndBeStablePerKey() {
+        // Arrange
+        sampler.setSampleRate(0.1);
+
+        // Act
+        long sampled = IntStream.range(0, 100_000).filter(i -> sampler.isSampled("txn-" + i)).count();
+
+        // Assert
+        assertTrue(sampled > 9_000 && sampled < 11_000, "sampled " + sampled);
+        assertEquals(sampler.isSampled("txn-42"), sampler.isSampled("txn-42"));
+    }
+
+    @Test
+    void setSampleRate_OutOfRange_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> sampler.setSampleRate(1.5));
+        assertThrows(IllegalArgumentException.class, () -> sampler.setSampleRate(Double.NaN));
+    }
+
+    private FilterReply decide(Logger logger, Level level) {
+        return sampler.decide(null, logger, level, "message", null, null);
+    }
+}
@@ -0,0 +1,40 @@
+package com.central.reward_service.model;
+
+import com.central.reward_service.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RewardCursorTest {
+
+    @Test
+    void encode_ShouldRoundTripToTheMicrosecond() {
+        // Arrange
+        RewardCursor cursor = new RewardCursor(Timestamp.from(Instant.parse("2025-06-01T10:15:30.123456Z")), 7_340_032_000_123L);
+
+        // Act
+        String token = cursor.encode();
+
+        // Assert - opaque and safe in a query string
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+        assertEquals(cursor, RewardCursor.decode(token));
+    }
+
+    @Test
+    void encode_BeforeEpoch_ShouldRoundTrip() {
+        // Arrange
+        RewardCursor cursor = new RewardCursor(Timestamp.from(Instant.parse("1969-12-31T23:59:59.999999Z")), 1L);
+
+        // Act & Assert
+        assertEquals(cursor, RewardCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decode_WithForeignToken_ShouldThrow() {
+        assertThrows(InvalidCursorException.class, () -> RewardCursor.decode("page=2"));
+        assertThrows(InvalidCursorException.class, () -> RewardCursor.decode("AAAA"));
+    }
+}
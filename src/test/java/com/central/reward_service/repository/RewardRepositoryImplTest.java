@@ -0,0 +1,253 @@
+package com.central.reward_service.repository;
+
+import com.central.reward_service.model.ClaimedReward;
+import com.central.reward_service.model.Reward;
+import com.central.reward_service.model.RewardRule;
+import com.central.reward_service.model.RewardStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RewardRepositoryImplTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private RewardRepositoryImpl rewardRepository;
+
+    private Reward reward;
+
+    @BeforeEach
+    void setUp() {
+        reward = reward("txn123", 42L);
+    }
+
+    @Test
+    void insertIfAbsent_WhenInserted_ShouldReturnIdAndSetDefaults() {
+        // Arrange
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        doAnswer(returningRows("txn123"))
+                .when(jdbcTemplate).query(contains("ON CONFLICT (transaction_id) DO NOTHING"), params.capture(),
+                        any(RowCallbackHandler.class));
+
+        // Act
+        Optional<Long> id = rewardRepository.insertIfAbsent(reward);
+
+        // Assert
+        assertEquals(Optional.of(42L), id);
+        assertEquals(42L, params.getValue().getValue("rewardId0"));
+        assertEquals(RewardStatus.UNCLAIMED, reward.getStatus());
+        assertNotNull(reward.getCreatedAt());
+        assertEquals(7L, params.getValue().getValue("rewardRuleId0"));
+        assertEquals("UNCLAIMED", params.getValue().getValue("status0"));
+    }
+
+    @Test
+    void insertIfAbsent_WhenDuplicate_ShouldReturnEmpty() {
+        // Arrange
+        doAnswer(returningRows())
+                .when(jdbcTemplate).query(anyString(), any(MapSqlParameterSource.class), any(RowCallbackHandler.class));
+
+        // Act
+        Optional<Long> id = rewardRepository.insertIfAbsent(reward);
+
+        // Assert
+        assertTrue(id.isEmpty());
+    }
+
+    @Test
+    void insertAllIfAbsent_ShouldInsertInChunksAndSkipDuplicates() {
+        // Arrange - one more reward than fits in a statement, the first one is a duplicate
+        List<Reward> rewards = new ArrayList<>();
+        for (int i = 0; i <= RewardRepositoryImpl.MAX_ROWS_PER_STATEMENT; i++) {
+            rewards.add(reward("txn-" + i, 100L + i));
+        }
+        doAnswer(invocation -> {
+            MapSqlParameterSource params = invocation.getArgument(1);
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (String name : params.getParameterNames()) {
+                if (name.startsWith("transactionId") && !"txn-0".equals(params.getValue(name))) {
+                    emit(handler, (String) params.getValue(name));
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(MapSqlParameterSource.class), any(RowCallbackHandler.class));
+
+        // Act
+        Map<String, Long> inserted = rewardRepository.insertAllIfAbsent(rewards);
+
+        // Assert
+        verify(jdbcTemplate, times(2)).query(anyString(), any(MapSqlParameterSource.class), any(RowCallbackHandler.class));
+        assertEquals(RewardRepositoryImpl.MAX_ROWS_PER_STATEMENT, inserted.size());
+        assertFalse(inserted.containsKey("txn-0"));
+        assertEquals(101L, inserted.get("txn-1"));
+    }
+
+    @Test
+    void claimIfUnclaimed_ShouldClaimInOneConditionalUpdate() {
+        // Arrange
+        Timestamp now = Timestamp.from(Instant.now());
+        ClaimedReward claimed = new ClaimedReward("code", Timestamp.from(Instant.now().plusSeconds(3600)));
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        when(jdbcTemplate.query(contains("AND status = 'UNCLAIMED'"), params.capture(), ArgumentMatchers.<RowMapper<ClaimedReward>>any()))
+                .thenReturn(List.of(claimed));
+
+        // Act
+        Optional<ClaimedReward> result = rewardRepository.claimIfUnclaimed(42L, "new-code", now);
+
+        // Assert
+        assertEquals(Optional.of(claimed), result);
+        assertEquals(42L, params.getValue().getValue("rewardId"));
+        assertEquals(now, params.getValue().getValue("now"));
+    }
+
+    @Test
+    void claimIfUnclaimed_WhenNoRowMatches_ShouldReturnEmpty() {
+        // Arrange
+        when(jdbcTemplate.query(anyString(), any(MapSqlParameterSource.class), ArgumentMatchers.<RowMapper<ClaimedReward>>any()))
+                .thenReturn(List.of());
+
+        // Act & Assert
+        assertTrue(rewardRepository.claimIfUnclaimed(42L, "new-code", Timestamp.from(Instant.now())).isEmpty());
+    }
+
+    @Test
+    void expireOverdue_ShouldSkipLockedRowsAndReturnExpiredIds() {
+        // Arrange
+        Timestamp now = Timestamp.from(Instant.now());
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE SKIP LOCKED"), params.capture(), eq(Long.class)))
+                .thenReturn(List.of(1L, 2L));
+
+        // Act
+        List<Long> expired = rewardRepository.expireOverdue(now, 500);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), expired);
+        assertEquals(500, params.getValue().getValue("limit"));
+        assertEquals(now, params.getValue().getValue("now"));
+    }
+
+    @Test
+    void forEachTransactionId_ShouldStreamWithFetchSize() throws Exception {
+        // Arrange
+        JdbcOperations jdbcOperations = mock(JdbcOperations.class);
+        when(jdbcTemplate.getJdbcOperations()).thenReturn(jdbcOperations);
+        ArgumentCaptor<PreparedStatementCreator> statementCreator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            emit(handler, "txn-1");
+            emit(handler, "txn-2");
+            return null;
+        }).when(jdbcOperations).query(statementCreator.capture(), any(RowCallbackHandler.class));
+        List<String> streamed = new ArrayList<>();
+
+        // Act
+        rewardRepository.forEachTransactionId(streamed::add);
+
+        // Assert
+        assertEquals(List.of("txn-1", "txn-2"), streamed);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        statementCreator.getValue().createPreparedStatement(connection);
+        verify(statement).setFetchSize(RewardRepositoryImpl.STREAM_FETCH_SIZE);
+    }
+
+    @Test
+    void forEachRewardCreatedBetween_ShouldStreamRangeWithFetchSize() throws Exception {
+        // Arrange
+        Timestamp from = Timestamp.from(Instant.parse("2026-01-01T00:00:00Z"));
+        Timestamp to = Timestamp.from(Instant.parse("2026-02-01T00:00:00Z"));
+        JdbcOperations jdbcOperations = mock(JdbcOperations.class);
+        when(jdbcTemplate.getJdbcOperations()).thenReturn(jdbcOperations);
+        ArgumentCaptor<PreparedStatementCreator> statementCreator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        // Columns not stubbed read as null
+        ResultSet rs = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(rs.getLong("reward_id")).thenReturn(42L);
+        when(rs.getString("transaction_id")).thenReturn("txn123");
+        when(rs.getString("status")).thenReturn("CLAIMED");
+        when(rs.getTimestamp("created_at")).thenReturn(from);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcOperations).query(statementCreator.capture(), any(RowCallbackHandler.class));
+        List<Reward> streamed = new ArrayList<>();
+
+        // Act
+        rewardRepository.forEachRewardCreatedBetween(from, to, streamed::add);
+
+        // Assert
+        assertEquals(1, streamed.size());
+        assertEquals(42L, streamed.get(0).getRewardId());
+        assertEquals("txn123", streamed.get(0).getTransactionId());
+        assertEquals(RewardStatus.CLAIMED, streamed.get(0).getStatus());
+        assertEquals(from, streamed.get(0).getCreatedAt());
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(contains("ORDER BY created_at, reward_id"))).thenReturn(statement);
+        statementCreator.getValue().createPreparedStatement(connection);
+        verify(statement).setFetchSize(RewardRepositoryImpl.STREAM_FETCH_SIZE);
+        verify(statement).setTimestamp(1, from);
+        verify(statement).setTimestamp(2, to);
+    }
+
+    private static Answer<Void> returningRows(String... transactionIds) {
+        return invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (String transactionId : transactionIds) {
+                emit(handler, transactionId);
+            }
+            return null;
+        };
+    }
+
+    private static void emit(RowCallbackHandler handler, String transactionId) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("transaction_id")).thenReturn(transactionId);
+        handler.processRow(rs);
+    }
+
+    private static Reward reward(String transactionId, long rewardId) {
+        return Reward.builder()
+                .rewardId(rewardId)
+                .userId("user123")
+                .transactionId(transactionId)
+                .transactionAmount(1500.0)
+                .rewardType("POINTS")
+                .rewardDescription("Gold tier reward")
+                .rewardValue(100.0)
+                .redeemCode("code")
+                .rewardRule(RewardRule.builder().id(7L).build())
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.model.RewardStatus;
+import com.central.reward_service.model.RewardView;
+import com.central.reward_service.repository.RewardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RewardExpirySweeperTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock
+    private RewardRepository rewardRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RewardViewCache cache;
+
+    private RewardExpirySweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RewardViewCache(meterRegistry, 1 << 20, 3_600_000L);
+        sweeper = new RewardExpirySweeper(rewardRepository, new TransactionTemplate(transactionManager),
+                cache, meterRegistry, CHUNK_SIZE);
+    }
+
+    @Test
+    void sweep_ShouldExpireChunksUntilOneComesBackShort() {
+        // Arrange - one full chunk, then the last overdue reward
+        when(rewardRepository.expireOverdue(any(Timestamp.class), eq(CHUNK_SIZE)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+
+        // Act
+        int expired = sweeper.sweep();
+
+        // Assert - each chunk in its own transaction, all with the same cut-off
+        assertEquals(3, expired);
+        ArgumentCaptor<Timestamp> cutOff = ArgumentCaptor.forClass(Timestamp.class);
+        verify(rewardRepository, times(2)).expireOverdue(cutOff.capture(), eq(CHUNK_SIZE));
+        assertEquals(cutOff.getAllValues().get(0), cutOff.getAllValues().get(1));
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(3.0, meterRegistry.get("reward.expiry.swept").counter().count());
+    }
+
+    @Test
+    void sweep_ShouldMarkCachedRewardsExpired() {
+        // Arrange
+        cache.put(view(1L));
+        cache.put(view(9L));
+        when(rewardRepository.expireOverdue(any(Timestamp.class), eq(CHUNK_SIZE))).thenReturn(List.of(1L));
+
+        // Act
+        sweeper.sweep();
+
+        // Assert
+        assertEquals(RewardStatus.EXPIRED, cache.get(1L, id -> fail("should be cached")).join().status());
+        assertEquals(RewardStatus.UNCLAIMED, cache.get(9L, id -> fail("should be cached")).join().status());
+    }
+
+    @Test
+    void sweep_WhenNothingOverdue_ShouldStopAfterOneChunk() {
+        // Arrange
+        when(rewardRepository.expireOverdue(any(Timestamp.class), eq(CHUNK_SIZE))).thenReturn(List.of());
+
+        // Act & Assert
+        assertEquals(0, sweeper.sweep());
+        verify(rewardRepository, times(1)).expireOverdue(any(Timestamp.class), anyInt());
+    }
+
+    private static RewardView view(long rewardId) {
+        return new RewardView(rewardId, "user-1", "txn-" + rewardId, "CASHBACK", "5% cashback", 5.0,
+                new Timestamp(0L), RewardStatus.UNCLAIMED);
+    }
+}
@@ -0,0 +1,154 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.exception.InvalidExportRangeException;
+import com.central.reward_service.kafka.RewardEventProducer;
+import com.central.reward_service.model.Reward;
+import com.central.reward_service.model.RewardExportFormat;
+import com.central.reward_service.model.RewardStatus;
+import com.central.reward_service.repository.RewardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import reward.events.RewardEvent;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RewardExporterTest {
+
+    private static final Instant FROM = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2026-02-01T00:00:00Z");
+
+    @Mock
+    private RewardRepository rewardRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RewardExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        exporter = new RewardExporter(rewardRepository, transactionManager,
+                new RewardEventProducer(null, "reward-generated-events"), jsonMapper, meterRegistry);
+    }
+
+    @Test
+    void export_AsNdjson_ShouldWriteOneObjectPerLine() throws Exception {
+        // Arrange
+        streaming(reward(1L, null), reward(2L, Timestamp.from(FROM.plusSeconds(60))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        exporter.export(FROM, TO, RewardExportFormat.NDJSON).writeTo(out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        JsonNode first = jsonMapper.readTree(lines[0]);
+        assertEquals(1L, first.get("rewardId").asLong());
+        assertEquals("txn-1", first.get("transactionId").asString());
+        assertEquals("UNCLAIMED", first.get("status").asString());
+        assertEquals("2026-01-01T00:00:00Z", first.get("createdAt").asString());
+        assertTrue(first.get("claimedAt").isNull());
+        assertFalse(first.has("redeemCode"));
+        assertEquals("2026-01-01T00:01:00Z", jsonMapper.readTree(lines[1]).get("claimedAt").asString());
+        verify(rewardRepository).forEachRewardCreatedBetween(eq(Timestamp.from(FROM)), eq(Timestamp.from(TO)), any());
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    void export_AsProtobuf_ShouldWriteLengthDelimitedEvents() throws Exception {
+        // Arrange
+        streaming(reward(1L, null), reward(2L, null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        exporter.export(FROM, TO, RewardExportFormat.PROTOBUF).writeTo(out);
+
+        // Assert
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        assertEquals("1", RewardEvent.parseDelimitedFrom(in).getRewardId());
+        assertEquals("txn-2", RewardEvent.parseDelimitedFrom(in).getTransactionId());
+        assertNull(RewardEvent.parseDelimitedFrom(in));
+        assertEquals(2.0, meterRegistry.get("reward.export.rows").tag("format", "PROTOBUF").counter().count());
+        assertEquals(1, meterRegistry.get("reward.export").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void export_WhenClientDisconnects_ShouldStopAndRollBack() throws Exception {
+        // Arrange
+        streaming(reward(1L, null), reward(2L, null));
+        OutputStream closed = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // Act & Assert
+        assertThrows(IOException.class,
+                () -> exporter.export(FROM, TO, RewardExportFormat.PROTOBUF).writeTo(closed));
+        verify(transactionManager).rollback(any());
+        assertEquals(1, meterRegistry.get("reward.export").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void export_WithEmptyRange_ShouldThrowBeforeStreaming() {
+        // Act & Assert
+        assertThrows(InvalidExportRangeException.class, () -> exporter.export(TO, FROM, RewardExportFormat.NDJSON));
+        verifyNoInteractions(rewardRepository, transactionManager);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streaming(Reward... rewards) {
+        doAnswer(invocation -> {
+            Consumer<Reward> action = invocation.getArgument(2);
+            for (Reward reward : rewards) {
+                action.accept(reward);
+            }
+            return null;
+        }).when(rewardRepository).forEachRewardCreatedBetween(any(), any(), any(Consumer.class));
+    }
+
+    private Reward reward(long rewardId, Timestamp claimedAt) {
+        return Reward.builder()
+                .rewardId(rewardId)
+                .userId("user123")
+                .transactionId("txn-" + rewardId)
+                .transactionAmount(100.0)
+                .rewardType("CASHBACK")
+                .rewardDescription("5% cashback")
+                .rewardValue(5.0)
+                .redeemCode("secret")
+                .createdAt(Timestamp.from(FROM))
+                .expiresAt(Timestamp.from(TO))
+                .status(RewardStatus.UNCLAIMED)
+                .claimedAt(claimedAt)
+                .build();
+    }
+}
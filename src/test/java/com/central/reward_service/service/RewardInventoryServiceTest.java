@@ -0,0 +1,274 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.model.CompiledRule;
+import com.central.reward_service.model.RuleSnapshot;
+import com.central.reward_service.repository.RewardRuleInventoryRepository;
+import com.central.reward_service.utils.InventoryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RewardInventoryServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T10:15:30Z");
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    @Mock
+    private RewardRuleInventoryRepository inventoryRepository;
+
+    private MutableClock clock;
+
+    private RewardInventoryService rewardInventoryService;
+
+    private CompiledRule jackpotRule;
+    private CompiledRule cashbackRule;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW);
+        // Run leases inline so tests can observe them
+        rewardInventoryService = new RewardInventoryService(inventoryRepository, Runnable::run, 10, clock);
+
+        jackpotRule = new CompiledRule(7L, "TIER_6", 500000.0, "SUPER_ELITE", "Mega Cashback", 200000.0, 50, 2);
+        cashbackRule = new CompiledRule(8L, "TIER_6", 500000.0, "CASHBACK", "Cashback", 25000.0, 50, null);
+    }
+
+    @Test
+    void counterFor_UncappedRule_ShouldReturnNull() {
+        // Act & Assert
+        assertNull(rewardInventoryService.counterFor(cashbackRule));
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    void counterFor_CappedRule_ShouldLeaseFirstBlock() {
+        // Arrange
+        when(inventoryRepository.leaseBlock(7L, TODAY, 10, 2)).thenReturn(2L);
+
+        // Act
+        InventoryCounter counter = rewardInventoryService.counterFor(jackpotRule);
+
+        // Assert
+        assertEquals(2, counter.remaining());
+        assertFalse(counter.isExhausted());
+    }
+
+    @Test
+    void counterFor_ShouldReuseCounterAcrossRebuilds() {
+        // Arrange
+        when(inventoryRepository.leaseBlock(7L, TODAY, 10, 2)).thenReturn(2L);
+
+        // Act
+        InventoryCounter first = rewardInventoryService.counterFor(jackpotRule);
+        InventoryCounter second = rewardInventoryService.counterFor(jackpotRule);
+
+        // Assert - units already leased are kept, no second lease
+        assertSame(first, second);
+        verify(inventoryRepository, times(1)).leaseBlock(anyLong(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void lease_WhenCapacityUsedUp_ShouldMarkExhausted() {
+        // Arrange
+        when(inventoryRepository.leaseBlock(7L, TODAY, 10, 2)).thenReturn(null);
+
+        // Act
+        InventoryCounter counter = rewardInventoryService.counterFor(jackpotRule);
+
+        // Assert
+        assertTrue(counter.isExhausted());
+        assertFalse(counter.tryAcquire());
+        verify(inventoryRepository, times(1)).leaseBlock(anyLong(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void select_WhenCappedRuleExhausted_ShouldDropItFromDraw() {
+        // Arrange - jackpot and cashback share the tier 50/50, jackpot is capped at 2 per day
+        when(inventoryRepository.leaseBlock(7L, TODAY, 10, 2)).thenReturn(2L).thenReturn(null);
+        RuleSnapshot snapshot = RuleSnapshot.compile(1L, List.of(jackpotRule, cashbackRule),
+                rewardInventoryService::counterFor);
+        SplittableRandom random = new SplittableRandom(42L);
+
+        // Act
+        int jackpots = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (snapshot.select(0, random).id() == jackpotRule.id()) {
+                jackpots++;
+            }
+        }
+
+        // Assert
+        assertEquals(2, jackpots);
+    }
+
+    @Test
+    void select_WhenWholeTierExhausted_ShouldReturnNull() {
+        // Arrange
+        when(inventoryRepository.leaseBlock(7L, TODAY, 10, 2)).thenReturn(null);
+        RuleSnapshot snapshot = RuleSnapshot.compile(1L, List.of(jackpotRule), rewardInventoryService::counterFor);
+
+        // Act & Assert
+        assertNull(snapshot.select(0, new SplittableRandom(42L)));
+    }
+
+    @Test
+    void counterFor_WhenCapacityRaised_ShouldReopenExhaustedRule() {
+        // Arrange
+        when(inventoryRepository.leaseBlock(7L, TODAY, 10, 2)).thenReturn(null);
+        when(inventoryRepository.leaseBlock(7L, TODAY, 10, 5)).thenReturn(3L);
+        InventoryCounter counter = rewardInventoryService.counterFor(jackpotRule);
+        CompiledRule raised = new CompiledRule(7L, "TIER_6", 500000.0, "SUPER_ELITE", "Mega Cashback", 200000.0, 50, 5);
+
+        // Act
+        rewardInventoryService.counterFor(raised);
+
+        // Assert
+        assertFalse(counter.isExhausted());
+        assertEquals(3, counter.remaining());
+    }
+
+    @Test
+    void reconcile_WhenIssuedReachesCapacity_ShouldCloseRule() {
+        // Arrange
+        when(inventoryRepository.leaseBlock(7L, TODAY, 10, 2)).thenReturn(2L);
+        InventoryCounter counter = rewardInventoryService.counterFor(jackpotRule);
+        Timestamp startOfDay = Timestamp.from(TODAY.atStartOfDay(ZoneOffset.UTC).toInstant());
+        when(inventoryRepository.countIssuedSince(7L, startOfDay)).thenReturn(2L);
+
+        // Act
+        rewardInventoryService.reconcile();
+
+        // Assert
+        assertTrue(counter.isExhausted());
+        assertEquals(0, counter.remaining());
+    }
+
+    @Test
+    void reconcile_WhenDayRollsOver_ShouldReopenAndLeaseForNewDay() {
+        // Arrange
+        when(inventoryRepository.leaseBlock(7L, TODAY, 10, 2)).thenReturn(null);
+        InventoryCounter counter = rewardInventoryService.counterFor(jackpotRule);
+        assertTrue(counter.isExhausted());
+        LocalDate tomorrow = TODAY.plusDays(1);
+        when(inventoryRepository.leaseBlock(7L, tomorrow, 10, 2)).thenReturn(2L);
+
+        // Act
+        clock.advance(1, ChronoUnit.DAYS);
+        rewardInventoryService.reconcile();
+
+        // Assert - reopened by the rollover, then leases on the next draw
+        assertFalse(counter.isExhausted());
+        assertFalse(counter.tryAcquire());
+        assertEquals(2, counter.remaining());
+    }
+
+    @Test
+    void tryAcquire_AfterMidnightWithoutReconcile_ShouldNotAwardYesterdaysUnits() {
+        // Arrange - two units leased today, capacity of tomorrow's row already used up
+        when(inventoryRepository.leaseBlock(7L, TODAY, 10, 2)).thenReturn(2L);
+        InventoryCounter counter = rewardInventoryService.counterFor(jackpotRule);
+        when(inventoryRepository.leaseBlock(7L, TODAY.plusDays(1), 10, 2)).thenReturn(null);
+
+        // Act
+        clock.advance(1, ChronoUnit.DAYS);
+        boolean acquired = counter.tryAcquire();
+
+        // Assert
+        assertFalse(acquired);
+        assertEquals(0, counter.remaining());
+        assertTrue(counter.isExhausted());
+    }
+
+    @Test
+    void releaseAll_AfterRollOver_ShouldReleaseToPeriodOfUnits() {
+        // Arrange
+        when(inventoryRepository.leaseBlock(7L, TODAY, 10, 2)).thenReturn(2L);
+        InventoryCounter counter = rewardInventoryService.counterFor(jackpotRule);
+        LocalDate tomorrow = TODAY.plusDays(1);
+        when(inventoryRepository.leaseBlock(7L, tomorrow, 10, 2)).thenReturn(2L);
+        clock.advance(1, ChronoUnit.DAYS);
+        // The first draw drops today's units and leases tomorrow's
+        assertFalse(counter.tryAcquire());
+        assertTrue(counter.tryAcquire());
+
+        // Act
+        rewardInventoryService.releaseAll();
+
+        // Assert
+        verify(inventoryRepository).release(7L, tomorrow, 1);
+        verify(inventoryRepository, never()).release(eq(7L), eq(TODAY), anyLong());
+    }
+
+    @Test
+    void releaseAll_ShouldGiveBackUnusedUnits() {
+        // Arrange
+        when(inventoryRepository.leaseBlock(7L, TODAY, 10, 2)).thenReturn(2L);
+        InventoryCounter counter = rewardInventoryService.counterFor(jackpotRule);
+        assertTrue(counter.tryAcquire());
+
+        // Act
+        rewardInventoryService.releaseAll();
+
+        // Assert
+        verify(inventoryRepository).release(7L, TODAY, 1);
+        assertEquals(0, counter.remaining());
+    }
+
+    @Test
+    void retainOnly_ShouldReleaseCountersOfRemovedRules() {
+        // Arrange
+        when(inventoryRepository.leaseBlock(7L, TODAY, 10, 2)).thenReturn(2L);
+        rewardInventoryService.counterFor(jackpotRule);
+
+        // Act
+        rewardInventoryService.retainOnly(List.of(cashbackRule.id()));
+
+        // Assert
+        verify(inventoryRepository).release(7L, TODAY, 2);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(long amount, ChronoUnit unit) {
+            instant = instant.plus(amount, unit);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.model.RewardStatus;
+import com.central.reward_service.model.RewardView;
+import com.central.reward_service.repository.RewardRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RewardLookupCoalescerTest {
+
+    @Mock
+    private RewardRepository rewardRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RewardLookupCoalescer coalescer;
+
+    // Queries held back until the test runs them, so later lookups see one running
+    private final BlockingQueue<Runnable> queries = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void load_WhenNothingPending_ShouldQueryWithoutWaitingForWindow() {
+        // Arrange - a window that would outlast the test
+        coalescer = coalescer(TimeUnit.MINUTES.toMicros(10), 100);
+        when(rewardRepository.findViewsByRewardIdIn(anyCollection())).thenReturn(List.of(view(1L)));
+
+        // Act
+        CompletableFuture<RewardView> reward = coalescer.load(1L);
+
+        // Assert
+        assertTrue(reward.isDone());
+        assertEquals(view(1L), reward.join());
+        verify(rewardRepository).findViewsByRewardIdIn(Set.of(1L));
+    }
+
+    @Test
+    void load_WhileQueryRuns_ShouldShareOneQueryWithinWindow() throws Exception {
+        // Arrange
+        coalescer = coalescer(50_000, 100, queries::add);
+        when(rewardRepository.findViewsByRewardIdIn(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream().map(this::view).toList());
+
+        // Act - the first lookup is sent alone, the others arrive while it runs
+        CompletableFuture<RewardView> first = coalescer.load(1L);
+        CompletableFuture<RewardView> second = coalescer.load(2L);
+        CompletableFuture<RewardView> third = coalescer.load(3L);
+        CompletableFuture<RewardView> again = coalescer.load(2L);
+        nextQuery().run();
+        nextQuery().run();
+
+        // Assert
+        assertEquals(view(1L), first.join());
+        assertEquals(view(2L), second.join());
+        assertEquals(view(3L), third.join());
+        assertSame(second, again);
+        verify(rewardRepository).findViewsByRewardIdIn(Set.of(1L));
+        verify(rewardRepository).findViewsByRewardIdIn(Set.of(2L, 3L));
+        verify(transactionManager, times(2)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        DistributionSummary batchSize = meterRegistry.get("reward.lookup.batch.size").summary();
+        assertEquals(2, batchSize.count());
+        assertEquals(3.0, batchSize.totalAmount());
+    }
+
+    @Test
+    void load_WhenBatchIsFull_ShouldQueryWithoutWaitingForWindow() {
+        // Arrange - a window that would outlast the test
+        coalescer = coalescer(TimeUnit.MINUTES.toMicros(10), 2, queries::add);
+        when(rewardRepository.findViewsByRewardIdIn(anyCollection())).thenReturn(List.of(view(2L), view(3L)));
+        coalescer.load(1L);
+
+        // Act
+        CompletableFuture<RewardView> second = coalescer.load(2L);
+        CompletableFuture<RewardView> third = coalescer.load(3L);
+
+        // Assert
+        assertEquals(2, queries.size());
+        queries.forEach(Runnable::run);
+        assertTrue(second.isDone());
+        assertEquals(view(3L), third.join());
+    }
+
+    @Test
+    void load_WhenRewardMissing_ShouldCompleteWithNull() {
+        // Arrange
+        coalescer = coalescer(1_000, 100);
+        when(rewardRepository.findViewsByRewardIdIn(anyCollection())).thenReturn(List.of());
+
+        // Act & Assert
+        assertNull(coalescer.load(1L).orTimeout(5, TimeUnit.SECONDS).join());
+    }
+
+    @Test
+    void load_WhenQueryFails_ShouldFailEveryLookupInBatch() {
+        // Arrange
+        coalescer = coalescer(TimeUnit.MINUTES.toMicros(10), 2, queries::add);
+        when(rewardRepository.findViewsByRewardIdIn(anyCollection()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        coalescer.load(1L);
+
+        // Act
+        CompletableFuture<RewardView> second = coalescer.load(2L);
+        CompletableFuture<RewardView> third = coalescer.load(3L);
+        queries.forEach(Runnable::run);
+
+        // Assert
+        CompletionException failure = assertThrows(CompletionException.class, second::join);
+        assertInstanceOf(DataAccessResourceFailureException.class, failure.getCause());
+        assertTrue(third.isCompletedExceptionally());
+    }
+
+    private Runnable nextQuery() throws InterruptedException {
+        Runnable query = queries.poll(5, TimeUnit.SECONDS);
+        assertNotNull(query, "no query dispatched");
+        return query;
+    }
+
+    private RewardLookupCoalescer coalescer(long windowMicros, int maxBatchSize) {
+        return coalescer(windowMicros, maxBatchSize, Runnable::run);
+    }
+
+    private RewardLookupCoalescer coalescer(long windowMicros, int maxBatchSize, Executor queryExecutor) {
+        return new RewardLookupCoalescer(rewardRepository, transactionManager, queryExecutor, meterRegistry,
+                windowMicros, maxBatchSize);
+    }
+
+    private RewardView view(Long rewardId) {
+        return new RewardView(rewardId, "user-1", "txn-" + rewardId, "CASHBACK", "5% cashback", 5.0,
+                new Timestamp(0L), RewardStatus.UNCLAIMED);
+    }
+}
@@ -1,8 +1,11 @@
 package com.central.reward_service.service;
 
+import com.central.reward_service.exception.InvalidRewardRuleException;
 import com.central.reward_service.exception.RewardNotFoundException;
 import com.central.reward_service.model.RewardRule;
+import com.central.reward_service.model.RewardRuleVersion;
 import com.central.reward_service.repository.RewardRuleRepository;
+import com.central.reward_service.repository.RewardRuleVersionRepository;
 import com.central.reward_service.utils.ServiceUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,10 +15,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.openapitools.model.RewardRulePublishRequest;
+import org.openapitools.model.RewardRulePublishResponse;
 import org.openapitools.model.RewardRuleRequest;
 import org.openapitools.model.RewardRuleResponse;
+import org.openapitools.model.RewardRuleSimulationRequest;
+import org.openapitools.model.RewardRuleSimulationResponse;
+import org.openapitools.model.RewardRuleUpdate;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -35,6 +44,15 @@ class RewardRuleServiceImplTest {
     @Mock
     private RewardRuleRepository rewardRuleRepository;
 
+    @Mock
+    private RewardRuleVersionRepository ruleVersionRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private RuleSetSimulator ruleSetSimulator;
+
     @Mock
     private CacheManager cacheManager;
 
@@ -87,6 +105,7 @@ class RewardRuleServiceImplTest {
         assertNotNull(response.getBody());
         assertEquals(1, response.getBody().size());
         verify(rewardRuleRepository).saveAll(any());
+        verify(eventPublisher).publishEvent(any(RewardRulesChangedEvent.class));
     }
 
     @Test
@@ -142,6 +161,7 @@ class RewardRuleServiceImplTest {
         // Assert
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         verify(rewardRuleRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(any(RewardRulesChangedEvent.class));
     }
 
     @Test
@@ -152,6 +172,7 @@ class RewardRuleServiceImplTest {
         // Act & Assert
         assertThrows(RewardNotFoundException.class, 
             () -> rewardRuleService.adminRewardRulesIdDelete(1L));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -192,6 +213,7 @@ class RewardRuleServiceImplTest {
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
+        verify(eventPublisher).publishEvent(any(RewardRulesChangedEvent.class));
     }
 
     @Test
@@ -218,6 +240,7 @@ class RewardRuleServiceImplTest {
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("GOLD", response.getBody().getTierName());
+        verify(eventPublisher).publishEvent(any(RewardRulesChangedEvent.class));
     }
 
     @Test
@@ -231,6 +254,32 @@ class RewardRuleServiceImplTest {
 
         // Assert
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void adminRewardRulesPost_WithUnknownRewardType_ShouldRejectWithoutSaving() {
+        // Arrange
+        testRequest.setRewardType("NEW_PROMO");
+
+        // Act & Assert
+        assertThrows(InvalidRewardRuleException.class,
+            () -> rewardRuleService.adminRewardRulesPost(testRequest));
+        verifyNoInteractions(rewardRuleRepository, eventPublisher);
+    }
+
+    @Test
+    void adminRewardRulesPublishPost_WithUnknownRewardType_ShouldRejectBeforeAnyEdit() {
+        // Arrange
+        RewardRulePublishRequest request = new RewardRulePublishRequest()
+                .update(List.of(new RewardRuleUpdate().id(1L).rule(testRequest)))
+                .create(List.of(new RewardRuleRequest().tierName("GOLD").minTransactionAmount(1000.0)
+                        .rewardType("NEW_PROMO").weight(1)));
+
+        // Act & Assert
+        assertThrows(InvalidRewardRuleException.class,
+            () -> rewardRuleService.adminRewardRulesPublishPost(request));
+        verifyNoInteractions(rewardRuleRepository, eventPublisher);
     }
 
     @Test
@@ -262,4 +311,60 @@ class RewardRuleServiceImplTest {
         // Assert
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
+
+    @Test
+    void adminRewardRulesPublishPost_ShouldApplyAllEditsAndPublishOnce() {
+        // Arrange
+        RewardRulePublishRequest request = new RewardRulePublishRequest()
+                .create(List.of(testRequest))
+                .update(List.of(new RewardRuleUpdate().id(1L).rule(testRequest)))
+                .delete(List.of(2L));
+        when(rewardRuleRepository.findById(1L)).thenReturn(Optional.of(testRule));
+        when(rewardRuleRepository.save(any())).thenReturn(testRule);
+        when(rewardRuleRepository.existsById(2L)).thenReturn(true);
+        when(rewardRuleRepository.saveAll(any())).thenReturn(List.of(testRule));
+        when(ruleVersionRepository.incrementVersion(RewardRuleVersion.SINGLETON_ID)).thenReturn(42L);
+
+        // Act
+        ResponseEntity<RewardRulePublishResponse> response =
+            rewardRuleService.adminRewardRulesPublishPost(request);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getCreated().size());
+        assertEquals(1, response.getBody().getUpdated().size());
+        assertEquals(List.of(2L), response.getBody().getDeleted());
+        assertEquals(42L, response.getBody().getVersion());
+        verify(rewardRuleRepository).deleteById(2L);
+        verify(eventPublisher, times(1)).publishEvent(new RewardRulesChangedEvent("publish", 42L));
+    }
+
+    @Test
+    void adminRewardRulesPublishPost_WhenRuleMissing_ShouldFailWithoutPublishing() {
+        // Arrange
+        RewardRulePublishRequest request = new RewardRulePublishRequest()
+                .update(List.of(new RewardRuleUpdate().id(99L).rule(testRequest)));
+        when(rewardRuleRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RewardNotFoundException.class,
+            () -> rewardRuleService.adminRewardRulesPublishPost(request));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void adminRewardRulesSimulatePost_ShouldNotTouchStoredRules() {
+        // Arrange
+        RewardRuleSimulationRequest request = new RewardRuleSimulationRequest().rules(List.of(testRequest));
+        RewardRuleSimulationResponse simulation = new RewardRuleSimulationResponse().draws(1000L);
+        when(ruleSetSimulator.simulate(request)).thenReturn(simulation);
+
+        // Act
+        ResponseEntity<RewardRuleSimulationResponse> response = rewardRuleService.adminRewardRulesSimulatePost(request);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(simulation, response.getBody());
+        verifyNoInteractions(rewardRuleRepository, ruleVersionRepository, eventPublisher);
+    }
 }
@@ -1,31 +1,58 @@
 package com.central.reward_service.service;
 
+import com.central.reward_service.constants.Constants;
+import com.central.reward_service.exception.InvalidCursorException;
 import com.central.reward_service.exception.RewardClaimException;
 import com.central.reward_service.exception.RewardNotFoundException;
 import com.central.reward_service.kafka.RewardEventProducer;
+import com.central.reward_service.kafka.RewardOutboxRelay;
 import com.central.reward_service.model.Reward;
+import com.central.reward_service.model.RewardOutbox;
+import com.central.reward_service.model.ClaimedReward;
+import com.central.reward_service.model.RewardClaimState;
+import com.central.reward_service.model.RewardCursor;
+import com.central.reward_service.model.RewardOutcome;
+import com.central.reward_service.model.TransactionIngestCommand;
 import com.central.reward_service.model.RewardRule;
 import com.central.reward_service.model.RewardStatus;
+import com.central.reward_service.model.RewardView;
+import com.central.reward_service.model.RuleSnapshot;
+import com.central.reward_service.repository.RewardOutboxRepository;
 import com.central.reward_service.repository.RewardRepository;
+import com.central.reward_service.repository.RewardRuleRepository;
+import com.central.reward_service.utils.InventoryCounter;
+import com.central.reward_service.utils.RewardIdGenerator;
 import com.central.reward_service.utils.ServiceUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.openapitools.model.RewardBatchRequest;
+import org.openapitools.model.RewardBatchResponse;
+import org.openapitools.model.RewardBatchResult;
 import org.openapitools.model.RewardClaimResponse;
 import org.openapitools.model.RewardRequest;
 import org.openapitools.model.RewardResponse;
-import org.springframework.cache.CacheManager;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -37,6 +64,12 @@ class RewardServiceImplTest {
     @Mock
     private RewardRepository rewardRepository;
 
+    @Mock
+    private RewardRuleRepository rewardRuleRepository;
+
+    @Mock
+    private RuleSnapshotManager ruleSnapshotManager;
+
     @Mock
     private ServiceUtils serviceUtils;
 
@@ -44,15 +77,39 @@ class RewardServiceImplTest {
     private RewardEventProducer rewardEventProducer;
 
     @Mock
-    private CacheManager cacheManager;
+    private RewardOutboxRepository rewardOutboxRepository;
+
+    @Mock
+    private RewardIdGenerator rewardIdGenerator;
+
+    @Mock
+    private RewardOutboxRelay rewardOutboxRelay;
+
+    @Mock
+    private RewardLookupCoalescer rewardLookupCoalescer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private RewardViewCache rewardViewCache = new RewardViewCache(new SimpleMeterRegistry(), 1 << 20, 3_600_000L);
+
+    @Spy
+    private TransactionReplayCache transactionReplayCache = new TransactionReplayCache(new SimpleMeterRegistry(), 1_000, 5_000);
+
+    // Not seeded: every id is possibly rewarded and goes to the repository
+    @Spy
+    private TransactionIdFilter transactionIdFilter = new TransactionIdFilter(mock(RewardRepository.class),
+            mock(PlatformTransactionManager.class), Runnable::run, new SimpleMeterRegistry(), 1_000, 0.01);
 
     @InjectMocks
     private RewardServiceImpl rewardService;
 
     private RewardRequest rewardRequest;
     private Reward reward;
+    private RewardView rewardView;
     private RewardRule rewardRule;
-    private TreeMap<Double, List<RewardRule>> rewardRules;
+    private RuleSnapshot rewardRules;
 
     @BeforeEach
     void setUp() {
@@ -82,119 +139,508 @@ class RewardServiceImplTest {
                 .redeemCode(UUID.randomUUID().toString())
                 .expiresAt(Timestamp.from(Instant.now().plusSeconds(86400)))
                 .build();
+        rewardView = new RewardView(1L, "user123", "txn123", "CASHBACK", "5% cashback", 5.0,
+                Timestamp.from(Instant.parse("2025-06-01T10:15:30.123456Z")), RewardStatus.UNCLAIMED);
 
-        rewardRules = new TreeMap<>();
-        rewardRules.put(50.0, Arrays.asList(rewardRule));
+        rewardRules = RuleSnapshot.compile(1L, List.of(ServiceUtils.constructCompiledRule(rewardRule)));
     }
 
     @Test
     void processTransaction_WhenNewTransaction_ShouldProcessSuccessfully() {
         // Arrange
-        when(rewardRepository.existsByTransactionId(anyString())).thenReturn(false);
-        when(serviceUtils.getCachedRewardRules()).thenReturn(rewardRules);
-        when(rewardRepository.save(any(Reward.class))).thenReturn(reward);
-        when(serviceUtils.constructRewardResponse(any(Reward.class))).thenReturn(new RewardResponse());
+        when(ruleSnapshotManager.current()).thenReturn(rewardRules);
+        when(rewardRepository.insertIfAbsent(any(Reward.class))).thenReturn(Optional.of(1L));
+        when(rewardEventProducer.toOutboxEntry(any(Reward.class))).thenReturn(Optional.of(new RewardOutbox()));
+        when(serviceUtils.constructRewardViewResponse(any(RewardView.class))).thenReturn(new RewardResponse());
 
         // Act
         ResponseEntity<RewardResponse> response = rewardService.processTransaction(rewardRequest);
 
         // Assert
         assertNotNull(response);
-        verify(rewardRepository, times(1)).save(any(Reward.class));
-        verify(rewardEventProducer, times(1)).sendRewardEvent(any(Reward.class));
+        verify(rewardRepository, times(1)).insertIfAbsent(any(Reward.class));
+        verify(rewardRepository, never()).existsByTransactionId(anyString());
+        verify(rewardRepository, never()).save(any(Reward.class));
+        verify(rewardOutboxRepository, times(1)).insertAll(argThat(events -> events.size() == 1));
+        verify(rewardOutboxRelay, times(1)).relayAfterCommit();
+        verify(rewardViewCache, times(1)).put(argThat(view -> "txn123".equals(view.transactionId())));
+    }
+
+    @Test
+    void processTransaction_WhenDuplicateTransaction_ShouldReturnOriginalReward() {
+        // Arrange
+        when(ruleSnapshotManager.current()).thenReturn(rewardRules);
+        when(rewardRepository.insertIfAbsent(any(Reward.class))).thenReturn(Optional.empty());
+        when(rewardRepository.findViewByTransactionId("txn123")).thenReturn(Optional.of(rewardView));
+        RewardResponse original = new RewardResponse();
+        when(serviceUtils.constructRewardViewResponse(rewardView)).thenReturn(original);
+
+        // Act
+        ResponseEntity<RewardResponse> response = rewardService.processTransaction(rewardRequest);
+
+        // Assert
+        assertSame(original, response.getBody());
+        verify(rewardOutboxRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void processTransaction_WhenRepeated_ShouldReplayWithoutDrawing() {
+        // Arrange - the first call rewards the transaction
+        when(ruleSnapshotManager.current()).thenReturn(rewardRules);
+        when(rewardRepository.insertIfAbsent(any(Reward.class))).thenReturn(Optional.of(1L));
+        when(rewardEventProducer.toOutboxEntry(any(Reward.class))).thenReturn(Optional.of(new RewardOutbox()));
+        when(serviceUtils.constructRewardViewResponse(any(RewardView.class))).thenReturn(new RewardResponse());
+        rewardService.processTransaction(rewardRequest);
+
+        // Act
+        rewardService.processTransaction(rewardRequest);
+
+        // Assert - the repeat is answered from the caches: no draw, no insert, no query
+        verify(ruleSnapshotManager, times(1)).current();
+        verify(rewardRepository, times(1)).insertIfAbsent(any(Reward.class));
+        verify(rewardLookupCoalescer, never()).load(anyLong());
+        verify(serviceUtils, times(2)).constructRewardViewResponse(argThat(view -> "txn123".equals(view.transactionId())));
+    }
+
+    @Test
+    void processTransaction_WhenDuplicateDrawsCappedRule_ShouldReturnUnit() {
+        // Arrange - one capped rule with a single unit left
+        InventoryCounter counter = new InventoryCounter(1L, 1, 0, c -> { });
+        counter.add(1);
+        RuleSnapshot cappedRules = RuleSnapshot.compile(1L,
+                List.of(ServiceUtils.constructCompiledRule(rewardRule)), rule -> counter);
+        when(ruleSnapshotManager.current()).thenReturn(cappedRules);
+        when(rewardRepository.insertIfAbsent(any(Reward.class))).thenReturn(Optional.empty());
+        when(rewardRepository.findViewByTransactionId("txn123")).thenReturn(Optional.of(rewardView));
+
+        // Act
+        rewardService.processTransaction(rewardRequest);
+
+        // Assert
+        assertEquals(1, counter.remaining());
+    }
+
+    @Test
+    void processTransactionBatch_ShouldClassifyEveryRequest() {
+        // Arrange - new, already in DB, repeated in batch, below every tier, lost a race on insert
+        List<TransactionIngestCommand> commands = List.of(
+                command("txn-new", 100.0),
+                command("txn-existing", 100.0),
+                command("txn-new", 100.0),
+                command("txn-small", 10.0),
+                command("txn-raced", 100.0));
+        when(rewardRepository.findExistingTransactionIds(anyCollection())).thenReturn(Set.of("txn-existing"));
+        when(ruleSnapshotManager.current()).thenReturn(rewardRules);
+        when(rewardRepository.insertAllIfAbsent(anyList())).thenReturn(Map.of("txn-new", 11L));
+        when(rewardEventProducer.toOutboxEntry(any(Reward.class))).thenReturn(Optional.of(new RewardOutbox()));
+
+        // Act
+        List<RewardOutcome> outcomes = rewardService.processTransactionBatch(commands);
+
+        // Assert
+        assertEquals(RewardOutcome.Status.CREATED, outcomes.get(0).status());
+        assertEquals(RewardOutcome.Status.DUPLICATE, outcomes.get(1).status());
+        assertEquals(RewardOutcome.Status.DUPLICATE, outcomes.get(2).status());
+        assertEquals(RewardOutcome.Status.REJECTED, outcomes.get(3).status());
+        assertEquals(Constants.NO_REWARD_TIER, outcomes.get(3).error());
+        assertEquals(RewardOutcome.Status.DUPLICATE, outcomes.get(4).status());
+        verify(rewardRepository, times(1)).findExistingTransactionIds(anyCollection());
+        verify(rewardRepository, times(1)).insertAllIfAbsent(argThat(rewards -> rewards.size() == 2));
+        verify(rewardEventProducer, times(1)).toOutboxEntry(outcomes.get(0).reward());
+        verify(rewardOutboxRepository, times(1)).insertAll(argThat(events -> events.size() == 1));
+        verify(rewardOutboxRelay, times(1)).relayAfterCommit();
+    }
+
+    @Test
+    void processTransactionBatch_WhenFilterHasNeverSeenIds_ShouldSkipDuplicateQuery() {
+        // Arrange - seeded from an empty table
+        transactionIdFilter.seed();
+        when(ruleSnapshotManager.current()).thenReturn(rewardRules);
+        when(rewardRepository.insertAllIfAbsent(anyList())).thenReturn(Map.of("txn-a", 11L, "txn-b", 12L));
+
+        // Act
+        List<RewardOutcome> outcomes = rewardService.processTransactionBatch(
+                List.of(command("txn-a", 100.0), command("txn-b", 100.0)));
+
+        // Assert - and both ids are known to the filter afterwards
+        assertEquals(RewardOutcome.Status.CREATED, outcomes.get(0).status());
+        assertEquals(RewardOutcome.Status.CREATED, outcomes.get(1).status());
+        verify(rewardRepository, never()).findExistingTransactionIds(anyCollection());
+        assertEquals(Set.of("txn-a"), transactionIdFilter.findRewarded(List.of("txn-a", "txn-c"), Set::copyOf));
+    }
+
+    @Test
+    void processTransactions_ShouldReturnResultPerItem() {
+        // Arrange - new, already rewarded, below every tier
+        RewardRequest small = new RewardRequest();
+        small.setUserId("user123");
+        small.setTransactionId("txn-small");
+        small.setTransactionAmount(10.0);
+        RewardRequest existing = new RewardRequest();
+        existing.setUserId("user123");
+        existing.setTransactionId("txn-existing");
+        existing.setTransactionAmount(100.0);
+        RewardBatchRequest request = RewardBatchRequest.builder()
+                .transactions(List.of(rewardRequest, existing, small))
+                .build();
+        RewardView original = new RewardView(9L, "user123", "txn-existing", "CASHBACK", "5% cashback", 5.0,
+                Timestamp.from(Instant.now()), RewardStatus.CLAIMED);
+        when(rewardRepository.findExistingTransactionIds(anyCollection())).thenReturn(Set.of("txn-existing"));
+        when(ruleSnapshotManager.current()).thenReturn(rewardRules);
+        when(rewardRepository.insertAllIfAbsent(anyList())).thenAnswer(invocation -> {
+            List<Reward> rewards = invocation.getArgument(0);
+            rewards.forEach(Reward::prePersist);
+            return Map.of("txn123", 11L);
+        });
+        when(rewardRepository.findViewsByTransactionIdIn(Set.of("txn-existing"))).thenReturn(List.of(original));
+        ServiceUtils realUtils = new ServiceUtils();
+        when(serviceUtils.constructRewardBatchResult(any(RewardOutcome.class), any()))
+                .thenAnswer(invocation -> realUtils.constructRewardBatchResult(invocation.getArgument(0), invocation.getArgument(1)));
+
+        // Act
+        ResponseEntity<RewardBatchResponse> response = rewardService.processTransactions(request);
+
+        // Assert - in request order, one insert for the whole batch
+        List<RewardBatchResult> results = response.getBody().getResults();
+        assertEquals(3, results.size());
+        assertEquals(RewardBatchResult.OutcomeEnum.CREATED, results.get(0).getOutcome());
+        assertEquals("txn123", results.get(0).getReward().getTransactionId());
+        assertEquals(RewardBatchResult.OutcomeEnum.DUPLICATE, results.get(1).getOutcome());
+        assertEquals(9L, results.get(1).getReward().getRewardId());
+        assertEquals(RewardBatchResult.OutcomeEnum.ERROR, results.get(2).getOutcome());
+        assertEquals(Constants.NO_REWARD_TIER, results.get(2).getErrorMessage());
+        verify(rewardRepository, times(1)).insertAllIfAbsent(argThat(rewards -> rewards.size() == 1));
+    }
+
+    @Test
+    void processTransactions_WhenBatchFails_ShouldRetryEachItemAndReportFailures() {
+        // Arrange - the batch insert fails, then the first item stores on its own and the second does not
+        RewardRequest other = new RewardRequest();
+        other.setUserId("user123");
+        other.setTransactionId("txn-other");
+        other.setTransactionAmount(100.0);
+        RewardBatchRequest request = RewardBatchRequest.builder()
+                .transactions(List.of(rewardRequest, other))
+                .build();
+        when(ruleSnapshotManager.current()).thenReturn(rewardRules);
+        when(rewardRepository.insertAllIfAbsent(anyList())).thenAnswer(invocation -> {
+            List<Reward> rewards = invocation.getArgument(0);
+            if (rewards.size() > 1 || "txn-other".equals(rewards.getFirst().getTransactionId())) {
+                throw new DataAccessResourceFailureException("connection reset");
+            }
+            rewards.forEach(Reward::prePersist);
+            return Map.of("txn123", 11L);
+        });
+        ServiceUtils realUtils = new ServiceUtils();
+        when(serviceUtils.constructRewardBatchResult(any(RewardOutcome.class), any()))
+                .thenAnswer(invocation -> realUtils.constructRewardBatchResult(invocation.getArgument(0), invocation.getArgument(1)));
+
+        // Act
+        ResponseEntity<RewardBatchResponse> response = rewardService.processTransactions(request);
+
+        // Assert - one transaction for the batch, then one per item
+        List<RewardBatchResult> results = response.getBody().getResults();
+        assertEquals(RewardBatchResult.OutcomeEnum.CREATED, results.get(0).getOutcome());
+        assertEquals(RewardBatchResult.OutcomeEnum.ERROR, results.get(1).getOutcome());
+        assertEquals(Constants.TRANSACTION_NOT_STORED, results.get(1).getErrorMessage());
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    void processTransactionBatch_WhenInsertFails_ShouldReturnUnits() {
+        // Arrange - one capped rule with a single unit left
+        InventoryCounter counter = new InventoryCounter(1L, 1, 0, c -> { });
+        counter.add(1);
+        RuleSnapshot cappedRules = RuleSnapshot.compile(1L,
+                List.of(ServiceUtils.constructCompiledRule(rewardRule)), rule -> counter);
+        when(ruleSnapshotManager.current()).thenReturn(cappedRules);
+        when(rewardRepository.insertAllIfAbsent(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+        // Act & Assert
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> rewardService.processTransactionBatch(List.of(command("txn123", 100.0))));
+        assertEquals(1, counter.remaining());
+        verify(rewardOutboxRelay, never()).relayAfterCommit();
+    }
+
+    @Test
+    void processTransactionBatch_WhenAllDuplicates_ShouldNotInsert() {
+        // Arrange
+        when(rewardRepository.findExistingTransactionIds(anyCollection())).thenReturn(Set.of("txn123"));
+        when(ruleSnapshotManager.current()).thenReturn(rewardRules);
+
+        // Act
+        List<RewardOutcome> outcomes = rewardService.processTransactionBatch(List.of(command("txn123", 100.0)));
+
+        // Assert
+        assertEquals(RewardOutcome.Status.DUPLICATE, outcomes.get(0).status());
+        verify(rewardRepository, never()).insertAllIfAbsent(anyList());
     }
 
     @Test
-    void processTransaction_WhenDuplicateTransaction_ShouldThrowException() {
+    void processTransaction_WhenAmountBelowLowestTier_ShouldThrowException() {
         // Arrange
-        when(rewardRepository.existsByTransactionId(anyString())).thenReturn(true);
+        rewardRequest.setTransactionAmount(10.0);
+        when(ruleSnapshotManager.current()).thenReturn(rewardRules);
 
         // Act & Assert
-        assertThrows(IllegalStateException.class, () -> 
+        assertThrows(IllegalStateException.class, () ->
             rewardService.processTransaction(rewardRequest));
+        verify(rewardRepository, never()).insertIfAbsent(any(Reward.class));
     }
 
     @Test
     void claimReward_WhenValid_ShouldClaimSuccessfully() {
         // Arrange
-        reward.setStatus(RewardStatus.UNCLAIMED);
-        when(rewardRepository.findById(anyLong())).thenReturn(Optional.of(reward));
-        when(rewardRepository.save(any(Reward.class))).thenReturn(reward);
+        when(rewardRepository.claimIfUnclaimed(eq(1L), anyString(), any(Timestamp.class)))
+                .thenReturn(Optional.of(new ClaimedReward("code-1", reward.getExpiresAt())));
 
         // Act
         ResponseEntity<RewardClaimResponse> response = rewardService.claimReward(1L);
 
         // Assert
-        assertNotNull(response);
-        assertEquals(RewardStatus.CLAIMED, reward.getStatus());
-        assertNotNull(reward.getClaimedAt());
+        assertNotNull(response.getBody());
+        assertEquals(RewardClaimResponse.RewardStatusEnum.CLAIMED, response.getBody().getRewardStatus());
+        assertEquals("code-1", response.getBody().getRedeemCode());
+        verify(rewardRepository, never()).findClaimStateById(anyLong());
+        verify(rewardRepository, never()).save(any(Reward.class));
+        verify(rewardViewCache, times(1)).updateStatus(1L, RewardStatus.CLAIMED);
+    }
+
+    @Test
+    void claimReward_ShouldUpdateCachedReward() {
+        // Arrange - the reward was read, and cached, before the claim
+        when(rewardLookupCoalescer.load(1L)).thenReturn(CompletableFuture.completedFuture(rewardView));
+        when(serviceUtils.constructRewardViewResponse(any(RewardView.class))).thenReturn(new RewardResponse());
+        rewardService.getRewardById(1L);
+        when(rewardRepository.claimIfUnclaimed(eq(1L), anyString(), any(Timestamp.class)))
+                .thenReturn(Optional.of(new ClaimedReward("code-1", reward.getExpiresAt())));
+
+        // Act
+        rewardService.claimReward(1L);
+        rewardService.getRewardById(1L);
+
+        // Assert - the second read is served from the cache, with the new status
+        verify(rewardLookupCoalescer, times(1)).load(1L);
+        verify(serviceUtils).constructRewardViewResponse(rewardView.withStatus(RewardStatus.CLAIMED));
     }
 
     @Test
     void claimReward_WhenAlreadyClaimed_ShouldThrowException() {
         // Arrange
-        reward.setStatus(RewardStatus.CLAIMED);
-        when(rewardRepository.findById(anyLong())).thenReturn(Optional.of(reward));
+        when(rewardRepository.claimIfUnclaimed(eq(1L), anyString(), any(Timestamp.class))).thenReturn(Optional.empty());
+        when(rewardRepository.findClaimStateById(1L)).thenReturn(Optional.of(claimState(RewardStatus.CLAIMED, 3600)));
 
         // Act & Assert
-        assertThrows(RewardClaimException.class, () -> 
+        RewardClaimException exception = assertThrows(RewardClaimException.class, () ->
             rewardService.claimReward(1L));
+        assertEquals(Constants.INVALID_REWARD_STATE + RewardStatus.CLAIMED, exception.getMessage());
     }
 
     @Test
     void claimReward_WhenExpired_ShouldThrowException() {
+        // Arrange - still UNCLAIMED in the table, but past its expiry so the update did not match
+        when(rewardRepository.claimIfUnclaimed(eq(1L), anyString(), any(Timestamp.class))).thenReturn(Optional.empty());
+        when(rewardRepository.findClaimStateById(1L)).thenReturn(Optional.of(claimState(RewardStatus.UNCLAIMED, -60)));
+
+        // Act & Assert
+        RewardClaimException exception = assertThrows(RewardClaimException.class, () ->
+            rewardService.claimReward(1L));
+        assertEquals(Constants.REWARD_ALREADY_CLAIMED, exception.getMessage());
+    }
+
+    @Test
+    void claimReward_WhenMarkedExpired_ShouldThrowExpiredError() {
         // Arrange
-        reward.setStatus(RewardStatus.UNCLAIMED);
-        reward.setExpiresAt(Timestamp.from(Instant.now().minusSeconds(3600)));
-        when(rewardRepository.findById(anyLong())).thenReturn(Optional.of(reward));
+        when(rewardRepository.claimIfUnclaimed(eq(1L), anyString(), any(Timestamp.class))).thenReturn(Optional.empty());
+        when(rewardRepository.findClaimStateById(1L)).thenReturn(Optional.of(claimState(RewardStatus.EXPIRED, -60)));
 
         // Act & Assert
-        assertThrows(RewardClaimException.class, () -> 
+        RewardClaimException exception = assertThrows(RewardClaimException.class, () ->
             rewardService.claimReward(1L));
-        assertEquals(RewardStatus.EXPIRED, reward.getStatus());
+        assertEquals(Constants.REWARD_ALREADY_CLAIMED, exception.getMessage());
+    }
+
+    @Test
+    void claimReward_WhenMissing_ShouldThrowNotFound() {
+        // Arrange
+        when(rewardRepository.claimIfUnclaimed(eq(1L), anyString(), any(Timestamp.class))).thenReturn(Optional.empty());
+        when(rewardRepository.findClaimStateById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RewardNotFoundException.class, () -> rewardService.claimReward(1L));
+    }
+
+    @Test
+    void claimReward_WhenClaimedConcurrently_ShouldLetExactlyOneWin() throws Exception {
+        // Arrange - the repository behaves like the conditional update: only the first claim matches the row
+        AtomicBoolean unclaimed = new AtomicBoolean(true);
+        when(rewardRepository.claimIfUnclaimed(eq(1L), anyString(), any(Timestamp.class)))
+                .thenAnswer(invocation -> unclaimed.compareAndSet(true, false)
+                        ? Optional.of(new ClaimedReward("code-1", reward.getExpiresAt()))
+                        : Optional.empty());
+        when(rewardRepository.findClaimStateById(1L)).thenReturn(Optional.of(claimState(RewardStatus.CLAIMED, 3600)));
+        int claimers = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger won = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(claimers)) {
+            for (int i = 0; i < claimers; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    try {
+                        rewardService.claimReward(1L);
+                        won.incrementAndGet();
+                    } catch (RewardClaimException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        // Assert
+        assertEquals(1, won.get());
+        assertEquals(claimers - 1, rejected.get());
     }
 
     @Test
     void getRewardById_WhenExists_ShouldReturnReward() {
         // Arrange
-        when(rewardRepository.findById(anyLong())).thenReturn(Optional.of(reward));
-        when(serviceUtils.constructRewardResponse(any(Reward.class))).thenReturn(new RewardResponse());
+        when(rewardLookupCoalescer.load(anyLong())).thenReturn(CompletableFuture.completedFuture(rewardView));
+        when(serviceUtils.constructRewardViewResponse(any(RewardView.class))).thenReturn(new RewardResponse());
 
         // Act
         ResponseEntity<RewardResponse> response = rewardService.getRewardById(1L);
 
         // Assert
         assertNotNull(response);
-        verify(rewardRepository, times(1)).findById(1L);
+        verify(rewardLookupCoalescer, times(1)).load(1L);
+        verify(rewardRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getRewardById_WhenCached_ShouldNotQueryAgain() {
+        // Arrange
+        when(rewardLookupCoalescer.load(1L)).thenReturn(CompletableFuture.completedFuture(rewardView));
+        when(serviceUtils.constructRewardViewResponse(rewardView)).thenReturn(new RewardResponse());
+
+        // Act
+        rewardService.getRewardById(1L);
+        rewardService.getRewardById(1L);
+
+        // Assert
+        verify(rewardLookupCoalescer, times(1)).load(1L);
     }
 
     @Test
     void getRewardById_WhenNotExists_ShouldThrowException() {
         // Arrange
-        when(rewardRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(rewardLookupCoalescer.load(anyLong())).thenReturn(CompletableFuture.completedFuture(null));
 
         // Act & Assert
         assertThrows(RewardNotFoundException.class, () -> 
             rewardService.getRewardById(999L));
     }
 
+    @Test
+    void getRewardById_WhenLookupFails_ShouldRethrowCause() {
+        // Arrange
+        when(rewardLookupCoalescer.load(1L))
+                .thenReturn(CompletableFuture.failedFuture(new DataAccessResourceFailureException("connection refused")));
+
+        // Act & Assert
+        assertThrows(DataAccessResourceFailureException.class, () -> rewardService.getRewardById(1L));
+    }
+
+    @Test
+    void getRewardsByIds_ShouldReturnFoundRewardsInRequestOrder() {
+        // Arrange - 3 is cached, 2 does not exist
+        RewardView other = new RewardView(3L, "user123", "txn456", rewardView.rewardType(),
+                rewardView.rewardDescription(), rewardView.rewardValue(), rewardView.createdAt(), rewardView.status());
+        rewardViewCache.put(other);
+        when(rewardLookupCoalescer.load(1L)).thenReturn(CompletableFuture.completedFuture(rewardView));
+        when(rewardLookupCoalescer.load(2L)).thenReturn(CompletableFuture.completedFuture(null));
+        when(serviceUtils.constructRewardViewResponse(any(RewardView.class)))
+                .thenAnswer(invocation -> RewardResponse.builder()
+                        .rewardId(invocation.<RewardView>getArgument(0).rewardId())
+                        .build());
+
+        // Act
+        ResponseEntity<List<RewardResponse>> response = rewardService.getRewardsByIds(List.of(3L, 1L, 2L, 1L));
+
+        // Assert - each id is looked up once, the cached one not at all
+        assertNotNull(response.getBody());
+        assertEquals(List.of(3L, 1L), response.getBody().stream().map(RewardResponse::getRewardId).toList());
+        verify(rewardLookupCoalescer, times(1)).load(1L);
+        verify(rewardLookupCoalescer, times(1)).load(2L);
+        verify(rewardLookupCoalescer, never()).load(3L);
+    }
+
     @Test
     void getUserRewards_ShouldReturnPaginatedResults() {
         // Arrange
-        Page<Reward> page = new PageImpl<>(Arrays.asList(reward));
-        when(rewardRepository.findByUserIdOrderByCreatedAtDesc(anyString(), any(PageRequest.class)))
-            .thenReturn(page);
-        when(serviceUtils.constructRewardResponse(any(Reward.class))).thenReturn(new RewardResponse());
+        Slice<RewardView> slice = new SliceImpl<>(List.of(rewardView));
+        when(rewardRepository.findViewsByUserId(anyString(), any(PageRequest.class)))
+            .thenReturn(slice);
+        when(serviceUtils.constructRewardViewResponse(any(RewardView.class))).thenReturn(new RewardResponse());
 
         // Act
-        ResponseEntity<List<RewardResponse>> response = 
-            rewardService.getUserRewards("user123", 0, 10);
+        ResponseEntity<List<RewardResponse>> response =
+            rewardService.getUserRewards("user123", 0, 10, null);
 
-        // Assert
+        // Assert - last page: no cursor to follow
         assertNotNull(response);
         assertFalse(response.getBody().isEmpty());
+        assertNull(response.getHeaders().getFirst(Constants.NEXT_CURSOR_HEADER));
         verify(rewardRepository, times(1))
-            .findByUserIdOrderByCreatedAtDesc(eq("user123"), any(PageRequest.class));
+            .findViewsByUserId(eq("user123"), eq(PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void getUserRewards_WhenMorePages_ShouldReturnCursorOfLastReward() {
+        // Arrange
+        Slice<RewardView> slice = new SliceImpl<>(List.of(rewardView), PageRequest.ofSize(1), true);
+        when(rewardRepository.findViewsByUserId(anyString(), any(PageRequest.class)))
+            .thenReturn(slice);
+        when(serviceUtils.constructRewardViewResponse(any(RewardView.class))).thenReturn(new RewardResponse());
+
+        // Act
+        ResponseEntity<List<RewardResponse>> response = rewardService.getUserRewards("user123", 0, 1, null);
+
+        // Assert
+        String cursor = response.getHeaders().getFirst(Constants.NEXT_CURSOR_HEADER);
+        assertEquals(RewardCursor.of(rewardView), RewardCursor.decode(cursor));
+    }
+
+    @Test
+    void getUserRewards_WithCursor_ShouldSeekPastItWithoutOffset() {
+        // Arrange
+        RewardCursor cursor = new RewardCursor(Timestamp.from(Instant.parse("2025-06-01T10:15:30.123456Z")), 42L);
+        when(rewardRepository.findViewsByUserIdBefore(anyString(), any(Timestamp.class), anyLong(), any(PageRequest.class)))
+            .thenReturn(new SliceImpl<>(List.of(rewardView)));
+        when(serviceUtils.constructRewardViewResponse(any(RewardView.class))).thenReturn(new RewardResponse());
+
+        // Act
+        ResponseEntity<List<RewardResponse>> response =
+            rewardService.getUserRewards("user123", 7, 10, cursor.encode());
+
+        // Assert - the page number is ignored
+        assertEquals(1, response.getBody().size());
+        verify(rewardRepository).findViewsByUserIdBefore("user123", cursor.createdAt(), 42L, PageRequest.ofSize(10));
+        verify(rewardRepository, never()).findViewsByUserId(anyString(), any());
+    }
+
+    @Test
+    void getUserRewards_WithMalformedCursor_ShouldThrow() {
+        assertThrows(InvalidCursorException.class, () ->
+            rewardService.getUserRewards("user123", 0, 10, "not-a-cursor"));
+        verifyNoInteractions(rewardRepository);
     }
 
 //    @Test
@@ -250,4 +696,12 @@ class RewardServiceImplTest {
 //        // Assert
 //        assertTrue(counts.get(rule2) > counts.get(rule1));
 //    }
+
+    private static TransactionIngestCommand command(String transactionId, double amount) {
+        return new TransactionIngestCommand(transactionId, "user123", amount);
+    }
+
+    private static RewardClaimState claimState(RewardStatus status, long expiresInSeconds) {
+        return new RewardClaimState(status, Timestamp.from(Instant.now().plusSeconds(expiresInSeconds)));
+    }
 }
@@ -0,0 +1,127 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.model.RewardStatus;
+import com.central.reward_service.model.RewardView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.sql.Timestamp;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RewardViewCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RewardViewCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RewardViewCache(meterRegistry, 1 << 20, 3_600_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndRecordHitsAndMisses() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return loaded(id);
+        });
+        RewardView cached = cache.get(1L, id -> fail("should be cached")).join();
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals(view(1L), cached);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "reward_views").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "reward_views").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void get_WhenNotFound_ShouldNotCacheAbsence() {
+        // Act
+        assertNull(cache.get(1L, id -> CompletableFuture.completedFuture(null)).join());
+
+        // Assert - the next read looks again
+        assertEquals(view(1L), cache.get(1L, this::loaded).join());
+    }
+
+    @Test
+    void updateStatus_InTransaction_ShouldApplyOnlyAfterCommit() {
+        // Arrange
+        cache.put(view(1L));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        cache.updateStatus(1L, RewardStatus.CLAIMED);
+
+        // Assert
+        assertEquals(RewardStatus.UNCLAIMED, cache.get(1L, id -> fail("should be cached")).join().status());
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertEquals(RewardStatus.CLAIMED, cache.get(1L, id -> fail("should be cached")).join().status());
+    }
+
+    @Test
+    void updateStatus_WhenNotCached_ShouldNotCache() {
+        // Act
+        cache.updateStatus(1L, RewardStatus.EXPIRED);
+
+        // Assert
+        assertEquals(RewardStatus.UNCLAIMED, cache.get(1L, this::loaded).join().status());
+    }
+
+    @Test
+    void updateStatus_WhileLoading_ShouldApplyToLoadedReward() {
+        // Arrange - the load read the reward before the claim committed
+        CompletableFuture<RewardView> load = new CompletableFuture<>();
+        CompletableFuture<RewardView> reward = cache.get(1L, id -> load);
+
+        // Act
+        cache.updateStatus(1L, RewardStatus.CLAIMED);
+        load.complete(view(1L));
+
+        // Assert
+        assertEquals(RewardStatus.UNCLAIMED, reward.join().status());
+        assertEquals(RewardStatus.CLAIMED, cache.get(1L, id -> fail("should be cached")).join().status());
+    }
+
+    @Test
+    void weigh_ShouldGrowWithStringContents() {
+        // Arrange
+        RewardView shortView = view(1L);
+        RewardView longView = new RewardView(1L, shortView.userId(), shortView.transactionId(),
+                shortView.rewardType(), shortView.rewardDescription() + " on every order this month",
+                shortView.rewardValue(), shortView.createdAt(), shortView.status());
+
+        // Act & Assert
+        assertEquals(26, RewardViewCache.weigh(1L, longView) - RewardViewCache.weigh(1L, shortView));
+        assertTrue(RewardViewCache.weigh(1L, shortView) < 400);
+    }
+
+    private CompletableFuture<RewardView> loaded(Long rewardId) {
+        return CompletableFuture.completedFuture(view(rewardId));
+    }
+
+    private RewardView view(Long rewardId) {
+        return new RewardView(rewardId, "user-1", "txn-" + rewardId, "CASHBACK", "5% cashback", 5.0,
+                new Timestamp(0L), RewardStatus.UNCLAIMED);
+    }
+}
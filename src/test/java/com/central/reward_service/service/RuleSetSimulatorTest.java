@@ -0,0 +1,138 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.exception.InvalidSimulationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openapitools.model.AmountBucket;
+import org.openapitools.model.RewardRuleRequest;
+import org.openapitools.model.RewardRuleSimulationRequest;
+import org.openapitools.model.RewardRuleSimulationResponse;
+import org.openapitools.model.RewardTypeOutcome;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleSetSimulatorTest {
+
+    private ExecutorService cpuExecutor;
+
+    private RuleSetSimulator ruleSetSimulator;
+
+    private RewardRuleRequest pointsRule;
+    private RewardRuleRequest cashbackRule;
+    private RewardRuleRequest jackpotRule;
+
+    @BeforeEach
+    void setUp() {
+        cpuExecutor = Executors.newFixedThreadPool(4);
+        ruleSetSimulator = new RuleSetSimulator(cpuExecutor);
+
+        pointsRule = rule("TIER_1", 0.0, "POINTS", 10.0, 90);
+        cashbackRule = rule("TIER_1", 0.0, "CASHBACK", 100.0, 10);
+        jackpotRule = rule("TIER_2", 1000.0, "JACKPOT", 5000.0, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cpuExecutor.shutdownNow();
+    }
+
+    @Test
+    void simulate_ShouldEstimateExpectedCostAndHistogram() {
+        // Arrange - single tier, expected cost = 0.9 * 10 + 0.1 * 100 = 19
+        RewardRuleSimulationRequest request = new RewardRuleSimulationRequest()
+                .rules(List.of(pointsRule, cashbackRule))
+                .amountDistribution(List.of(bucket(0.0, 500.0, 1)))
+                .draws(1_000_000L)
+                .seed(42L);
+
+        // Act
+        RewardRuleSimulationResponse response = ruleSetSimulator.simulate(request);
+
+        // Assert
+        assertEquals(1_000_000L, response.getDraws());
+        assertEquals(19.0, response.getExpectedCostPerTransaction(), 0.3);
+        assertEquals(0.0, response.getUnrewardedShare());
+
+        RewardTypeOutcome points = response.getRewardTypes().get(0);
+        RewardTypeOutcome cashback = response.getRewardTypes().get(1);
+        assertEquals("POINTS", points.getRewardType());
+        assertEquals(0.9, points.getShare(), 0.005);
+        assertEquals(0.1, cashback.getShare(), 0.005);
+        assertEquals(1_000_000L, points.getCount() + cashback.getCount());
+
+        // 10% of transactions pay 100, so the 99th percentile is 100
+        assertEquals(100.0, response.getTailPayout().getP99());
+        assertEquals(100.0, response.getTailPayout().getMax());
+    }
+
+    @Test
+    void simulate_WithSameSeed_ShouldBeReproducibleAcrossPoolSizes() {
+        // Arrange
+        RewardRuleSimulationRequest request = new RewardRuleSimulationRequest()
+                .rules(List.of(pointsRule, cashbackRule, jackpotRule))
+                .amountDistribution(List.of(bucket(0.0, 1000.0, 9), bucket(1000.0, 5000.0, 1)))
+                .draws(600_000L)
+                .seed(7L);
+        RuleSetSimulator singleThreaded = new RuleSetSimulator(Runnable::run);
+
+        // Act
+        RewardRuleSimulationResponse first = ruleSetSimulator.simulate(request);
+        RewardRuleSimulationResponse second = singleThreaded.simulate(request);
+
+        // Assert
+        assertEquals(first, second);
+    }
+
+    @Test
+    void simulate_ShouldReportTiersAndUnrewardedTransactions() {
+        // Arrange - half of the amounts fall below the only tier
+        RewardRuleSimulationRequest request = new RewardRuleSimulationRequest()
+                .rules(List.of(jackpotRule))
+                .amountDistribution(List.of(bucket(0.0, 999.0, 1), bucket(1000.0, 2000.0, 1)))
+                .draws(100_000L)
+                .seed(1L);
+
+        // Act
+        RewardRuleSimulationResponse response = ruleSetSimulator.simulate(request);
+
+        // Assert
+        assertEquals(0.5, response.getUnrewardedShare(), 0.01);
+        assertEquals(1, response.getTiers().size());
+        assertEquals(1000.0, response.getTiers().get(0).getMinTransactionAmount());
+        assertEquals(5000.0, response.getTiers().get(0).getExpectedCost());
+        assertEquals(5000.0, response.getTailPayout().getP99());
+    }
+
+    @Test
+    void simulate_WithOnlyInactiveRules_ShouldThrowException() {
+        // Arrange
+        pointsRule.setActive(false);
+        RewardRuleSimulationRequest request = new RewardRuleSimulationRequest()
+                .rules(List.of(pointsRule))
+                .amountDistribution(List.of(bucket(0.0, 100.0, 1)));
+
+        // Act & Assert
+        assertThrows(InvalidSimulationException.class, () -> ruleSetSimulator.simulate(request));
+    }
+
+    private static RewardRuleRequest rule(String tierName, double minAmount, String rewardType,
+                                          double rewardValue, int weight) {
+        RewardRuleRequest request = new RewardRuleRequest();
+        request.setTierName(tierName);
+        request.setMinTransactionAmount(minAmount);
+        request.setRewardType(rewardType);
+        request.setRewardValue(rewardValue);
+        request.setWeight(weight);
+        request.setActive(true);
+        return request;
+    }
+
+    private static AmountBucket bucket(double minAmount, double maxAmount, int weight) {
+        return new AmountBucket().minAmount(minAmount).maxAmount(maxAmount).weight(weight);
+    }
+}
@@ -0,0 +1,234 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.model.RewardRule;
+import com.central.reward_service.model.RuleSnapshot;
+import com.central.reward_service.repository.RewardRuleRepository;
+import com.central.reward_service.repository.RewardRuleVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RuleSnapshotManagerTest {
+
+    @Mock
+    private RewardRuleRepository ruleRepository;
+
+    @Mock
+    private RewardRuleVersionRepository ruleVersionRepository;
+
+    @Mock
+    private RewardInventoryService rewardInventoryService;
+
+    private RuleSnapshotManager ruleSnapshotManager;
+
+    private RewardRule goldRule;
+    private RewardRule anotherGoldRule;
+    private RewardRule platinumRule;
+
+    @BeforeEach
+    void setUp() {
+        // Run rebuilds inline so tests can observe them
+        ruleSnapshotManager = new RuleSnapshotManager(ruleRepository, ruleVersionRepository, rewardInventoryService, Runnable::run);
+
+        goldRule = RewardRule.builder()
+                .id(1L)
+                .tierName("GOLD")
+                .minTransactionAmount(1000.0)
+                .rewardType("POINTS")
+                .rewardValue(100.0)
+                .weight(1)
+                .active(true)
+                .description("Gold tier reward")
+                .build();
+
+        anotherGoldRule = RewardRule.builder()
+                .id(3L)
+                .tierName("GOLD_EXTRA")
+                .minTransactionAmount(1000.0)
+                .rewardType("CASHBACK")
+                .rewardValue(150.0)
+                .weight(1)
+                .active(true)
+                .description("Additional gold rule")
+                .build();
+
+        platinumRule = RewardRule.builder()
+                .id(2L)
+                .tierName("PLATINUM")
+                .minTransactionAmount(5000.0)
+                .rewardType("CASHBACK")
+                .rewardValue(200.0)
+                .weight(2)
+                .active(true)
+                .description("Platinum tier reward")
+                .build();
+    }
+
+    @Test
+    void refresh_ShouldGroupActiveRulesIntoSortedTiers() {
+        // Arrange
+        when(ruleRepository.findByActiveTrue()).thenReturn(Arrays.asList(platinumRule, goldRule, anotherGoldRule));
+
+        // Act
+        RuleSnapshot snapshot = ruleSnapshotManager.refresh();
+
+        // Assert
+        assertEquals(2, snapshot.tierCount()); // Should have 2 tiers (1000.0 and 5000.0)
+        assertEquals(1000.0, snapshot.tierBoundary(0));
+        assertEquals(5000.0, snapshot.tierBoundary(1));
+        assertEquals(2, snapshot.tierSize(0)); // Should have 2 rules for 1000.0
+        assertEquals(1, snapshot.tierSize(1)); // Should have 1 rule for 5000.0
+        assertEquals(1L, snapshot.rule(0, 0).id());
+        assertEquals(3L, snapshot.rule(0, 1).id());
+    }
+
+    @Test
+    void refresh_WithNoActiveRules_ShouldReturnEmptySnapshot() {
+        // Arrange
+        when(ruleRepository.findByActiveTrue()).thenReturn(List.of());
+
+        // Act
+        RuleSnapshot snapshot = ruleSnapshotManager.refresh();
+
+        // Assert
+        assertTrue(snapshot.isEmpty());
+        assertEquals(RuleSnapshot.NO_TIER, snapshot.tierIndexFor(1_000_000.0));
+    }
+
+    @Test
+    void tierIndexFor_ShouldReturnClosestTierAtOrBelowAmount() {
+        // Arrange
+        when(ruleRepository.findByActiveTrue()).thenReturn(Arrays.asList(goldRule, platinumRule));
+        RuleSnapshot snapshot = ruleSnapshotManager.refresh();
+
+        // Act & Assert
+        assertEquals(RuleSnapshot.NO_TIER, snapshot.tierIndexFor(999.99));
+        assertEquals(0, snapshot.tierIndexFor(1000.0));
+        assertEquals(0, snapshot.tierIndexFor(4999.99));
+        assertEquals(1, snapshot.tierIndexFor(5000.0));
+        assertEquals(1, snapshot.tierIndexFor(1_000_000.0));
+    }
+
+    @Test
+    void refresh_ShouldPublishNewVersion() {
+        // Arrange
+        when(ruleRepository.findByActiveTrue()).thenReturn(List.of(goldRule));
+        when(ruleVersionRepository.currentVersion()).thenReturn(1L, 2L);
+
+        // Act
+        RuleSnapshot first = ruleSnapshotManager.current();
+        RuleSnapshot second = ruleSnapshotManager.refresh();
+
+        // Assert
+        assertEquals(1L, first.getVersion());
+        assertEquals(2L, second.getVersion());
+        assertSame(second, ruleSnapshotManager.current());
+        verify(ruleRepository, times(2)).findByActiveTrue();
+    }
+
+    @Test
+    void current_ShouldNotReloadOncePublished() {
+        // Arrange
+        when(ruleRepository.findByActiveTrue()).thenReturn(List.of(goldRule));
+
+        // Act
+        RuleSnapshot first = ruleSnapshotManager.current();
+        RuleSnapshot second = ruleSnapshotManager.current();
+
+        // Assert
+        assertSame(first, second);
+        verify(ruleRepository, times(1)).findByActiveTrue();
+    }
+
+    @Test
+    void onRewardRulesChanged_ShouldRebuildAndSwapSnapshot() {
+        // Arrange
+        when(ruleRepository.findByActiveTrue())
+                .thenReturn(List.of(goldRule))
+                .thenReturn(List.of(goldRule, platinumRule));
+        RuleSnapshot before = ruleSnapshotManager.current();
+
+        // Act
+        ruleSnapshotManager.onRewardRulesChanged(new RewardRulesChangedEvent("test", 2L));
+
+        // Assert
+        RuleSnapshot after = ruleSnapshotManager.current();
+        assertNotSame(before, after);
+        assertEquals(1, before.tierCount()); // In-flight readers keep the old version
+        assertEquals(2, after.tierCount());
+    }
+
+    @Test
+    void refreshAsync_WhenRebuildFails_ShouldKeepCurrentSnapshot() {
+        // Arrange
+        when(ruleRepository.findByActiveTrue())
+                .thenReturn(List.of(goldRule))
+                .thenThrow(new RuntimeException("DB Error"));
+        RuleSnapshot before = ruleSnapshotManager.current();
+
+        // Act
+        ruleSnapshotManager.refreshAsync();
+
+        // Assert
+        assertSame(before, ruleSnapshotManager.current());
+    }
+
+    @Test
+    void refreshAsync_ShouldFoldChangesIntoQueuedRebuild() {
+        // Arrange - an executor that queues tasks instead of running them
+        List<Runnable> queued = new ArrayList<>();
+        RuleSnapshotManager manager = new RuleSnapshotManager(ruleRepository, ruleVersionRepository, rewardInventoryService, queued::add);
+        when(ruleRepository.findByActiveTrue()).thenReturn(List.of(goldRule));
+
+        // Act
+        manager.refreshAsync();
+        manager.refreshAsync();
+        manager.refreshAsync();
+        queued.forEach(Runnable::run);
+
+        // Assert
+        assertEquals(1, queued.size());
+        verify(ruleRepository, times(1)).findByActiveTrue();
+    }
+
+    @Test
+    void onRemoteVersion_WhenNewer_ShouldRebuild() {
+        // Arrange
+        when(ruleRepository.findByActiveTrue()).thenReturn(List.of(goldRule));
+        when(ruleVersionRepository.currentVersion()).thenReturn(3L, 5L);
+        ruleSnapshotManager.current();
+
+        // Act
+        ruleSnapshotManager.onRemoteVersion(5L);
+
+        // Assert
+        assertEquals(5L, ruleSnapshotManager.current().getVersion());
+        verify(ruleRepository, times(2)).findByActiveTrue();
+    }
+
+    @Test
+    void onRemoteVersion_WhenNotNewer_ShouldKeepSnapshot() {
+        // Arrange
+        when(ruleRepository.findByActiveTrue()).thenReturn(List.of(goldRule));
+        when(ruleVersionRepository.currentVersion()).thenReturn(5L);
+        RuleSnapshot before = ruleSnapshotManager.current();
+
+        // Act
+        ruleSnapshotManager.onRemoteVersion(5L);
+        ruleSnapshotManager.onRemoteVersion(4L);
+
+        // Assert
+        assertSame(before, ruleSnapshotManager.current());
+        verify(ruleRepository, times(1)).findByActiveTrue();
+    }
+}
@@ -0,0 +1,135 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.repository.RewardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionIdFilterTest {
+
+    @Mock
+    private RewardRepository rewardRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TransactionIdFilter filter;
+
+    private List<Collection<String>> lookups;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new TransactionIdFilter(rewardRepository, transactionManager, Runnable::run, meterRegistry, 1_000, 0.01);
+        lookups = new ArrayList<>();
+    }
+
+    @Test
+    void findRewarded_BeforeSeeding_ShouldLookUpEveryId() {
+        // Act
+        Set<String> rewarded = filter.findRewarded(List.of("txn-1", "txn-2"), this::lookup);
+
+        // Assert
+        assertEquals(Set.of("txn-1"), rewarded);
+        assertEquals(List.of(List.of("txn-1", "txn-2")), lookups);
+    }
+
+    @Test
+    void findRewarded_AfterSeeding_ShouldLookUpOnlyPossibleHits() {
+        // Arrange - the table holds txn-1, txn-9 is stored later by this replica
+        seedWith("txn-1");
+        filter.add("txn-9");
+
+        // Act
+        Set<String> rewarded = filter.findRewarded(List.of("txn-1", "txn-2", "txn-9"), this::lookup);
+
+        // Assert
+        assertEquals(Set.of("txn-1"), rewarded);
+        assertEquals(List.of(List.of("txn-1", "txn-9")), lookups);
+        assertEquals(1.0, checks("definite_miss"));
+        assertEquals(2.0, checks("possible_hit"));
+        assertEquals(1.0, checks("false_positive"));
+    }
+
+    @Test
+    void findRewarded_WhenAllIdsAreNew_ShouldNotQuery() {
+        // Arrange
+        seedWith("txn-1");
+
+        // Act
+        Set<String> rewarded = filter.findRewarded(List.of("txn-2", "txn-3"), this::lookup);
+
+        // Assert
+        assertTrue(rewarded.isEmpty());
+        assertTrue(lookups.isEmpty());
+    }
+
+    @Test
+    void seed_ShouldStreamInReadOnlyTransactionAndPublishMetrics() {
+        // Act
+        seedWith("txn-1", "txn-2");
+
+        // Assert
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        assertEquals(1, meterRegistry.get("reward.transaction.filter.rebuild").timer().count());
+        assertEquals(2.0, meterRegistry.get("reward.transaction.filter.entries").gauge().value());
+        assertTrue(meterRegistry.get("reward.transaction.filter.memory").gauge().value() > 0);
+        assertTrue(meterRegistry.get("reward.transaction.filter.false_positive.expected").gauge().value() < 0.01);
+    }
+
+    @Test
+    void seed_WhenQueryFails_ShouldKeepLookingUpEveryId() {
+        // Arrange
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .when(rewardRepository).forEachTransactionId(any());
+
+        // Act
+        filter.onApplicationReady();
+        filter.findRewarded(List.of("txn-2"), this::lookup);
+
+        // Assert
+        assertEquals(List.of(List.of("txn-2")), lookups);
+        assertEquals(0, meterRegistry.get("reward.transaction.filter.rebuild").timer().count());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void seedWith(String... transactionIds) {
+        doAnswer(invocation -> {
+            Consumer<String> action = invocation.getArgument(0);
+            for (String transactionId : transactionIds) {
+                action.accept(transactionId);
+            }
+            return null;
+        }).when(rewardRepository).forEachTransactionId(any(Consumer.class));
+        filter.onApplicationReady();
+    }
+
+    // Only txn-1 is stored in the DB
+    private Set<String> lookup(Collection<String> transactionIds) {
+        lookups.add(List.copyOf(transactionIds));
+        return transactionIds.contains("txn-1") ? Set.of("txn-1") : Set.of();
+    }
+
+    private double checks(String result) {
+        return meterRegistry.get("reward.transaction.filter.checks").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,170 @@
+package com.central.reward_service.service;
+
+import com.central.reward_service.exception.TransactionInProgressException;
+import com.central.reward_service.model.RewardStatus;
+import com.central.reward_service.model.RewardView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionReplayCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TransactionReplayCache cache;
+
+    private AtomicInteger ingests;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TransactionReplayCache(meterRegistry, 1_000, 5_000);
+        ingests = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rewardFor_WhenRepeated_ShouldReplayOriginalReward() {
+        // Act
+        RewardView first = cache.rewardFor("txn-1", () -> ingest(7L), this::replay);
+        RewardView repeat = cache.rewardFor("txn-1", () -> ingest(8L), this::replay);
+
+        // Assert
+        assertEquals(1, ingests.get());
+        assertEquals(7L, first.rewardId());
+        assertEquals(7L, repeat.rewardId());
+        assertEquals("replayed", repeat.rewardDescription());
+    }
+
+    @Test
+    void rewardFor_WhenCalledConcurrently_ShouldIngestOnce() throws Exception {
+        // Arrange - the first call holds the ingest until every other call is waiting for it
+        int callers = 16;
+        CountDownLatch othersWaiting = new CountDownLatch(1);
+        List<Future<RewardView>> results = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cache.rewardFor("txn-1", () -> {
+                    await(othersWaiting);
+                    return ingest(7L);
+                }, this::replay)));
+            }
+            while (meterRegistry.get("reward.replay.collapsed").counter().count() < callers - 1) {
+                Thread.sleep(5);
+            }
+            othersWaiting.countDown();
+        }
+
+        // Assert
+        assertEquals(1, ingests.get());
+        for (Future<RewardView> result : results) {
+            assertEquals(7L, result.get().rewardId());
+        }
+    }
+
+    @Test
+    void rewardFor_WhenIngestFails_ShouldLetNextCallIngest() {
+        // Arrange
+        assertThrows(IllegalStateException.class, () -> cache.rewardFor("txn-1", () -> {
+            throw new IllegalStateException("No reward tier");
+        }, this::replay));
+
+        // Act
+        RewardView reward = cache.rewardFor("txn-1", () -> ingest(7L), this::replay);
+
+        // Assert
+        assertEquals(1, ingests.get());
+        assertEquals(7L, reward.rewardId());
+    }
+
+    @Test
+    void rewardFor_InTransaction_ShouldRememberRewardOnlyOnCommit() {
+        // Arrange - ingested in a transaction that rolls back
+        TransactionSynchronizationManager.initSynchronization();
+        cache.rewardFor("txn-1", () -> ingest(7L), this::replay);
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Act - the retry commits
+        TransactionSynchronizationManager.initSynchronization();
+        cache.rewardFor("txn-1", () -> ingest(8L), this::replay);
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        RewardView repeat = cache.rewardFor("txn-1", () -> ingest(9L), this::replay);
+
+        // Assert
+        assertEquals(2, ingests.get());
+        assertEquals(8L, repeat.rewardId());
+    }
+
+    @Test
+    void rewardFor_WhenConcurrentIngestOutlastsTimeout_ShouldFailAsRetryable() throws Exception {
+        // Arrange - the first call's transaction never completes
+        TransactionReplayCache shortWait = new TransactionReplayCache(meterRegistry, 1_000, 50);
+        TransactionSynchronizationManager.initSynchronization();
+        shortWait.rewardFor("txn-1", () -> ingest(7L), this::replay);
+
+        // Act
+        Future<RewardView> repeat;
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            repeat = executor.submit(() -> shortWait.rewardFor("txn-1", () -> ingest(8L), this::replay));
+        }
+
+        // Assert - not an IllegalStateException, which consumers would take as a final rejection
+        ExecutionException failure = assertThrows(ExecutionException.class, repeat::get);
+        assertInstanceOf(TransactionInProgressException.class, failure.getCause());
+        assertEquals(1, ingests.get());
+    }
+
+    private static void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+    }
+
+    private RewardView ingest(long rewardId) {
+        ingests.incrementAndGet();
+        return view(rewardId, "5% cashback");
+    }
+
+    private RewardView replay(Long rewardId) {
+        return view(rewardId, "replayed");
+    }
+
+    private static RewardView view(long rewardId, String description) {
+        return new RewardView(rewardId, "user-1", "txn-1", "CASHBACK", description, 5.0,
+                new Timestamp(0L), RewardStatus.UNCLAIMED);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(e);
+        }
+    }
+}
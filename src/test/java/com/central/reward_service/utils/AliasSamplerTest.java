@@ -0,0 +1,89 @@
+package com.central.reward_service.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AliasSamplerTest {
+
+    // TIER_1 weights from RewardRuleDataLoader
+    private static final int[] TIER_1_WEIGHTS = {35, 25, 15, 10, 5, 4, 3, 2, 1};
+
+    // Chi-square critical value for 8 degrees of freedom at p = 0.001
+    private static final double CHI_SQUARE_CRITICAL_DF8 = 26.124;
+
+    @Test
+    void next_ShouldMatchConfiguredWeightDistribution() {
+        // Arrange
+        AliasSampler sampler = AliasSampler.of(TIER_1_WEIGHTS);
+        SplittableRandom random = new SplittableRandom(42L);
+        int draws = 1_000_000;
+        long[] counts = new long[TIER_1_WEIGHTS.length];
+
+        // Act
+        for (int i = 0; i < draws; i++) {
+            counts[sampler.next(random)]++;
+        }
+
+        // Assert - Pearson chi-square goodness of fit against the configured weights
+        int totalWeight = 0;
+        for (int weight : TIER_1_WEIGHTS) {
+            totalWeight += weight;
+        }
+        double chiSquare = 0;
+        for (int i = 0; i < TIER_1_WEIGHTS.length; i++) {
+            double expected = (double) draws * TIER_1_WEIGHTS[i] / totalWeight;
+            double diff = counts[i] - expected;
+            chiSquare += diff * diff / expected;
+        }
+        assertTrue(chiSquare < CHI_SQUARE_CRITICAL_DF8,
+                "Distribution does not match weights, chi-square = " + chiSquare);
+    }
+
+    @Test
+    void next_WithSingleOption_ShouldAlwaysReturnIt() {
+        AliasSampler sampler = AliasSampler.of(new int[]{7});
+        SplittableRandom random = new SplittableRandom(1L);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, sampler.next(random));
+        }
+    }
+
+    @Test
+    void next_WithAllZeroWeights_ShouldSelectUniformly() {
+        // Arrange
+        AliasSampler sampler = AliasSampler.of(new int[]{0, 0, 0, 0});
+        SplittableRandom random = new SplittableRandom(7L);
+        int draws = 400_000;
+        long[] counts = new long[4];
+
+        // Act
+        for (int i = 0; i < draws; i++) {
+            counts[sampler.next(random)]++;
+        }
+
+        // Assert - each option within 2% of its fair share
+        for (long count : counts) {
+            assertEquals(draws / 4.0, count, draws / 4.0 * 0.02);
+        }
+    }
+
+    @Test
+    void next_ShouldNeverSelectZeroWeightOptionWhenOthersArePositive() {
+        AliasSampler sampler = AliasSampler.of(new int[]{0, 3, 0, 1});
+        SplittableRandom random = new SplittableRandom(3L);
+
+        for (int i = 0; i < 100_000; i++) {
+            int selected = sampler.next(random);
+            assertTrue(selected == 1 || selected == 3);
+        }
+    }
+
+    @Test
+    void of_WithNoWeights_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> AliasSampler.of(new int[0]));
+    }
+}
@@ -0,0 +1,153 @@
+package com.central.reward_service.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryCounterTest {
+
+    @Test
+    void tryAcquire_UnderContention_ShouldNeverHandOutMoreThanAdded() throws Exception {
+        // Arrange
+        InventoryCounter counter = new InventoryCounter(1L, 1_000, 0, c -> { });
+        counter.add(1_000);
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int acquired = 0;
+                for (int i = 0; i < 500; i++) {
+                    if (counter.tryAcquire()) {
+                        acquired++;
+                    }
+                }
+                return acquired;
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(1_000, total);
+        assertEquals(0, counter.remaining());
+    }
+
+    @Test
+    void tryAcquire_WhenEmpty_ShouldRequestOneRefill() {
+        // Arrange
+        AtomicInteger refills = new AtomicInteger();
+        InventoryCounter counter = new InventoryCounter(1L, 10, 0, c -> refills.incrementAndGet());
+
+        // Act
+        boolean first = counter.tryAcquire();
+        boolean second = counter.tryAcquire();
+
+        // Assert - the second request is folded into the pending one
+        assertFalse(first);
+        assertFalse(second);
+        assertEquals(1, refills.get());
+
+        // And a new request goes out once the refill has completed
+        counter.refillCompleted();
+        counter.tryAcquire();
+        assertEquals(2, refills.get());
+    }
+
+    @Test
+    void tryAcquire_BelowLowWater_ShouldRequestRefillAhead() {
+        // Arrange
+        AtomicInteger refills = new AtomicInteger();
+        InventoryCounter counter = new InventoryCounter(1L, 10, 5, c -> refills.incrementAndGet());
+        counter.add(1);
+
+        // Act
+        boolean acquired = counter.tryAcquire();
+
+        // Assert
+        assertTrue(acquired);
+        assertEquals(1, refills.get());
+    }
+
+    @Test
+    void exhausted_ShouldStopRefillsButKeepRemainingUnits() {
+        // Arrange
+        AtomicInteger refills = new AtomicInteger();
+        InventoryCounter counter = new InventoryCounter(1L, 10, 0, c -> refills.incrementAndGet());
+        counter.add(1);
+        counter.markExhausted();
+
+        // Act & Assert
+        assertTrue(counter.tryAcquire());
+        assertFalse(counter.tryAcquire());
+        assertEquals(0, refills.get());
+
+        counter.reopen();
+        counter.tryAcquire();
+        assertEquals(1, refills.get());
+    }
+
+    @Test
+    void drain_ShouldRemoveAndReturnAllUnits() {
+        // Arrange
+        InventoryCounter counter = new InventoryCounter(1L, 100, 0, c -> { });
+        counter.add(37);
+
+        // Act
+        long drained = counter.drain();
+
+        // Assert
+        assertEquals(37, drained);
+        assertEquals(0, counter.remaining());
+    }
+
+    @Test
+    void tryAcquire_InNewPeriod_ShouldDropUnitsOfPreviousPeriod() {
+        // Arrange
+        AtomicLong period = new AtomicLong(100);
+        AtomicInteger refills = new AtomicInteger();
+        InventoryCounter counter = new InventoryCounter(1L, 10, 0, c -> refills.incrementAndGet(), period::get);
+        counter.add(5, 100);
+        counter.markExhausted();
+
+        // Act
+        period.set(101);
+        boolean acquired = counter.tryAcquire();
+
+        // Assert - dropped, reopened and asking for the new period's units
+        assertFalse(acquired);
+        assertEquals(0, counter.remaining());
+        assertEquals(101, counter.getPeriod());
+        assertFalse(counter.isExhausted());
+        assertEquals(1, refills.get());
+    }
+
+    @Test
+    void add_ForEarlierPeriod_ShouldDropBlock() {
+        // Arrange
+        InventoryCounter counter = new InventoryCounter(1L, 10, 0, c -> { }, () -> 101L);
+
+        // Act & Assert
+        assertFalse(counter.add(5, 100));
+        assertEquals(0, counter.remaining());
+        assertTrue(counter.add(5, 101));
+        assertEquals(5, counter.remaining());
+    }
+}
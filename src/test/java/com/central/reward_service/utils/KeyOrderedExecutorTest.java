@@ -0,0 +1,83 @@
+package com.central.reward_service.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyOrderedExecutorTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final KeyOrderedExecutor keyOrderedExecutor = new KeyOrderedExecutor(executor);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void submit_SameKey_ShouldRunInSubmissionOrder() {
+        // Arrange
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            int value = i;
+            futures.add(keyOrderedExecutor.submit("user-1", () -> order.add(value)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        // Assert
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, order.get(i));
+        }
+    }
+
+    @Test
+    void submit_DifferentKeys_ShouldRunInParallel() throws Exception {
+        // Arrange - the first key's task only finishes once the second key's task has run
+        CountDownLatch secondRan = new CountDownLatch(1);
+
+        // Act
+        CompletableFuture<Void> first = keyOrderedExecutor.submit("user-1", () -> {
+            try {
+                assertTrue(secondRan.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        keyOrderedExecutor.submit("user-2", secondRan::countDown).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void submit_AfterFailure_ShouldRunNextTaskOfKeyAndForgetIdleKeys() {
+        // Arrange
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+
+        // Act
+        CompletableFuture<Void> failing = keyOrderedExecutor.submit("user-1", () -> {
+            throw new IllegalStateException("boom");
+        });
+        CompletableFuture<Void> next = keyOrderedExecutor.submit("user-1", () -> ran.add("next"));
+        next.join();
+
+        // Assert
+        assertTrue(failing.isCompletedExceptionally());
+        assertEquals(List.of("next"), ran);
+        assertEquals(0, keyOrderedExecutor.activeKeys());
+    }
+}
@@ -0,0 +1,102 @@
+package com.central.reward_service.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RewardIdGeneratorTest {
+
+    private static final long NOW = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+
+    @Test
+    void nextId_ShouldEncodeTimestampAndNode() {
+        // Arrange
+        RewardIdGenerator generator = new RewardIdGenerator(5, () -> NOW);
+
+        // Act
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        // Assert
+        assertEquals(Instant.ofEpochMilli(NOW), RewardIdGenerator.timestampOf(first));
+        assertEquals(5, (first >>> RewardIdGenerator.SEQUENCE_BITS) & RewardIdGenerator.MAX_NODE_ID);
+        assertEquals(first + 1, second);
+        assertTrue(first > 0);
+    }
+
+    @Test
+    void nextId_WhenSequenceExhausted_ShouldBorrowNextMillisecond() {
+        // Arrange
+        RewardIdGenerator generator = new RewardIdGenerator(0, () -> NOW);
+
+        // Act
+        long last = 0;
+        for (int i = 0; i <= 1 << RewardIdGenerator.SEQUENCE_BITS; i++) {
+            last = generator.nextId();
+        }
+
+        // Assert
+        assertEquals(Instant.ofEpochMilli(NOW + 1), RewardIdGenerator.timestampOf(last));
+    }
+
+    @Test
+    void nextId_WhenClockStepsBack_ShouldStayMonotonic() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(NOW);
+        RewardIdGenerator generator = new RewardIdGenerator(0, clock::get);
+        long before = generator.nextId();
+
+        // Act
+        clock.set(NOW - 1_000);
+        long after = generator.nextId();
+
+        // Assert
+        assertTrue(after > before);
+    }
+
+    @Test
+    void nextId_FromManyThreads_ShouldBeUnique() throws Exception {
+        // Arrange
+        RewardIdGenerator generator = new RewardIdGenerator(1, System::currentTimeMillis);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 20_000;
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> futures = IntStream.range(0, threads)
+                    .<Future<?>>mapToObj(t -> executor.submit(() -> {
+                        long previous = Long.MIN_VALUE;
+                        for (int i = 0; i < perThread; i++) {
+                            long id = generator.nextId();
+                            assertTrue(id > previous);
+                            previous = id;
+                            ids.add(id);
+                        }
+                    }))
+                    .toList();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        // Assert
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void constructor_WithNodeIdOutOfRange_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new RewardIdGenerator(1024, System::currentTimeMillis));
+        assertThrows(IllegalArgumentException.class, () -> new RewardIdGenerator(-1, System::currentTimeMillis));
+    }
+}
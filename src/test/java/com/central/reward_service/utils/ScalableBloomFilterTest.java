@@ -0,0 +1,91 @@
+package com.central.reward_service.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    void mightContain_ShouldNeverMissAnAddedKey() {
+        // Arrange
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        String[] keys = new String[5_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = UUID.randomUUID().toString();
+            filter.put(keys[i]);
+        }
+
+        // Act & Assert
+        for (String key : keys) {
+            assertTrue(filter.mightContain(key), key);
+        }
+    }
+
+    @Test
+    void put_BeyondCapacity_ShouldGrowAndKeepFalsePositiveRateBounded() {
+        // Arrange
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 20_000; i++) {
+            filter.put("txn-" + i);
+        }
+
+        // Act
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Assert - 1,000 -> 2,000 -> 4,000 -> 8,000 -> 16,000 keys
+        assertEquals(5, filter.stageCount());
+        assertTrue(filter.approximateElementCount() > 19_500);
+        assertTrue((double) falsePositives / probes < 0.01, "observed rate " + (double) falsePositives / probes);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.01);
+    }
+
+    @Test
+    void put_WhenKeyAlreadyPresent_ShouldNotCountItAgain() {
+        // Arrange
+        ScalableBloomFilter filter = new ScalableBloomFilter(10, 0.01);
+
+        // Act
+        filter.put("txn-1");
+        filter.put("txn-1");
+
+        // Assert
+        assertEquals(1, filter.approximateElementCount());
+        assertTrue(filter.bitSize() >= 64);
+    }
+
+    @Test
+    void bitIndex_ForStageBeyond32Bits_ShouldReachIndexesAbove2To32() {
+        // Arrange
+        long bits = 1L << 40;
+        long maxIndex = 0;
+
+        // Act
+        for (int key = 0; key < 1_000; key++) {
+            long hash = ScalableBloomFilter.hash("txn-" + key);
+            for (int i = 1; i <= 7; i++) {
+                long index = ScalableBloomFilter.bitIndex(hash, i, bits);
+                assertTrue(index >= 0 && index < bits);
+                maxIndex = Math.max(maxIndex, index);
+            }
+        }
+
+        // Assert
+        assertTrue(maxIndex > 1L << 32, "max index " + maxIndex);
+    }
+
+    @Test
+    void constructor_WithInvalidArguments_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(10, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(10, 1.0));
+    }
+}
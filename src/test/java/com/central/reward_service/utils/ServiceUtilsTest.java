@@ -1,14 +1,12 @@
 package com.central.reward_service.utils;
 
+import com.central.reward_service.model.CompiledRule;
 import com.central.reward_service.model.Reward;
 import com.central.reward_service.model.RewardRule;
-import com.central.reward_service.repository.RewardRuleRepository;
+import com.central.reward_service.model.RewardStatus;
+import com.central.reward_service.model.RewardView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
 import org.openapitools.model.RewardResponse;
 import org.openapitools.model.RewardRuleRequest;
 import org.openapitools.model.RewardRuleResponse;
@@ -19,19 +17,12 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
-import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
 
-@ExtendWith(MockitoExtension.class)
 class ServiceUtilsTest {
 
-    @Mock
-    private RewardRuleRepository ruleRepository;
-
-    @InjectMocks
-    private ServiceUtils serviceUtils;
+    private final ServiceUtils serviceUtils = new ServiceUtils();
 
     private RewardRule activeRule1;
     private RewardRule activeRule2;
@@ -81,50 +72,23 @@ class ServiceUtilsTest {
                 .rewardDescription("Test reward")
                 .rewardValue(100.0)
                 .createdAt(Timestamp.from(Instant.now()))
+                .status(RewardStatus.UNCLAIMED)
                 .build();
     }
 
     @Test
-    void getCachedRewardRules_ShouldReturnActiveRulesAsTreeMap() {
-        // Arrange
-        // Create two rules with the same minTransactionAmount to test grouping
-        RewardRule anotherGoldRule = RewardRule.builder()
-                .id(3L)
-                .tierName("GOLD_EXTRA")
-                .minTransactionAmount(1000.0)
-                .rewardType("CASHBACK")
-                .rewardValue(150.0)
-                .weight(1)
-                .active(true)
-                .description("Additional gold rule")
-                .build();
-                
-        List<RewardRule> activeRules = Arrays.asList(activeRule1, activeRule2, anotherGoldRule);
-        when(ruleRepository.findByActiveTrue()).thenReturn(activeRules);
-
+    void constructCompiledRule_ShouldMapAllFieldsCorrectly() {
         // Act
-        var result = serviceUtils.getCachedRewardRules();
+        CompiledRule compiled = ServiceUtils.constructCompiledRule(activeRule1);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(2, result.size()); // Should have 2 groups (1000.0 and 5000.0)
-        assertTrue(result.containsKey(1000.0));
-        assertTrue(result.containsKey(5000.0));
-        assertEquals(2, result.get(1000.0).size()); // Should have 2 rules for 1000.0
-        assertEquals(1, result.get(5000.0).size()); // Should have 1 rule for 5000.0
-    }
-
-    @Test
-    void getCachedRewardRules_WithNoActiveRules_ShouldReturnEmptyMap() {
-        // Arrange
-        when(ruleRepository.findByActiveTrue()).thenReturn(List.of());
-
-        // Act
-        var result = serviceUtils.getCachedRewardRules();
-
-        // Assert
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
+        assertEquals(activeRule1.getId(), compiled.id());
+        assertEquals(activeRule1.getTierName(), compiled.tierName());
+        assertEquals(activeRule1.getMinTransactionAmount(), compiled.minTransactionAmount());
+        assertEquals(activeRule1.getRewardType(), compiled.rewardType());
+        assertEquals(activeRule1.getDescription(), compiled.description());
+        assertEquals(activeRule1.getRewardValue(), compiled.rewardValue());
+        assertEquals(activeRule1.getWeight(), compiled.weight());
     }
 
     @Test
@@ -140,9 +104,22 @@ class ServiceUtilsTest {
         assertEquals(reward.getRewardType(), response.getRewardType());
         assertEquals(reward.getRewardDescription(), response.getDescription());
         assertEquals(reward.getRewardValue(), response.getRewardValue());
+        assertEquals(RewardResponse.RewardStatusEnum.UNCLAIMED, response.getRewardStatus());
         assertNotNull(response.getCreatedAt());
     }
 
+    @Test
+    void constructRewardViewResponse_ShouldMatchEntityMapping() {
+        // Arrange
+        RewardView view = RewardView.of(reward);
+
+        // Act
+        RewardResponse response = serviceUtils.constructRewardViewResponse(view);
+
+        // Assert
+        assertEquals(serviceUtils.constructRewardResponse(reward), response);
+    }
+
     @Test
     void constructRewardResponse_WithNullReward_ShouldThrowException() {
         // Act & Assert